@@ -0,0 +1,112 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.benchmarks;
+
+import com.aws.greengrass.cli.CLI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Wall-clock time of a whole CLI invocation in a new JVM, from starting the process until it exits, which is
+ * what a user or a script calling the CLI waits for.
+ *
+ * The archive parameter takes a class data sharing archive created by install.sh, or by
+ * java -Xshare:dump -XX:SharedClassListFile=greengrass-cli.classlist -XX:SharedArchiveFile=... -cp benchmarks.jar
+ * for this jar, to compare startup with and without it. "component list" needs a running nucleus, whose root path
+ * is taken from the benchmark.ggcRootPath system property. For example:
+ * java -Dbenchmark.ggcRootPath=/greengrass/v2 -jar benchmarks.jar ColdStartBenchmark -p archive=,/tmp/cli.jsa
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 20)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ColdStartBenchmark {
+
+    @Param({"--version", "component list"})
+    public String command;
+
+    // Empty means the JVM's default class data sharing.
+    @Param({""})
+    public String archive;
+
+    private Path cliHome;
+    private ProcessBuilder processBuilder;
+
+    @Setup
+    public void setup() throws IOException {
+        // VersionProvider reads the version from CLI_HOME, like the installed CLI does.
+        cliHome = Files.createTempDirectory("greengrass-cli-home");
+        Files.createDirectories(cliHome.resolve("conf"));
+        Files.write(cliHome.resolve("conf").resolve("build.properties"),
+                "cli.version=benchmark\n".getBytes(StandardCharsets.UTF_8));
+
+        List<String> cmd = new ArrayList<>();
+        cmd.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (!archive.isEmpty()) {
+            cmd.add("-XX:SharedArchiveFile=" + archive);
+            cmd.add("-Xshare:on");
+        }
+        cmd.add("-cp");
+        cmd.add(System.getProperty("java.class.path"));
+        cmd.add(CLI.class.getName());
+        String ggcRootPath = System.getProperty("benchmark.ggcRootPath");
+        if (ggcRootPath != null) {
+            cmd.add("--ggcRootPath");
+            cmd.add(ggcRootPath);
+        }
+        cmd.addAll(Arrays.asList(command.split(" ")));
+        processBuilder = new ProcessBuilder(cmd)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.to(new File(nullDevice())));
+        processBuilder.environment().put("CLI_HOME", cliHome.toString());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(cliHome.resolve("conf").resolve("build.properties"));
+        Files.deleteIfExists(cliHome.resolve("conf"));
+        Files.deleteIfExists(cliHome);
+    }
+
+    @Benchmark
+    public int run() throws IOException, InterruptedException {
+        Process process = processBuilder.start();
+        // Nothing is sent, closing stdin makes sure the CLI never waits for input.
+        process.getOutputStream().close();
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException("greengrass-cli " + command + " exited with " + exitCode);
+        }
+        return exitCode;
+    }
+
+    private static String nullDevice() {
+        return System.getProperty("os.name").toLowerCase().startsWith("windows") ? "NUL" : "/dev/null";
+    }
+}
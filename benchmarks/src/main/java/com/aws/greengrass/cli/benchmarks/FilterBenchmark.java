@@ -0,0 +1,80 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.benchmarks;
+
+import com.aws.greengrass.cli.util.logs.LogEntry;
+import com.aws.greengrass.cli.util.logs.LogsUtil;
+import com.aws.greengrass.cli.util.logs.impl.FilterImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Cost of FilterImpl.filter as the number of filter expressions grows. Expressions are AND-ed, and each one
+ * mixes key-value pairs, a regex and a log level, as users typically write them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class FilterBenchmark {
+    private static final int LINES = 4096;
+    private static final String[] EXPRESSIONS = {
+            "level=INFO,level=WARN,level=ERROR",
+            "thread=main,thread=pool-2-thread-13,thread=EventStreamRpcServer,message",
+            "serviceName=Component1,serviceName=Component2,component",
+            "eventType=service-set-state,eventType=stdout,deployment",
+            "currentState=RUNNING,currentState=ERRORED,conn.*tion",
+            "loggerName=com.aws.greengrass.lifecyclemanager.Kernel,retry|timeout",
+    };
+
+    @Param({"0", "1", "4", "16", "64"})
+    public int rules;
+
+    @Param({"true", "false"})
+    public boolean withTimeWindow;
+
+    private final FilterImpl filter = new FilterImpl();
+    private LogEntry[] entries;
+    private int next;
+
+    @Setup
+    public void setup() {
+        LogsUtil.setSyslog(false);
+        String[] lines = new LogGenerator(LogGenerator.DEFAULT_SEED).lines(LINES, false);
+        entries = new LogEntry[LINES];
+        for (int i = 0; i < LINES; i++) {
+            entries[i] = new LogEntry(lines[i]);
+        }
+        String[] filterExpressions = new String[rules];
+        for (int i = 0; i < rules; i++) {
+            filterExpressions[i] = EXPRESSIONS[i % EXPRESSIONS.length];
+        }
+        String[] timeWindow = withTimeWindow ? new String[]{"2020-07-13,2020-07-15"} : null;
+        filter.composeRule(timeWindow, filterExpressions);
+    }
+
+    @Benchmark
+    public boolean filter() {
+        next = (next + 1) % LINES;
+        LogEntry entry = entries[next];
+        // Matched keywords accumulate on the entry, so they are cleared to keep every call equal.
+        entry.getMatchedKeywords().clear();
+        return filter.filter(entry);
+    }
+}
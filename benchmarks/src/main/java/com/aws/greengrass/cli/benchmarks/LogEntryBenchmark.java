@@ -0,0 +1,54 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.benchmarks;
+
+import com.aws.greengrass.cli.util.logs.LogEntry;
+import com.aws.greengrass.cli.util.logs.LogsUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Cost of parsing a single line into a LogEntry.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LogEntryBenchmark {
+    private static final int LINES = 4096;
+
+    @Param({"json", "syslog"})
+    public String format;
+
+    private String[] lines;
+    private int next;
+
+    @Setup
+    public void setup() {
+        boolean syslog = "syslog".equals(format);
+        LogsUtil.setSyslog(syslog);
+        lines = new LogGenerator(LogGenerator.DEFAULT_SEED).lines(LINES, syslog);
+    }
+
+    @Benchmark
+    public LogEntry parse() {
+        next = (next + 1) % LINES;
+        return new LogEntry(lines[next]);
+    }
+}
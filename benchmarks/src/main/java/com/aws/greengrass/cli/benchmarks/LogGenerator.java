@@ -0,0 +1,191 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Random;
+
+/*
+ * Deterministic generator of synthetic Greengrass logs. The same seed always produces the same lines and the
+ * same directory layout, so benchmark results are comparable between runs and machines.
+ *
+ * Lines follow the structured format written by the Greengrass logging library, and log directories follow the
+ * nucleus layout: greengrass.log and one log per component, rotated every hour into
+ * ComponentName_yyyy_MM_dd_HH_index.log.
+ */
+public class LogGenerator {
+    // 2020-07-14T00:00:00Z, so that generated logs can be matched by fixed time windows.
+    public static final long START_TIMESTAMP = 1594684800000L;
+    public static final long DEFAULT_SEED = 42L;
+
+    private static final String[] LEVELS = {"TRACE", "DEBUG", "INFO", "INFO", "INFO", "WARN", "ERROR"};
+    private static final String[] THREADS = {"main", "pool-2-thread-13", "Serialized listener processor",
+            "idle-connection-reaper", "EventStreamRpcServer"};
+    private static final String[] LOGGERS = {"com.aws.greengrass.lifecyclemanager.GenericExternalService",
+            "com.aws.greengrass.deployment.DeploymentService", "com.aws.greengrass.mqttclient.MqttClient",
+            "com.aws.greengrass.lifecyclemanager.Kernel", "com.aws.greengrass.ipc.IPCEventStreamService"};
+    private static final String[] EVENT_TYPES = {"service-set-state", "shell-runner-start", "stdout", "stderr",
+            "deployment-status-update", "mqtt-publish", "ipc-request"};
+    private static final String[] STATES = {"NEW", "INSTALLED", "STARTING", "RUNNING", "STOPPING", "FINISHED",
+            "ERRORED", "BROKEN"};
+    private static final String[] WORDS = {"component", "deployment", "connection", "timeout", "started",
+            "stopped", "received", "request", "failed", "config", "topic", "message", "retry", "device", "token"};
+    private static final String[] HOSTS = {"ip-172-31-55-139", "ip-172-31-48-70", "3c22fb9c16f9"};
+    private static final String[] SYSLOG_LOGGERS = {"systemd[1]", "kernel", "sshd[812]", "greengrass[2314]"};
+    private static final DateTimeFormatter FILE_HOUR_FORMAT = DateTimeFormatter.ofPattern("yyyy_MM_dd_HH")
+            .withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter SYSLOG_TIME_FORMAT = DateTimeFormatter.ofPattern("MMM ppd HH:mm:ss",
+            Locale.ENGLISH).withZone(ZoneOffset.UTC);
+    private static final long HOUR_MILLIS = 3_600_000L;
+
+    private final Random random;
+    private long timestamp = START_TIMESTAMP;
+
+    public LogGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /*
+     * Next line in the Greengrass structured log format. Timestamps increase monotonically.
+     */
+    public String nextJsonLine() {
+        timestamp += random.nextInt(50);
+        String component = "Component" + random.nextInt(20);
+        StringBuilder sb = new StringBuilder(256);
+        sb.append("{\"thread\":\"").append(pick(THREADS))
+                .append("\",\"level\":\"").append(pick(LEVELS))
+                .append("\",\"eventType\":\"").append(pick(EVENT_TYPES))
+                .append("\",\"message\":\"").append(sentence())
+                .append("\",\"contexts\":{\"serviceName\":\"").append(component)
+                .append("\",\"currentState\":\"").append(pick(STATES))
+                .append("\"},\"loggerName\":\"").append(pick(LOGGERS))
+                .append("\",\"timestamp\":").append(timestamp)
+                .append(",\"cause\":null}");
+        return sb.toString();
+    }
+
+    /*
+     * Next line in the RFC 3164 syslog format. Timestamps increase monotonically.
+     */
+    public String nextSyslogLine() {
+        timestamp += random.nextInt(50);
+        StringBuilder sb = new StringBuilder(128);
+        if (random.nextInt(4) == 0) {
+            sb.append('<').append(random.nextInt(192)).append('>');
+        }
+        sb.append(SYSLOG_TIME_FORMAT.format(Instant.ofEpochMilli(timestamp)))
+                .append(' ').append(pick(HOSTS))
+                .append(' ').append(pick(SYSLOG_LOGGERS))
+                .append(": ").append(sentence());
+        return sb.toString();
+    }
+
+    /**
+     * Generate lines in memory.
+     *
+     * @param count number of lines
+     * @param syslog true for syslog lines, false for Greengrass structured lines
+     * @return generated lines
+     */
+    public String[] lines(int count, boolean syslog) {
+        String[] lines = new String[count];
+        for (int i = 0; i < count; i++) {
+            lines[i] = syslog ? nextSyslogLine() : nextJsonLine();
+        }
+        return lines;
+    }
+
+    /**
+     * Generate a Greengrass log directory. Every log group is rotated into files of about bytesPerFile, named
+     * after the hour of their first entry, and its most recent file is named LogGroup.log.
+     *
+     * @param dir directory to write into, created if missing
+     * @param totalBytes approximate total size of all files
+     * @param groups number of log groups, the first one is "greengrass"
+     * @param bytesPerFile approximate size of a single file
+     * @throws IOException if writing fails
+     */
+    public void generateDirectory(Path dir, long totalBytes, int groups, long bytesPerFile) throws IOException {
+        Files.createDirectories(dir);
+        long bytesPerGroup = totalBytes / groups;
+        for (int group = 0; group < groups; group++) {
+            String groupName = group == 0 ? "greengrass" : "Component" + group;
+            timestamp = START_TIMESTAMP;
+            long groupBytes = 0;
+            int index = 0;
+            while (groupBytes < bytesPerGroup) {
+                long fileStart = timestamp;
+                Path tmp = dir.resolve(groupName + ".tmp");
+                long fileBytes = 0;
+                try (Writer writer = new BufferedWriter(Files.newBufferedWriter(tmp, StandardCharsets.UTF_8),
+                        1 << 20)) {
+                    // A file holds at most one hour, as the nucleus rotates hourly.
+                    while (fileBytes < bytesPerFile && groupBytes + fileBytes < bytesPerGroup
+                            && timestamp / HOUR_MILLIS == fileStart / HOUR_MILLIS) {
+                        String line = nextJsonLine();
+                        writer.write(line);
+                        writer.write('\n');
+                        fileBytes += line.length() + 1;
+                    }
+                }
+                groupBytes += fileBytes;
+                String fileName = groupBytes >= bytesPerGroup ? groupName + ".log"
+                        : String.format("%s_%s_%d.log", groupName, FILE_HOUR_FORMAT.format(Instant.ofEpochMilli(
+                                fileStart)), index++);
+                // Regenerating into the same directory replaces the files of the previous run.
+                Files.move(tmp, dir.resolve(fileName), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * Generate a log directory from the command line.
+     * Usage: LogGenerator directory totalBytes [groups] [bytesPerFile] [seed]
+     *
+     * @param args command line arguments
+     * @throws IOException if writing fails
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: LogGenerator directory totalBytes [groups] [bytesPerFile] [seed]");
+            System.exit(1);
+        }
+        int groups = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        long bytesPerFile = args.length > 3 ? Long.parseLong(args[3]) : 10L << 20;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : DEFAULT_SEED;
+        new LogGenerator(seed).generateDirectory(Paths.get(args[0]), Long.parseLong(args[1]), groups, bytesPerFile);
+    }
+
+    private String sentence() {
+        int words = 3 + random.nextInt(10);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(pick(WORDS));
+        }
+        if (random.nextInt(10) == 0) {
+            sb.append(' ').append(random.nextInt(100_000));
+        }
+        return sb.toString();
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
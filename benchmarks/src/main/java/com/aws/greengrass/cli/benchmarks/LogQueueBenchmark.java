@@ -0,0 +1,95 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.benchmarks;
+
+import com.aws.greengrass.cli.util.logs.LogEntry;
+import com.aws.greengrass.cli.util.logs.LogQueue;
+import com.aws.greengrass.cli.util.logs.LogsUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Throughput of LogQueue with N producers putting entries, as the file readers do, and a single consumer
+ * taking them, as "logs get" does.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LogQueueBenchmark {
+    private static final int ENTRIES = 100_000;
+
+    @Param({"1", "2", "4", "8"})
+    public int producers;
+
+    @Param({"100", "10000"})
+    public int capacity;
+
+    private LogEntry[] entries;
+    private ExecutorService executor;
+
+    @Setup
+    public void setup() {
+        LogsUtil.setSyslog(false);
+        String[] lines = new LogGenerator(LogGenerator.DEFAULT_SEED).lines(ENTRIES, false);
+        entries = new LogEntry[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            entries[i] = new LogEntry(lines[i]);
+        }
+        executor = Executors.newFixedThreadPool(producers);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ENTRIES)
+    public void putTake(Blackhole blackhole) throws Exception {
+        LogQueue queue = new LogQueue(new PriorityBlockingQueue<>(), capacity);
+        List<Future<?>> futures = new ArrayList<>(producers);
+        int share = ENTRIES / producers;
+        for (int p = 0; p < producers; p++) {
+            int from = p * share;
+            int to = p == producers - 1 ? ENTRIES : from + share;
+            futures.add(executor.submit(() -> {
+                for (int i = from; i < to; i++) {
+                    queue.put(entries[i]);
+                }
+                return null;
+            }));
+        }
+        for (int i = 0; i < ENTRIES; i++) {
+            blackhole.consume(queue.take());
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+}
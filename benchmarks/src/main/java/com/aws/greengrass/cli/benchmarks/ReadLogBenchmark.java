@@ -0,0 +1,99 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.benchmarks;
+
+import com.aws.greengrass.cli.util.logs.LogEntry;
+import com.aws.greengrass.cli.util.logs.LogQueue;
+import com.aws.greengrass.cli.util.logs.LogsUtil;
+import com.aws.greengrass.cli.util.logs.impl.AggregationImpl;
+import com.aws.greengrass.cli.util.logs.impl.FilterImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * End-to-end AggregationImpl.readLog over a generated log directory, draining the queue like "logs get" does,
+ * without printing.
+ *
+ * Generating multi-GB directories takes a while, so they are kept under the directory given by the
+ * benchmark.logDir system property (the temp directory by default) and reused by later runs with the same
+ * size and seed. For example: java -Dbenchmark.logDir=/data -jar benchmarks.jar ReadLogBenchmark
+ * -p totalBytes=4294967296
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadLogBenchmark {
+    private static final String COMPLETE_MARKER = ".complete";
+
+    @Param({"268435456"})
+    public long totalBytes;
+
+    @Param({"8"})
+    public int groups;
+
+    @Param({"10485760"})
+    public long bytesPerFile;
+
+    // Empty means no filter, so every entry reaches the queue.
+    @Param({"", "level=ERROR"})
+    public String filterExpression;
+
+    private Path logDir;
+
+    @Setup
+    public void setup() throws IOException {
+        LogsUtil.setSyslog(false);
+        Path base = Paths.get(System.getProperty("benchmark.logDir", System.getProperty("java.io.tmpdir")));
+        logDir = base.resolve(String.format("greengrass-cli-logs-%d-%d-%d-%d", LogGenerator.DEFAULT_SEED,
+                totalBytes, groups, bytesPerFile));
+        if (!Files.exists(logDir.resolve(COMPLETE_MARKER))) {
+            new LogGenerator(LogGenerator.DEFAULT_SEED).generateDirectory(logDir, totalBytes, groups, bytesPerFile);
+            Files.createFile(logDir.resolve(COMPLETE_MARKER));
+        }
+    }
+
+    @Benchmark
+    public long readLog(Blackhole blackhole) throws InterruptedException {
+        FilterImpl filter = new FilterImpl();
+        filter.composeRule(null, filterExpression.isEmpty() ? null : new String[]{filterExpression});
+        AggregationImpl aggregation = new AggregationImpl();
+        aggregation.configure(false, filter, 0, 0, 100);
+        long count = 0;
+        try {
+            LogQueue queue = aggregation.readLog(null, Collections.singletonList(logDir));
+            while (!queue.isEmpty() || aggregation.isAlive()) {
+                LogEntry entry = queue.poll(10, TimeUnit.MILLISECONDS);
+                if (entry != null) {
+                    blackhole.consume(entry);
+                    count++;
+                }
+            }
+        } finally {
+            aggregation.close();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.benchmarks;
+
+import com.aws.greengrass.cli.util.logs.LogEntry;
+import com.aws.greengrass.cli.util.logs.LogsUtil;
+import com.aws.greengrass.cli.util.logs.impl.FilterImpl;
+import com.aws.greengrass.cli.util.logs.impl.VisualizationImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Cost of formatting and printing a LogEntry. Output goes to a stream that discards it, so the terminal is
+ * not measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class VisualizationBenchmark {
+    private static final int LINES = 4096;
+
+    @Param({"json", "syslog"})
+    public String format;
+
+    @Param({"true", "false"})
+    public boolean noColor;
+
+    @Param({"true", "false"})
+    public boolean verbose;
+
+    private final VisualizationImpl visualization = new VisualizationImpl();
+    private PrintStream originalPrintStream;
+    private LogEntry[] entries;
+    private int next;
+
+    @Setup
+    public void setup() {
+        boolean syslog = "syslog".equals(format);
+        LogsUtil.setSyslog(syslog);
+        originalPrintStream = LogsUtil.getPrintStream();
+        LogsUtil.setPrintStream(new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        }));
+        String[] lines = new LogGenerator(LogGenerator.DEFAULT_SEED).lines(LINES, syslog);
+        // Keywords are highlighted unless noColor is set, so entries carry the matches of a regex filter.
+        FilterImpl filter = new FilterImpl();
+        filter.composeRule(null, new String[]{"deployment|timeout"});
+        entries = new LogEntry[LINES];
+        for (int i = 0; i < LINES; i++) {
+            entries[i] = new LogEntry(lines[i]);
+            filter.filter(entries[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        LogsUtil.setPrintStream(originalPrintStream);
+    }
+
+    @Benchmark
+    public void visualize() {
+        next = (next + 1) % LINES;
+        visualization.visualize(entries[next], noColor, verbose);
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Cost of looking up the effective user id on the CLI's authentication path, from /proc/self/status and by
+ * running "id -u". Every CLI invocation does this once, in a cold JVM, so each fork measures a single first
+ * call without warmup.
+ *
+ * It is in the package of PlatformUtils because the uncached lookups it measures are package-private.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class EffectiveIdBenchmark {
+
+    @Benchmark
+    public Integer procStatus() {
+        return PlatformUtils.readEffectiveUIDFromProc();
+    }
+
+    @Benchmark
+    public int idCommand() throws IOException {
+        return PlatformUtils.readEffectiveUIDFromCommand();
+    }
+}
@@ -0,0 +1,58 @@
+#!/usr/bin/env sh
+#
+# Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+# SPDX-License-Identifier: Apache-2.0
+#
+# Compares wall-clock time and peak resident memory of one CLI command run by the JVM and by the native
+# executable built with the native profile. Needs GNU time at /usr/bin/time.
+#
+# Usage: startup-rss.sh [runs] [command...]
+# For example: GGC_ROOT_PATH=/greengrass/v2 benchmarks/startup-rss.sh 20 component list
+
+set -e
+
+ROOT_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+RUNS="${1:-20}"
+[ $# -gt 0 ] && shift
+[ $# -eq 0 ] && set -- --version
+
+JAR="$(ls "$ROOT_DIR"/client/target/cliclient-*-dependency.jar 2>/dev/null | head -n 1)"
+NATIVE="$ROOT_DIR/client/target/greengrass-cli"
+if [ -z "$JAVA_HOME" ] ; then
+  JAVACMD=`which java`
+else
+  JAVACMD="$JAVA_HOME/bin/java"
+fi
+
+# VersionProvider reads the version from CLI_HOME, like the installed CLI does.
+export CLI_HOME="$ROOT_DIR/client"
+
+# Prints the median wall-clock seconds and the median peak RSS in KB of the given command over RUNS runs.
+measure() {
+  samples="$(mktemp)"
+  i=0
+  while [ $i -lt "$RUNS" ] ; do
+    /usr/bin/time -f "%e %M" -a -o "$samples" "$@" >/dev/null 2>&1 </dev/null || true
+    i=$((i + 1))
+  done
+  # GNU time adds a "Command exited with non-zero status" line for failed runs, so only the measurements are kept.
+  measurements="$(mktemp)"
+  grep -E '^[0-9.]+ [0-9]+$' "$samples" > "$measurements" || true
+  seconds="$(cut -d ' ' -f 1 "$measurements" | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }')"
+  rss="$(cut -d ' ' -f 2 "$measurements" | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }')"
+  rm -f "$samples" "$measurements"
+  printf "%-8s %10s s %10s KB\n" "$LABEL" "$seconds" "$rss"
+}
+
+echo "greengrass-cli $*, median of $RUNS runs"
+printf "%-8s %12s %13s\n" "Launcher" "Wall time" "Peak RSS"
+if [ -n "$JAR" ] ; then
+  LABEL=jvm measure "$JAVACMD" -classpath "$JAR" com.aws.greengrass.cli.CLI "$@"
+else
+  echo "No jar in client/target, run mvn package first" >&2
+fi
+if [ -x "$NATIVE" ] ; then
+  LABEL=native measure "$NATIVE" "$@"
+else
+  echo "No native executable in client/target, run mvn -P native package first" >&2
+fi
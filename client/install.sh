@@ -2,4 +2,19 @@
 
 SCRIPT_DIR="$(dirname "$(readlink -f "$0" 2>/dev/null || echo "$(pwd)/""$0")")"
 ln -fs $SCRIPT_DIR/bin/greengrass-cli /usr/local/bin/greengrass-cli 2>/dev/null || sudo ln -fs $SCRIPT_DIR/bin/greengrass-cli /usr/local/bin/greengrass-cli
+
+# Create a class data sharing archive for faster startup when the build shipped a class list. The archive is only
+# valid for this installation path and Java version, so it is created here. Requires Java 10 or later, older
+# versions simply start without it.
+if [ -f "$SCRIPT_DIR/lib/greengrass-cli.classlist" ] ; then
+  if [ -z "$JAVA_HOME" ] ; then
+    JAVACMD=`which java`
+  else
+    JAVACMD="$JAVA_HOME/bin/java"
+  fi
+  rm -f "$SCRIPT_DIR/lib/greengrass-cli.jsa"
+  "${JAVACMD:=java}" -Xshare:dump -XX:SharedClassListFile="$SCRIPT_DIR/lib/greengrass-cli.classlist" \
+    -XX:SharedArchiveFile="$SCRIPT_DIR/lib/greengrass-cli.jsa" -classpath "$SCRIPT_DIR/lib/*" >/dev/null 2>&1 \
+    || rm -f "$SCRIPT_DIR/lib/greengrass-cli.jsa"
+fi
 echo "Start using greengrass-cli"
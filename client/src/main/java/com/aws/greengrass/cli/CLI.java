@@ -5,12 +5,15 @@
 
 package com.aws.greengrass.cli;
 
+import com.aws.greengrass.cli.commands.BatchCommand;
 import com.aws.greengrass.cli.commands.ComponentCommand;
+import com.aws.greengrass.cli.commands.DaemonCommand;
 import com.aws.greengrass.cli.commands.DeploymentCommand;
 import com.aws.greengrass.cli.commands.Logs;
 import com.aws.greengrass.cli.commands.PasswordCommand;
 import com.aws.greengrass.cli.commands.topic.IotCoreCommand;
 import com.aws.greengrass.cli.commands.topic.PubSubCommand;
+import com.aws.greengrass.cli.daemon.DaemonClient;
 import com.aws.greengrass.cli.module.AdapterModule;
 import com.aws.greengrass.cli.module.CommandsComponent;
 import com.aws.greengrass.cli.module.DaggerCommandsComponent;
@@ -21,18 +24,28 @@ import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.ParameterException;
 import picocli.CommandLine.Spec;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.ResourceBundle;
+import java.util.Set;
 
 /**
  * Main entry point into the command line.
  */
 @Command(name = "greengrass-cli",
         mixinStandardHelpOptions = true,
-        subcommands = {HelpCommand.class, ComponentCommand.class, DeploymentCommand.class, Logs.class,
-                PasswordCommand.class, PubSubCommand.class, IotCoreCommand.class},
+        subcommands = HelpCommand.class,
         resourceBundle = "com.aws.greengrass.cli.CLI_messages",
         versionProvider = com.aws.greengrass.cli.module.VersionProvider.class)
 public class CLI implements Runnable {
+    // Top level commands, registered by newCommandLine so that a single command can be registered on its own.
+    static final List<Class<?>> COMMANDS = Collections.unmodifiableList(Arrays.asList(ComponentCommand.class,
+            DeploymentCommand.class, Logs.class, PasswordCommand.class, PubSubCommand.class, IotCoreCommand.class,
+            DaemonCommand.class, BatchCommand.class));
+    private static final String GGC_ROOT_PATH_OPTION = "--ggcRootPath";
+    private static final Set<String> VERSION_OPTIONS = new HashSet<>(Arrays.asList("-V", "--version"));
 
     @CommandLine.Option(names = "--ggcRootPath", description = "The path to the root directory of Greengrass")
     String ggcRootPath;
@@ -41,40 +54,86 @@ public class CLI implements Runnable {
     CommandSpec spec;
 
     public static void main(String... args) {
+        // Commands are served by the local daemon when one is running, which saves connecting to the nucleus.
+        Integer daemonExitCode = DaemonClient.tryRun(args);
+        if (daemonExitCode != null) {
+            System.exit(daemonExitCode);
+        }
         CLI cli = new CLI();
-        int exitCode = 0;
-        try {
-            populateCommand(cli, args);
-            exitCode = new CommandLine(cli, new CommandFactory(cli.createCommandComponent()))
-                    .setExecutionExceptionHandler((e, commandLine, parseResult) -> {
-                        if (e instanceof CommandLine.UnmatchedArgumentException
-                                || e instanceof CommandLine.MissingParameterException) {
-                            System.out.println(commandLine.getColorScheme().errorText(e.getMessage()));
-                            commandLine.usage(System.out);
-                            return 0;
-                        } else {
-                            throw e;
-                        }
-                    })
-                    .execute(args);
+        // The adapter reads the root path when it first connects, after the arguments have been parsed, so the
+        // component is built only once.
+        CommandsComponent commandsComponent = DaggerCommandsComponent.builder()
+                .adapterModule(new AdapterModule(cli::getGgcRootPath, false))
+                .build();
+        System.exit(newCommandLine(cli, commandsComponent, args).execute(args));
+    }
 
-        } catch (ParameterException e) {
-            CommandLine.defaultExceptionHandler().handleParseException(e, args);
-        }
-        System.exit(exitCode);
+    /**
+     * Create the command line of the CLI.
+     *
+     * @param cli the CLI, which receives the top level options
+     * @param commandsComponent component that creates commands
+     * @return the command line
+     */
+    public static CommandLine newCommandLine(CLI cli, CommandsComponent commandsComponent) {
+        return newCommandLine(cli, commandsComponent, COMMANDS);
     }
 
-    private static void populateCommand(CLI cli, String[] args) {
-        CommandLine parser = new CommandLine(cli, new CommandFactory(DaggerCommandsComponent.builder()
-                .adapterModule(new AdapterModule(null))
-                .build()));
-        parser.parseArgs(args);
+    /**
+     * Create the command line of the CLI with only the commands needed to run the given arguments. Picocli
+     * inspects every registered command and loads the classes of its options, so registering only the invoked
+     * command saves startup time. Help and unknown commands get all commands, and --version gets none.
+     *
+     * @param cli the CLI, which receives the top level options
+     * @param commandsComponent component that creates commands
+     * @param args arguments to run
+     * @return the command line
+     */
+    public static CommandLine newCommandLine(CLI cli, CommandsComponent commandsComponent, String... args) {
+        String command = null;
+        boolean version = false;
+        for (int i = 0; i < args.length && command == null; i++) {
+            if (GGC_ROOT_PATH_OPTION.equals(args[i])) {
+                i++;
+            } else if (VERSION_OPTIONS.contains(args[i])) {
+                version = true;
+            } else if (!args[i].startsWith("-")) {
+                command = args[i];
+            }
+        }
+        if (command == null) {
+            return newCommandLine(cli, commandsComponent, version ? Collections.<Class<?>>emptyList() : COMMANDS);
+        }
+        for (Class<?> commandClass : COMMANDS) {
+            if (command.equals(commandClass.getAnnotation(Command.class).name())) {
+                return newCommandLine(cli, commandsComponent, Collections.singletonList(commandClass));
+            }
+        }
+        return newCommandLine(cli, commandsComponent, COMMANDS);
     }
 
-    private CommandsComponent createCommandComponent() {
-        return DaggerCommandsComponent.builder()
-                .adapterModule(new AdapterModule(getGgcRootPath()))
-                .build();
+    private static CommandLine newCommandLine(CLI cli, CommandsComponent commandsComponent,
+                                              List<Class<?>> commands) {
+        CommandFactory factory = new CommandFactory(commandsComponent);
+        CommandLine root = new CommandLine(cli, factory);
+        for (Class<?> commandClass : commands) {
+            try {
+                root.addSubcommand(factory.create(commandClass));
+            } catch (Exception e) {
+                throw new CommandLine.InitializationException("Unable to create " + commandClass, e);
+            }
+        }
+        return root
+                .setExecutionExceptionHandler((e, commandLine, parseResult) -> {
+                    if (e instanceof CommandLine.UnmatchedArgumentException
+                            || e instanceof CommandLine.MissingParameterException) {
+                        System.out.println(commandLine.getColorScheme().errorText(e.getMessage()));
+                        commandLine.usage(System.out);
+                        return 0;
+                    } else {
+                        throw e;
+                    }
+                });
     }
 
     public String getGgcRootPath() {
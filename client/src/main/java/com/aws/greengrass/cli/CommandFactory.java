@@ -5,19 +5,36 @@
 
 package com.aws.greengrass.cli;
 
+import com.aws.greengrass.cli.commands.BatchCommand;
+import com.aws.greengrass.cli.commands.ComponentCommand;
+import com.aws.greengrass.cli.commands.DaemonCommand;
+import com.aws.greengrass.cli.commands.DeploymentCommand;
+import com.aws.greengrass.cli.commands.Logs;
+import com.aws.greengrass.cli.commands.PasswordCommand;
+import com.aws.greengrass.cli.commands.topic.IotCoreCommand;
+import com.aws.greengrass.cli.commands.topic.PubSubCommand;
 import com.aws.greengrass.cli.module.AdapterModule;
 import com.aws.greengrass.cli.module.CommandsComponent;
 import com.aws.greengrass.cli.module.DaggerCommandsComponent;
 import picocli.CommandLine;
 
-import java.lang.reflect.Method;
-import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
 
 public class CommandFactory implements CommandLine.IFactory {
-    private final CommandsComponent commands;
+    // Every command of CommandsComponent, so that creating a command needs no reflection over the component.
+    private final Map<Class<?>, Supplier<?>> commands = new HashMap<>();
 
     public CommandFactory(final CommandsComponent commands) {
-        this.commands = commands;
+        this.commands.put(Logs.class, commands::logs);
+        this.commands.put(ComponentCommand.class, commands::component);
+        this.commands.put(DeploymentCommand.class, commands::deployment);
+        this.commands.put(PasswordCommand.class, commands::password);
+        this.commands.put(IotCoreCommand.class, commands::iotcore);
+        this.commands.put(PubSubCommand.class, commands::pubsub);
+        this.commands.put(DaemonCommand.class, commands::daemon);
+        this.commands.put(BatchCommand.class, commands::batch);
     }
 
     public CommandFactory() {
@@ -28,14 +45,10 @@ public class CommandFactory implements CommandLine.IFactory {
 
     @Override
     public <K> K create(final Class<K> aClass) throws Exception {
-        try {
-            Method componentMethod = Arrays.stream(CommandsComponent.class.getMethods())
-                    .filter(method -> method.getReturnType().equals(aClass))
-                    .findFirst()
-                    .orElseThrow(() -> new IllegalArgumentException("Unable to create " + aClass));
-            return aClass.cast(componentMethod.invoke(commands));
-        } catch (IllegalArgumentException e) {
+        Supplier<?> command = commands.get(aClass);
+        if (command == null) {
             return CommandLine.defaultFactory().create(aClass);
         }
+        return aClass.cast(command.get());
     }
 }
@@ -0,0 +1,22 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.adapter;
+
+import lombok.Value;
+
+/*
+ * Outcome of restarting or stopping a single component. The error is null if the request succeeded.
+ */
+@Value
+public class ComponentOperationResult {
+    String componentName;
+    String error;
+    long latencyMillis;
+
+    public boolean isSucceeded() {
+        return error == null;
+    }
+}
@@ -14,9 +14,11 @@ import software.amazon.awssdk.aws.greengrass.model.CreateLocalDeploymentRequest;
 import software.amazon.awssdk.aws.greengrass.model.LocalDeployment;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
 import java.util.List;
 
-public interface NucleusAdapterIpc {
+public interface NucleusAdapterIpc extends NucleusAdapterIpcAsync {
 
     ComponentDetails getComponentDetails(String componentName);
 
@@ -24,6 +26,11 @@ public interface NucleusAdapterIpc {
 
     void stopComponent(String... componentNames);
 
+    // Send all requests on one connection with at most concurrency requests in flight.
+    List<ComponentOperationResult> restartComponents(int concurrency, String... componentNames);
+
+    List<ComponentOperationResult> stopComponents(int concurrency, String... componentNames);
+
     LocalDeployment getLocalDeploymentStatus(String deploymentId);
 
     List<LocalDeployment> listLocalDeployments();
@@ -34,13 +41,40 @@ public interface NucleusAdapterIpc {
 
     CreateDebugPasswordResponse createDebugPassword();
 
-    void publishToTopic(String topicName, String message);
+    default void publishToTopic(String topicName, String message) {
+        publishToTopic(topicName, message.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Publishes the bytes as a binary message as they are.
+    void publishToTopic(String topicName, byte[] message);
+
+    default void publishToIoTCore(String topicName, String message, String qos) {
+        publishToIoTCore(topicName, message.getBytes(StandardCharsets.UTF_8), qos);
+    }
 
-    void publishToIoTCore(String topicName, String message, String qos);
+    void publishToIoTCore(String topicName, byte[] payload, String qos);
 
-    void subscribeToTopic(String topicName) throws IOException;
+    default void subscribeToTopic(String topicName) throws IOException {
+        subscribeToTopics(Collections.singletonList(topicName));
+    }
 
-    void subscribeToIoTCore(String topicName, String qos) throws IOException;
+    // Subscribes to all topics on one connection and prints their messages until every subscription is closed.
+    void subscribeToTopics(List<String> topicNames) throws IOException;
+
+    default void subscribeToIoTCore(String topicName, String qos) throws IOException {
+        subscribeToIoTCore(Collections.singletonList(topicName), qos);
+    }
+
+    // Subscribes to all topics on one connection and prints their messages until every subscription is closed.
+    void subscribeToIoTCore(List<String> topicNames, String qos) throws IOException;
 
     String cancelLocalDeployment(CancelLocalDeploymentRequest cancelLocalDeploymentRequest);
+
+    // Keep the connection open between operations. Setting it back to false closes the connection.
+    default void setPersistent(boolean persistent) {
+    }
+
+    default boolean isPersistent() {
+        return false;
+    }
 }
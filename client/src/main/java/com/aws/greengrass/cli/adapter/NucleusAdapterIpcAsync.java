@@ -0,0 +1,75 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.adapter;
+
+import software.amazon.awssdk.aws.greengrass.model.CancelLocalDeploymentRequest;
+import software.amazon.awssdk.aws.greengrass.model.ComponentDetails;
+import software.amazon.awssdk.aws.greengrass.model.CreateLocalDeploymentRequest;
+import software.amazon.awssdk.aws.greengrass.model.IoTCoreMessage;
+import software.amazon.awssdk.aws.greengrass.model.LocalDeployment;
+import software.amazon.awssdk.aws.greengrass.model.PublishToIoTCoreResponse;
+import software.amazon.awssdk.aws.greengrass.model.PublishToTopicResponse;
+import software.amazon.awssdk.aws.greengrass.model.QOS;
+import software.amazon.awssdk.aws.greengrass.model.RestartComponentResponse;
+import software.amazon.awssdk.aws.greengrass.model.StopComponentResponse;
+import software.amazon.awssdk.aws.greengrass.model.SubscribeToIoTCoreResponse;
+import software.amazon.awssdk.aws.greengrass.model.SubscribeToTopicResponse;
+import software.amazon.awssdk.aws.greengrass.model.SubscriptionResponseMessage;
+import software.amazon.awssdk.eventstreamrpc.StreamResponseHandler;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/*
+ * Non-blocking IPC operations. Each method sends its request and returns a future that the IPC client completes
+ * with the response, so many requests can be in flight on one connection without a thread waiting for each.
+ *
+ * The first operation connects to the nucleus and may block until connected. Operations never throw: a failure
+ * to connect or to send fails the returned future, and requests fail with the error returned by the nucleus. Futures do not time out on their own. The connection
+ * stays open for requests in flight and is only closed by closeConnection(), but the blocking operations of
+ * NucleusAdapterIpc close it when they return unless the adapter is persistent, so do not mix them with requests
+ * in flight on a non-persistent adapter.
+ */
+public interface NucleusAdapterIpcAsync {
+
+    CompletableFuture<ComponentDetails> getComponentDetailsAsync(String componentName);
+
+    CompletableFuture<List<ComponentDetails>> listComponentsAsync();
+
+    CompletableFuture<RestartComponentResponse> restartComponentAsync(String componentName);
+
+    CompletableFuture<StopComponentResponse> stopComponentAsync(String componentName);
+
+    CompletableFuture<LocalDeployment> getLocalDeploymentStatusAsync(String deploymentId);
+
+    CompletableFuture<List<LocalDeployment>> listLocalDeploymentsAsync();
+
+    // Completes with the id of the created deployment.
+    CompletableFuture<String> createLocalDeploymentAsync(CreateLocalDeploymentRequest createLocalDeploymentRequest);
+
+    // Completes with the message returned by the nucleus.
+    CompletableFuture<String> cancelLocalDeploymentAsync(CancelLocalDeploymentRequest cancelLocalDeploymentRequest);
+
+    CompletableFuture<PublishToTopicResponse> publishToTopicAsync(String topicName, byte[] message);
+
+    // Publishes a JSON message, which subscribers receive as a JSON object rather than as bytes.
+    CompletableFuture<PublishToTopicResponse> publishJsonToTopicAsync(String topicName, Map<String, Object> message);
+
+    CompletableFuture<PublishToIoTCoreResponse> publishToIoTCoreAsync(String topicName, byte[] payload, QOS qos);
+
+    // Completes once subscribed, messages are then passed to the handler until the stream is closed.
+    CompletableFuture<SubscribeToTopicResponse> subscribeToTopicAsync(
+            String topicName, StreamResponseHandler<SubscriptionResponseMessage> handler);
+
+    CompletableFuture<SubscribeToIoTCoreResponse> subscribeToIoTCoreAsync(
+            String topicName, QOS qos, StreamResponseHandler<IoTCoreMessage> handler);
+
+    /*
+     * Close the connection to the nucleus, failing requests still in flight. A later operation connects again.
+     */
+    void closeConnection();
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.adapter.impl;
+
+import com.aws.greengrass.cli.util.PlatformUtils;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Auth token and domain socket path of the nucleus's CLI IPC server, read from the cli_ipc_info directory.
+ *
+ * Parsed files are cached per directory, so that reconnecting, as the daemon and batch commands do, neither reads
+ * and parses the file again nor retries files that could not be read. A cached file is valid while its
+ * modification time and size are unchanged, as the nucleus rewrites it with a new token when it restarts. Files
+ * modified shortly before they were read are not trusted, because a change in the same clock tick would go
+ * unnoticed.
+ */
+@Getter
+@AllArgsConstructor
+class CliIpcInfo {
+    static final String CLI_IPC_INFO_DIRECTORY = "cli_ipc_info";
+    private static final String USER_CLIENT_ID_PREFIX = "user-";
+    private static final String GROUP_CLIENT_ID_PREFIX = "group-";
+    private static final String CLI_AUTH_TOKEN = "cli_auth_token";
+    private static final String DOMAIN_SOCKET_PATH = "domain_socket_path";
+    private static final long RACY_INTERVAL_MILLIS = 2000;
+    // Longest socket path that fits into sockaddr_un on all supported platforms.
+    private static final int MAX_SOCKET_PATH_LENGTH = 107;
+    private static final String LINK_DIRECTORY = ".greengrass-cli";
+    private static final String LINK_PREFIX = "ipc-";
+    private static final String LINK_SUFFIX = ".socket";
+    // Hex digits of the socket path's SHA-256 digest in the link name.
+    private static final int LINK_HASH_LENGTH = 16;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private static final Map<Path, Cached> CACHE = new ConcurrentHashMap<>();
+
+    private final String token;
+    private final String domainSocketPath;
+
+    /**
+     * Get the IPC info for the current user from a cli_ipc_info directory. The file of the effective user is
+     * preferred, then the one of the effective group, then any readable file.
+     *
+     * @param directory the cli_ipc_info directory
+     * @return the IPC info
+     * @throws IOException if no file can be read
+     */
+    static CliIpcInfo load(Path directory) throws IOException {
+        Cached cached = CACHE.get(directory);
+        if (cached != null && cached.isValid()) {
+            return cached.getInfo();
+        }
+
+        IOException e = new IOException("Not able to find auth information in directory: " + directory +
+                ". Please run CLI as authorized user or group.");
+        List<Path> candidates = new ArrayList<>();
+        if (cached != null) {
+            // The file that was readable before most likely still is.
+            candidates.add(cached.getFile());
+        }
+        candidates.add(directory.resolve(USER_CLIENT_ID_PREFIX + PlatformUtils.getEffectiveUID()));
+        candidates.add(directory.resolve(GROUP_CLIENT_ID_PREFIX + PlatformUtils.getEffectiveGID()));
+        for (Path file : candidates) {
+            CliIpcInfo info = tryRead(directory, file, e);
+            if (info != null) {
+                return info;
+            }
+        }
+
+        File[] files = directory.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                CliIpcInfo info = tryRead(directory, file.toPath(), e);
+                if (info != null) {
+                    return info;
+                }
+            }
+        } else {
+            e.addSuppressed(new IOException("Unable to list files under: " + directory));
+        }
+        throw e;
+    }
+
+    /*
+     * Forget the cached info of a directory, for example after the nucleus rejected its token.
+     */
+    static void invalidate(Path directory) {
+        CACHE.remove(directory);
+    }
+
+    private static CliIpcInfo tryRead(Path directory, Path file, IOException e) {
+        try {
+            // Attributes are taken before reading, so that a concurrent rewrite invalidates the entry.
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            Map<?, ?> map = OBJECT_MAPPER.readValue(Files.readAllBytes(file), Map.class);
+            CliIpcInfo info = new CliIpcInfo((String) map.get(CLI_AUTH_TOKEN), (String) map.get(DOMAIN_SOCKET_PATH));
+            CACHE.put(directory, new Cached(file, attributes.lastModifiedTime().toMillis(), attributes.size(),
+                    System.currentTimeMillis(), info));
+            return info;
+        } catch (IOException ioe) {
+            e.addSuppressed(ioe);
+            return null;
+        }
+    }
+
+    /**
+     * Get a path to connect to the domain socket. Paths too long for a socket address are reached through a
+     * symbolic link in the user's CLI directory, named after the socket path, so that it is created once and
+     * shared by all CLI processes of the user instead of being recreated by each one.
+     *
+     * @return the socket path, or the link to it
+     */
+    String connectPath() {
+        if (domainSocketPath == null || domainSocketPath.length() <= MAX_SOCKET_PATH_LENGTH) {
+            return domainSocketPath;
+        }
+        Path link = Paths.get(System.getProperty("user.home")).resolve(LINK_DIRECTORY)
+                .resolve(linkName(domainSocketPath));
+        if (link.toString().length() > MAX_SOCKET_PATH_LENGTH) {
+            return domainSocketPath;
+        }
+        try {
+            return ensureLink(link, Paths.get(domainSocketPath)).toString();
+        } catch (IOException | UnsupportedOperationException e) {
+            // Connecting with the long path fails with a clearer error than a failed link.
+            return domainSocketPath;
+        }
+    }
+
+    /*
+     * Name of the link to a socket path. A prefix of its SHA-256 digest keeps the name short while making it
+     * unlikely that two socket paths share a link; ensureLink replaces a link pointing elsewhere regardless.
+     */
+    static String linkName(String socketPath) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(socketPath.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // Not possible since every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+        StringBuilder name = new StringBuilder(LINK_PREFIX);
+        for (int i = 0; i < LINK_HASH_LENGTH / 2; i++) {
+            name.append(String.format("%02x", digest[i]));
+        }
+        return name.append(LINK_SUFFIX).toString();
+    }
+
+    static Path ensureLink(Path link, Path target) throws IOException {
+        if (Files.isSymbolicLink(link) && target.equals(Files.readSymbolicLink(link))) {
+            return link;
+        }
+        Files.createDirectories(link.getParent());
+        // Replace the link atomically, so that concurrent processes never see it missing.
+        Path tmp = link.resolveSibling(link.getFileName() + "." + System.nanoTime() + ".tmp");
+        Files.createSymbolicLink(tmp, target);
+        try {
+            Files.move(tmp, link, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, link, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        return link;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Cached {
+        private final Path file;
+        private final long modified;
+        private final long size;
+        private final long read;
+        private final CliIpcInfo info;
+
+        boolean isValid() {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                long modifiedNow = attributes.lastModifiedTime().toMillis();
+                return modifiedNow == modified && attributes.size() == size
+                        && modified < read - RACY_INTERVAL_MILLIS;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+}
@@ -5,17 +5,10 @@
 
 package com.aws.greengrass.cli.adapter.impl;
 
+import com.aws.greengrass.cli.adapter.ComponentOperationResult;
 import com.aws.greengrass.cli.adapter.NucleusAdapterIpc;
-import com.aws.greengrass.cli.util.PlatformUtils;
-import com.fasterxml.jackson.databind.DeserializationFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.gson.Gson;
-import software.amazon.awssdk.aws.greengrass.GetLocalDeploymentStatusResponseHandler;
+import com.aws.greengrass.cli.util.pubsub.SubscriberOutput;
 import software.amazon.awssdk.aws.greengrass.GreengrassCoreIPCClient;
-import software.amazon.awssdk.aws.greengrass.PublishToIoTCoreResponseHandler;
-import software.amazon.awssdk.aws.greengrass.PublishToTopicResponseHandler;
-import software.amazon.awssdk.aws.greengrass.SubscribeToIoTCoreResponseHandler;
-import software.amazon.awssdk.aws.greengrass.SubscribeToTopicResponseHandler;
 import software.amazon.awssdk.aws.greengrass.model.BinaryMessage;
 import software.amazon.awssdk.aws.greengrass.model.CancelLocalDeploymentRequest;
 import software.amazon.awssdk.aws.greengrass.model.CancelLocalDeploymentResponse;
@@ -25,13 +18,17 @@ import software.amazon.awssdk.aws.greengrass.model.CreateDebugPasswordResponse;
 import software.amazon.awssdk.aws.greengrass.model.CreateLocalDeploymentRequest;
 import software.amazon.awssdk.aws.greengrass.model.CreateLocalDeploymentResponse;
 import software.amazon.awssdk.aws.greengrass.model.GetComponentDetailsRequest;
+import software.amazon.awssdk.aws.greengrass.model.GetComponentDetailsResponse;
 import software.amazon.awssdk.aws.greengrass.model.GetLocalDeploymentStatusRequest;
+import software.amazon.awssdk.aws.greengrass.model.GetLocalDeploymentStatusResponse;
 import software.amazon.awssdk.aws.greengrass.model.IoTCoreMessage;
+import software.amazon.awssdk.aws.greengrass.model.JsonMessage;
 import software.amazon.awssdk.aws.greengrass.model.ListComponentsRequest;
 import software.amazon.awssdk.aws.greengrass.model.ListComponentsResponse;
 import software.amazon.awssdk.aws.greengrass.model.ListLocalDeploymentsRequest;
 import software.amazon.awssdk.aws.greengrass.model.ListLocalDeploymentsResponse;
 import software.amazon.awssdk.aws.greengrass.model.LocalDeployment;
+import software.amazon.awssdk.aws.greengrass.model.MessageContext;
 import software.amazon.awssdk.aws.greengrass.model.PublishMessage;
 import software.amazon.awssdk.aws.greengrass.model.PublishToIoTCoreRequest;
 import software.amazon.awssdk.aws.greengrass.model.PublishToIoTCoreResponse;
@@ -39,8 +36,11 @@ import software.amazon.awssdk.aws.greengrass.model.PublishToTopicRequest;
 import software.amazon.awssdk.aws.greengrass.model.PublishToTopicResponse;
 import software.amazon.awssdk.aws.greengrass.model.QOS;
 import software.amazon.awssdk.aws.greengrass.model.ReceiveMode;
+import software.amazon.awssdk.aws.greengrass.model.RequestStatus;
 import software.amazon.awssdk.aws.greengrass.model.RestartComponentRequest;
+import software.amazon.awssdk.aws.greengrass.model.RestartComponentResponse;
 import software.amazon.awssdk.aws.greengrass.model.StopComponentRequest;
+import software.amazon.awssdk.aws.greengrass.model.StopComponentResponse;
 import software.amazon.awssdk.aws.greengrass.model.SubscribeToIoTCoreRequest;
 import software.amazon.awssdk.aws.greengrass.model.SubscribeToIoTCoreResponse;
 import software.amazon.awssdk.aws.greengrass.model.SubscribeToTopicRequest;
@@ -55,21 +55,21 @@ import software.amazon.awssdk.eventstreamrpc.EventStreamRPCConnectionConfig;
 import software.amazon.awssdk.eventstreamrpc.GreengrassConnectMessageSupplier;
 import software.amazon.awssdk.eventstreamrpc.StreamResponseHandler;
 
-import java.io.File;
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.annotation.Nullable;
@@ -78,57 +78,203 @@ import javax.inject.Named;
 
 public class NucleusAdapterIpcClientImpl implements NucleusAdapterIpc {
 
-    protected static final ObjectMapper OBJECT_MAPPER =
-            new ObjectMapper().configure(DeserializationFeature.FAIL_ON_INVALID_SUBTYPE, false)
-                    .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-
-    private static final String CLI_IPC_INFO_DIRECTORY = "cli_ipc_info";
-    private static final String USER_CLIENT_ID_PREFIX = "user-";
-    private static final String GROUP_CLIENT_ID_PREFIX = "group-";
-    private static final String CLI_AUTH_TOKEN = "cli_auth_token";
-    private static final String DOMAIN_SOCKET_PATH = "domain_socket_path";
-    private static final String IPC_SERVER_SOCKET_SYMLINK = "./ipcCliServerSocketPath.socket";
     private static final String HOME_DIR_PREFIX = "~/";
     private static final int DEFAULT_TIMEOUT_IN_SEC = 60;
-
-    private String root;
+    // Directory that relative paths of the current command are resolved against, when it is not the process's.
+    private static final ThreadLocal<Path> WORKING_DIRECTORY = new ThreadLocal<>();
+
+    private final Supplier<String> root;
+    // Opens a new connection to the nucleus, replaced in tests.
+    private final Supplier<GreengrassCoreIPCClient> connector;
+    // A persistent adapter keeps its connection open between operations, until closeConnection() is called.
+    private volatile boolean persistent;
     private GreengrassCoreIPCClient ipcClient;
     private EventStreamRPCConnection clientConnection;
     private SocketOptions socketOptions;
     private ClientBootstrap clientBootstrap;
     private EventLoopGroup elGroup;
+    private volatile boolean disconnected = false;
 
     @Inject
     public NucleusAdapterIpcClientImpl(@Nullable @Named("ggcRootPath") String root) {
+        this(root, false);
+    }
+
+    public NucleusAdapterIpcClientImpl(@Nullable String root, boolean persistent) {
+        this(() -> root, persistent);
+    }
+
+    public NucleusAdapterIpcClientImpl(Supplier<String> root, boolean persistent) {
+        this(root, persistent, null);
+    }
+
+    NucleusAdapterIpcClientImpl(Supplier<String> root, boolean persistent,
+                                @Nullable Supplier<GreengrassCoreIPCClient> connector) {
         this.root = root;
+        this.persistent = persistent;
+        this.connector = connector == null ? this::connect : connector;
     }
 
     @Override
-    public ComponentDetails getComponentDetails(String componentName) {
+    public boolean isPersistent() {
+        return persistent;
+    }
+
+    @Override
+    public void setPersistent(boolean persistent) {
+        this.persistent = persistent;
+        if (!persistent) {
+            closeConnection();
+        }
+    }
 
+    /*
+     * Send a request on the connection, connecting first if needed. Connecting blocks the caller, but a failure to
+     * connect or to send completes the returned future exceptionally instead of being thrown, like a failed request.
+     */
+    private <T> CompletableFuture<T> send(Function<GreengrassCoreIPCClient, CompletableFuture<T>> request) {
         try {
-            GetComponentDetailsRequest request = new GetComponentDetailsRequest();
-            request.setComponentName(componentName);
-            ComponentDetails componentDetails = getIpcClient().getComponentDetails(request, Optional.empty())
-                    .getResponse().get(DEFAULT_TIMEOUT_IN_SEC, TimeUnit.SECONDS).getComponentDetails();
-            return componentDetails;
+            return request.apply(getIpcClient());
+        } catch (RuntimeException e) {
+            CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    @Override
+    public CompletableFuture<ComponentDetails> getComponentDetailsAsync(String componentName) {
+        GetComponentDetailsRequest request = new GetComponentDetailsRequest();
+        request.setComponentName(componentName);
+        return send(client -> client.getComponentDetails(request, Optional.empty()).getResponse())
+                .thenApply(GetComponentDetailsResponse::getComponentDetails);
+    }
+
+    @Override
+    public CompletableFuture<List<ComponentDetails>> listComponentsAsync() {
+        return send(client -> client.listComponents(new ListComponentsRequest(), Optional.empty()).getResponse())
+                .thenApply(ListComponentsResponse::getComponents);
+    }
+
+    @Override
+    public CompletableFuture<RestartComponentResponse> restartComponentAsync(String componentName) {
+        RestartComponentRequest request = new RestartComponentRequest();
+        request.setComponentName(componentName);
+        return send(client -> client.restartComponent(request, Optional.empty()).getResponse());
+    }
+
+    @Override
+    public CompletableFuture<StopComponentResponse> stopComponentAsync(String componentName) {
+        StopComponentRequest request = new StopComponentRequest();
+        request.setComponentName(componentName);
+        return send(client -> client.stopComponent(request, Optional.empty()).getResponse());
+    }
+
+    @Override
+    public CompletableFuture<LocalDeployment> getLocalDeploymentStatusAsync(String deploymentId) {
+        GetLocalDeploymentStatusRequest request = new GetLocalDeploymentStatusRequest();
+        request.setDeploymentId(deploymentId);
+        return send(client -> client.getLocalDeploymentStatus(request, Optional.empty()).getResponse())
+                .thenApply(GetLocalDeploymentStatusResponse::getDeployment);
+    }
+
+    @Override
+    public CompletableFuture<List<LocalDeployment>> listLocalDeploymentsAsync() {
+        return send(client -> client.listLocalDeployments(new ListLocalDeploymentsRequest(), Optional.empty())
+                .getResponse()).thenApply(ListLocalDeploymentsResponse::getLocalDeployments);
+    }
+
+    @Override
+    public CompletableFuture<String> createLocalDeploymentAsync(
+            CreateLocalDeploymentRequest createLocalDeploymentRequest) {
+        return send(client -> client.createLocalDeployment(createLocalDeploymentRequest, Optional.empty())
+                .getResponse()).thenApply(CreateLocalDeploymentResponse::getDeploymentId);
+    }
+
+    @Override
+    public CompletableFuture<String> cancelLocalDeploymentAsync(
+            CancelLocalDeploymentRequest cancelLocalDeploymentRequest) {
+        return send(client -> client.cancelLocalDeployment(cancelLocalDeploymentRequest, Optional.empty())
+                .getResponse()).thenApply(CancelLocalDeploymentResponse::getMessage);
+    }
+
+    @Override
+    public CompletableFuture<PublishToTopicResponse> publishToTopicAsync(String topicName, byte[] message) {
+        BinaryMessage binaryMessage = new BinaryMessage();
+        binaryMessage.setMessage(message);
+        PublishMessage publishMessage = new PublishMessage();
+        publishMessage.setBinaryMessage(binaryMessage);
+        PublishToTopicRequest request = new PublishToTopicRequest();
+        request.setPublishMessage(publishMessage);
+        request.setTopic(topicName);
+        return send(client -> client.publishToTopic(request, Optional.empty()).getResponse());
+    }
+
+    @Override
+    public CompletableFuture<PublishToTopicResponse> publishJsonToTopicAsync(String topicName,
+                                                                             Map<String, Object> message) {
+        JsonMessage jsonMessage = new JsonMessage();
+        jsonMessage.setMessage(message);
+        PublishMessage publishMessage = new PublishMessage();
+        publishMessage.setJsonMessage(jsonMessage);
+        PublishToTopicRequest request = new PublishToTopicRequest();
+        request.setPublishMessage(publishMessage);
+        request.setTopic(topicName);
+        return send(client -> client.publishToTopic(request, Optional.empty()).getResponse());
+    }
+
+    @Override
+    public CompletableFuture<PublishToIoTCoreResponse> publishToIoTCoreAsync(String topicName, byte[] payload,
+                                                                            QOS qos) {
+        PublishToIoTCoreRequest request = new PublishToIoTCoreRequest();
+        request.setTopicName(topicName);
+        request.setPayload(payload);
+        request.setQos(qos);
+        return send(client -> client.publishToIoTCore(request, Optional.empty()).getResponse());
+    }
+
+    @Override
+    public CompletableFuture<SubscribeToTopicResponse> subscribeToTopicAsync(
+            String topicName, StreamResponseHandler<SubscriptionResponseMessage> handler) {
+        SubscribeToTopicRequest request = new SubscribeToTopicRequest();
+        request.setTopic(topicName);
+        request.setReceiveMode(ReceiveMode.RECEIVE_ALL_MESSAGES);
+        return send(client -> client.subscribeToTopic(request, Optional.of(handler)).getResponse());
+    }
+
+    @Override
+    public CompletableFuture<SubscribeToIoTCoreResponse> subscribeToIoTCoreAsync(
+            String topicName, QOS qos, StreamResponseHandler<IoTCoreMessage> handler) {
+        SubscribeToIoTCoreRequest request = new SubscribeToIoTCoreRequest();
+        request.setTopicName(topicName);
+        request.setQos(qos);
+        return send(client -> client.subscribeToIoTCore(request, Optional.of(handler)).getResponse());
+    }
+
+    /*
+     * Wait for the response of an asynchronous operation, then close the connection unless it is persistent.
+     */
+    private <T> T await(Supplier<CompletableFuture<T>> operation) {
+        try {
+            return operation.get().get(DEFAULT_TIMEOUT_IN_SEC, TimeUnit.SECONDS);
         } catch (ExecutionException | TimeoutException | InterruptedException e) {
             //TODO: update when the sdk method signature includes exceptions
             throw new RuntimeException(e);
         } finally {
             close();
         }
+    }
 
+    @Override
+    public ComponentDetails getComponentDetails(String componentName) {
+        return await(() -> getComponentDetailsAsync(componentName));
     }
 
     @Override
     public void restartComponent(String... componentNames) {
         try {
             for (String componentName : componentNames) {
-                RestartComponentRequest request = new RestartComponentRequest();
-                request.setComponentName(componentName);
-                getIpcClient().restartComponent(request, Optional.empty()).getResponse()
-                        .get(DEFAULT_TIMEOUT_IN_SEC, TimeUnit.SECONDS);
+                restartComponentAsync(componentName).get(DEFAULT_TIMEOUT_IN_SEC, TimeUnit.SECONDS);
             }
         } catch (ExecutionException | TimeoutException | InterruptedException e) {
             //TODO: update when the sdk method signature includes exceptions
@@ -142,10 +288,7 @@ public class NucleusAdapterIpcClientImpl implements NucleusAdapterIpc {
     public void stopComponent(String... componentNames) {
         try {
             for (String componentName : componentNames) {
-                StopComponentRequest request = new StopComponentRequest();
-                request.setComponentName(componentName);
-                getIpcClient().stopComponent(request, Optional.empty()).getResponse()
-                        .get(DEFAULT_TIMEOUT_IN_SEC, TimeUnit.SECONDS);
+                stopComponentAsync(componentName).get(DEFAULT_TIMEOUT_IN_SEC, TimeUnit.SECONDS);
             }
         } catch (ExecutionException | TimeoutException | InterruptedException e) {
             //TODO: update when the sdk method signature includes exceptions
@@ -156,94 +299,119 @@ public class NucleusAdapterIpcClientImpl implements NucleusAdapterIpc {
     }
 
     @Override
-    public LocalDeployment getLocalDeploymentStatus(String deploymentId) {
+    public List<ComponentOperationResult> restartComponents(int concurrency, String... componentNames) {
+        return sendConcurrently(concurrency, componentNames, componentName -> restartComponentAsync(componentName)
+                .thenApply(response -> RequestStatus.SUCCEEDED.equals(response.getRestartStatus()) ? null
+                        : String.valueOf(response.getMessage())));
+    }
+
+    @Override
+    public List<ComponentOperationResult> stopComponents(int concurrency, String... componentNames) {
+        return sendConcurrently(concurrency, componentNames, componentName -> stopComponentAsync(componentName)
+                .thenApply(response -> RequestStatus.SUCCEEDED.equals(response.getStopStatus()) ? null
+                        : String.valueOf(response.getMessage())));
+    }
 
+    /*
+     * Send a request per component without waiting for earlier responses, keeping at most concurrency
+     * requests in flight. Each request completes with null on success or an error message.
+     */
+    private List<ComponentOperationResult> sendConcurrently(int concurrency, String[] componentNames,
+                                                            Function<String, CompletableFuture<String>> send) {
+        Semaphore inFlight = new Semaphore(Math.max(1, concurrency));
+        AtomicReferenceArray<ComponentOperationResult> results =
+                new AtomicReferenceArray<>(componentNames.length);
+        List<CompletableFuture<?>> responses = new ArrayList<>(componentNames.length);
+        long[] startNanos = new long[componentNames.length];
         try {
-            GetLocalDeploymentStatusRequest request = new GetLocalDeploymentStatusRequest();
-            request.setDeploymentId(deploymentId);
-            GetLocalDeploymentStatusResponseHandler localDeploymentStatus = getIpcClient().getLocalDeploymentStatus(request, Optional.empty());
-            LocalDeployment deployment = localDeploymentStatus.getResponse()
-                    .get(DEFAULT_TIMEOUT_IN_SEC, TimeUnit.SECONDS).getDeployment();
-            return deployment;
-        } catch (ExecutionException | TimeoutException | InterruptedException e) {
-            //TODO: update when the sdk method signature includes exceptions
+            for (int i = 0; i < componentNames.length; i++) {
+                String componentName = componentNames[i];
+                if (!inFlight.tryAcquire(DEFAULT_TIMEOUT_IN_SEC, TimeUnit.SECONDS)) {
+                    results.set(i, new ComponentOperationResult(componentName,
+                            "Timed out waiting for earlier requests", 0));
+                    continue;
+                }
+                int index = i;
+                startNanos[i] = System.nanoTime();
+                responses.add(send.apply(componentName).whenComplete((error, e) -> {
+                    results.set(index, new ComponentOperationResult(componentName,
+                            e == null ? error : errorMessage(e),
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos[index])));
+                    inFlight.release();
+                }));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DEFAULT_TIMEOUT_IN_SEC);
+            for (CompletableFuture<?> response : responses) {
+                try {
+                    response.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException e) {
+                    // Recorded as the result of its component.
+                } catch (TimeoutException e) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
             throw new RuntimeException(e);
         } finally {
             close();
         }
+        List<ComponentOperationResult> list = new ArrayList<>(componentNames.length);
+        for (int i = 0; i < componentNames.length; i++) {
+            ComponentOperationResult result = results.get(i);
+            list.add(result == null ? new ComponentOperationResult(componentNames[i],
+                    "Timed out after " + DEFAULT_TIMEOUT_IN_SEC + " seconds",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos[i])) : result);
+        }
+        return list;
     }
 
-    @Override
-    public List<LocalDeployment> listLocalDeployments() {
-        try {
-            ListLocalDeploymentsRequest request = new ListLocalDeploymentsRequest();
-            ListLocalDeploymentsResponse listLocalDeploymentsResponse = getIpcClient()
-                    .listLocalDeployments(request, Optional.empty()).getResponse()
-                    .get(DEFAULT_TIMEOUT_IN_SEC, TimeUnit.SECONDS);
-            return listLocalDeploymentsResponse.getLocalDeployments();
-        } catch (ExecutionException | TimeoutException | InterruptedException e) {
-            clientConnection.disconnect();
-            //TODO: update when the sdk method signature includes exceptions
-            throw new RuntimeException(e);
-        } finally {
-            close();
+    private static String errorMessage(Throwable e) {
+        Throwable cause = e;
+        while ((cause instanceof ExecutionException || cause instanceof CompletionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
         }
+        return cause.getMessage() == null ? cause.getClass().getSimpleName() : cause.getMessage();
+    }
 
+    @Override
+    public LocalDeployment getLocalDeploymentStatus(String deploymentId) {
+        return await(() -> getLocalDeploymentStatusAsync(deploymentId));
     }
 
     @Override
-    public String createLocalDeployment(CreateLocalDeploymentRequest createLocalDeploymentRequest)  {
+    public List<LocalDeployment> listLocalDeployments() {
         try {
-            CreateLocalDeploymentResponse createLocalDeploymentResponse =
-                    getIpcClient().createLocalDeployment(createLocalDeploymentRequest, Optional.empty()).getResponse()
-                            .get(DEFAULT_TIMEOUT_IN_SEC, TimeUnit.SECONDS);
-            return createLocalDeploymentResponse.getDeploymentId();
+            return listLocalDeploymentsAsync().get(DEFAULT_TIMEOUT_IN_SEC, TimeUnit.SECONDS);
         } catch (ExecutionException | TimeoutException | InterruptedException e) {
+            closeConnection();
             //TODO: update when the sdk method signature includes exceptions
             throw new RuntimeException(e);
         } finally {
             close();
         }
+    }
 
+    @Override
+    public String createLocalDeployment(CreateLocalDeploymentRequest createLocalDeploymentRequest)  {
+        return await(() -> createLocalDeploymentAsync(createLocalDeploymentRequest));
     }
 
     @Override
     public String cancelLocalDeployment(CancelLocalDeploymentRequest cancelLocalDeploymentRequest)  {
-        try {
-
-            CancelLocalDeploymentResponse cancelLocalDeploymentResponse =
-                    getIpcClient().cancelLocalDeployment(cancelLocalDeploymentRequest, Optional.empty())
-                            .getResponse().get(DEFAULT_TIMEOUT_IN_SEC, TimeUnit.SECONDS);
-            return cancelLocalDeploymentResponse.getMessage();
-        } catch (ExecutionException | TimeoutException | InterruptedException e) {
-            //TODO: update when the sdk method signature includes exceptions
-            throw new RuntimeException(e);
-        } finally {
-            close();
-        }
-
+        return await(() -> cancelLocalDeploymentAsync(cancelLocalDeploymentRequest));
     }
 
     @Override
     public List<ComponentDetails> listComponents() {
-        try {
-            ListComponentsRequest request = new ListComponentsRequest();
-            ListComponentsResponse listComponentsResponse = getIpcClient().listComponents(request, Optional.empty()).getResponse()
-                    .get(DEFAULT_TIMEOUT_IN_SEC, TimeUnit.SECONDS);
-            return listComponentsResponse.getComponents();
-        } catch (ExecutionException | TimeoutException | InterruptedException e) {
-            //TODO: update when the sdk method signature includes exceptions
-            throw new RuntimeException(e);
-        } finally {
-            close();
-        }
+        return await(this::listComponentsAsync);
     }
 
     @Override
     public CreateDebugPasswordResponse createDebugPassword() {
         CreateDebugPasswordRequest request = new CreateDebugPasswordRequest();
         try {
-            return getIpcClient().createDebugPassword(request, Optional.empty()).getResponse()
+            return send(client -> client.createDebugPassword(request, Optional.empty()).getResponse())
                     .get(DEFAULT_TIMEOUT_IN_SEC, TimeUnit.SECONDS);
         } catch (ExecutionException | TimeoutException | InterruptedException e) {
             throw new RuntimeException(e);
@@ -253,17 +421,9 @@ public class NucleusAdapterIpcClientImpl implements NucleusAdapterIpc {
     }
 
     @Override
-    public void publishToTopic(String topicName, String message) {
+    public void publishToTopic(String topicName, byte[] message) {
         try {
-            PublishToTopicRequest publishToTopicRequest = new PublishToTopicRequest();
-            PublishMessage publishMessage = new PublishMessage();
-            BinaryMessage binaryMessage = new BinaryMessage();
-            binaryMessage.setMessage(message.getBytes(StandardCharsets.UTF_8));
-            publishMessage.setBinaryMessage(binaryMessage);
-            publishToTopicRequest.setPublishMessage(publishMessage);
-            publishToTopicRequest.setTopic(topicName);
-            PublishToTopicResponseHandler responseHandler = getIpcClient().publishToTopic(publishToTopicRequest, Optional.empty());
-            CompletableFuture<PublishToTopicResponse> response = responseHandler.getResponse();
+            CompletableFuture<PublishToTopicResponse> response = publishToTopicAsync(topicName, message);
             try {
                 response.get();
             } catch (InterruptedException interruptedException) {
@@ -283,15 +443,10 @@ public class NucleusAdapterIpcClientImpl implements NucleusAdapterIpc {
     }
 
     @Override
-    public void publishToIoTCore(String topicName, String message, String qos) {
+    public void publishToIoTCore(String topicName, byte[] payload, String qos) {
         try {
-            QOS qos1 = QOS.get(qos);
-            PublishToIoTCoreRequest publishToIoTCoreRequest = new PublishToIoTCoreRequest();
-            publishToIoTCoreRequest.setTopicName(topicName);
-            publishToIoTCoreRequest.setPayload(message.getBytes(StandardCharsets.UTF_8));
-            publishToIoTCoreRequest.setQos(qos1);
-            PublishToIoTCoreResponseHandler responseHandler = getIpcClient().publishToIoTCore(publishToIoTCoreRequest, Optional.empty());
-            CompletableFuture<PublishToIoTCoreResponse> response = responseHandler.getResponse();
+            CompletableFuture<PublishToIoTCoreResponse> response =
+                    publishToIoTCoreAsync(topicName, payload, QOS.get(qos));
             try {
                 response.get();
             } catch (InterruptedException interruptedException) {
@@ -311,59 +466,68 @@ public class NucleusAdapterIpcClientImpl implements NucleusAdapterIpc {
     }
 
     @Override
-    public void subscribeToTopic(String topic) {
-        try {
-            CompletableFuture<Void> cf = new CompletableFuture<>();
-            StreamResponseHandler<SubscriptionResponseMessage> streamResponseHandler =
-                    new SubscriptionResponseHandler(cf);
-            SubscribeToTopicResponseHandler responseHandler =
-                    subscribeToTopic(getIpcClient(), topic, streamResponseHandler);
-            CompletableFuture<SubscribeToTopicResponse> futureResponse = responseHandler.getResponse();
-            try {
-                futureResponse.get();
-                System.out.println("Successfully subscribed to topic: " + topic);
-            } catch (ExecutionException e) {
-                if (e.getCause() instanceof UnauthorizedError) {
-                    System.err.println("Unauthorized error while subscribing to topic: " + topic);
-                } else {
-                    throw e;
-                }
-            }
-
-            cf.get();
-
-        } catch (InterruptedException e) {
-            System.out.println("IPC interrupted.");
-        } catch (ExecutionException e) {
-            System.err.println("Exception occurred when using IPC.");
-            e.printStackTrace();
-            System.exit(1);
+    public void subscribeToTopics(List<String> topics) {
+        boolean tagged = tagTopics(topics);
+        try (SubscriberOutput output = new SubscriberOutput(System.out, SubscriberOutput.DEFAULT_CAPACITY)) {
+            awaitSubscriptions(topics, output, topic -> {
+                CompletableFuture<Void> cf = new CompletableFuture<>();
+                SubscriptionResponseHandler handler =
+                        new SubscriptionResponseHandler(cf, output, tagged ? topic : null);
+                return subscribeToTopicAsync(topic, handler).thenApply(response -> cf);
+            });
         }
     }
 
     @Override
-    public void subscribeToIoTCore(String topicName, String qos) {
+    public void subscribeToIoTCore(List<String> topicNames, String qos) {
+        boolean tagged = tagTopics(topicNames);
+        try (SubscriberOutput output = new SubscriberOutput(System.out, SubscriberOutput.DEFAULT_CAPACITY)) {
+            awaitSubscriptions(topicNames, output, topicName -> {
+                CompletableFuture<Void> cf = new CompletableFuture<>();
+                SubscriptionMqttResponseHandler handler = new SubscriptionMqttResponseHandler(cf, output, tagged);
+                return subscribeToIoTCoreAsync(topicName, QOS.get(qos), handler).thenApply(response -> cf);
+            });
+        }
+    }
+
+    /*
+     * Messages are tagged with their topic when they can come from more than one, so that a single literal topic
+     * keeps printing bare messages.
+     */
+    private static boolean tagTopics(List<String> topics) {
+        return topics.size() > 1 || topics.stream().anyMatch(topic -> topic.contains("+") || topic.contains("#"));
+    }
+
+    /*
+     * Send all subscribe requests at once, then wait until every subscription that succeeded is closed, or until
+     * the output fails, in which case the connection is closed to end the subscriptions.
+     */
+    private void awaitSubscriptions(List<String> topics, SubscriberOutput output,
+                                    Function<String, CompletableFuture<CompletableFuture<Void>>> subscribe) {
         try {
-            CompletableFuture<Void> cf = new CompletableFuture<>();
-            StreamResponseHandler<IoTCoreMessage> streamResponseHandler = new SubscriptionMqttResponseHandler(cf);
-            SubscribeToIoTCoreRequest subscribeToIoTCoreRequest = new SubscribeToIoTCoreRequest();
-            subscribeToIoTCoreRequest.setTopicName(topicName);
-            subscribeToIoTCoreRequest.setQos(qos);
-            SubscribeToIoTCoreResponseHandler responseHandler =
-                    getIpcClient().subscribeToIoTCore(subscribeToIoTCoreRequest, Optional.of(streamResponseHandler));
-            CompletableFuture<SubscribeToIoTCoreResponse> futureResponse = responseHandler.getResponse();
-            try {
-                futureResponse.get();
-                System.out.println("Successfully subscribed to topic: " + topicName);
-            } catch (ExecutionException e) {
-                if (e.getCause() instanceof UnauthorizedError) {
-                    System.err.println("Unauthorized error while subscribing to topic: " + topicName);
-                } else {
-                    throw e;
+            List<CompletableFuture<CompletableFuture<Void>>> responses = new ArrayList<>(topics.size());
+            for (String topic : topics) {
+                responses.add(subscribe.apply(topic));
+            }
+            List<CompletableFuture<Void>> streams = new ArrayList<>(topics.size());
+            for (int i = 0; i < topics.size(); i++) {
+                try {
+                    streams.add(responses.get(i).get());
+                    System.out.println("Successfully subscribed to topic: " + topics.get(i));
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof UnauthorizedError) {
+                        System.err.println("Unauthorized error while subscribing to topic: " + topics.get(i));
+                    } else {
+                        throw e;
+                    }
                 }
             }
 
-            cf.get();
+            CompletableFuture.anyOf(CompletableFuture.allOf(streams.toArray(new CompletableFuture[0])),
+                    output.getFailed()).get();
+            if (output.getFailed().isDone()) {
+                closeConnection();
+            }
         } catch (InterruptedException e) {
             System.out.println("IPC interrupted.");
         } catch (ExecutionException e) {
@@ -373,20 +537,38 @@ public class NucleusAdapterIpcClientImpl implements NucleusAdapterIpc {
         }
     }
 
+    /*
+     * Prints IoT Core messages through a SubscriberOutput. A handler that creates its own output closes it when
+     * the stream closes, a shared output is closed by its owner.
+     */
     public static class SubscriptionMqttResponseHandler implements StreamResponseHandler<IoTCoreMessage> {
 
         private final CompletableFuture<Void> fut;
+        private final SubscriberOutput output;
+        private final boolean ownsOutput;
+        private final boolean tagged;
 
         public SubscriptionMqttResponseHandler(CompletableFuture<Void> cf) {
+            this(cf, new SubscriberOutput(System.out, SubscriberOutput.DEFAULT_CAPACITY), true, false);
+        }
+
+        public SubscriptionMqttResponseHandler(CompletableFuture<Void> cf, SubscriberOutput output, boolean tagged) {
+            this(cf, output, false, tagged);
+        }
+
+        private SubscriptionMqttResponseHandler(CompletableFuture<Void> cf, SubscriberOutput output,
+                                                boolean ownsOutput, boolean tagged) {
             this.fut = cf;
+            this.output = output;
+            this.ownsOutput = ownsOutput;
+            this.tagged = tagged;
         }
 
         @Override
         public void onStreamEvent(IoTCoreMessage ioTCoreMessage) {
             try {
-                String message = new String(ioTCoreMessage.getMessage().getPayload(),
-                        StandardCharsets.UTF_8);
-                System.out.printf("%s%n",  message);
+                output.write(tagged ? ioTCoreMessage.getMessage().getTopicName() : null,
+                        ioTCoreMessage.getMessage().getPayload());
             } catch (Exception e) {
                 System.err.println("Exception occurred while processing subscription response " +
                         "message.");
@@ -403,39 +585,51 @@ public class NucleusAdapterIpcClientImpl implements NucleusAdapterIpc {
 
         @Override
         public void onStreamClosed() {
-            System.out.println("Subscribe to IoT Core stream closed.");
+            output.writeStatus("Subscribe to IoT Core stream closed.");
+            if (ownsOutput) {
+                output.close();
+            }
             fut.complete(null);
         }
     }
 
-    private SubscribeToTopicResponseHandler subscribeToTopic(GreengrassCoreIPCClient greengrassCoreIPCClient
-            , String topic, StreamResponseHandler<SubscriptionResponseMessage> streamResponseHandler) {
-        SubscribeToTopicRequest subscribeToTopicRequest = new SubscribeToTopicRequest();
-        subscribeToTopicRequest.setTopic(topic);
-        subscribeToTopicRequest.setReceiveMode(ReceiveMode.RECEIVE_ALL_MESSAGES);
-        return greengrassCoreIPCClient.subscribeToTopic(subscribeToTopicRequest,
-                Optional.of(streamResponseHandler));
-    }
-
-
+    /*
+     * Prints local pub/sub messages through a SubscriberOutput. A handler that creates its own output closes it
+     * when the stream closes, a shared output is closed by its owner.
+     */
     public static class SubscriptionResponseHandler implements StreamResponseHandler<SubscriptionResponseMessage> {
         private final CompletableFuture<Void> fut;
+        private final SubscriberOutput output;
+        private final boolean ownsOutput;
+        // Subscribed topic to tag messages with when they carry none, null for untagged output.
+        private final String topic;
 
         public SubscriptionResponseHandler(CompletableFuture<Void> cf) {
+            this(cf, new SubscriberOutput(System.out, SubscriberOutput.DEFAULT_CAPACITY), true, null);
+        }
+
+        public SubscriptionResponseHandler(CompletableFuture<Void> cf, SubscriberOutput output,
+                                           @Nullable String topic) {
+            this(cf, output, false, topic);
+        }
+
+        private SubscriptionResponseHandler(CompletableFuture<Void> cf, SubscriberOutput output, boolean ownsOutput,
+                                            String topic) {
             this.fut = cf;
+            this.output = output;
+            this.ownsOutput = ownsOutput;
+            this.topic = topic;
         }
 
         @Override
         public void onStreamEvent(SubscriptionResponseMessage subscriptionResponseMessage) {
             try {
                 if (subscriptionResponseMessage.getJsonMessage() != null) {
-                    Map<String, Object> jsonMessage = subscriptionResponseMessage.getJsonMessage().getMessage();
-                    if (jsonMessage != null) {
-                        System.out.printf("%s%n", new Gson().toJson(jsonMessage));
-                    }
+                    JsonMessage jsonMessage = subscriptionResponseMessage.getJsonMessage();
+                    output.writeJson(tagOf(jsonMessage.getContext()), jsonMessage.getMessage());
                 } else if (subscriptionResponseMessage.getBinaryMessage() != null) {
-                    byte[] binaryMessage = subscriptionResponseMessage.getBinaryMessage().getMessage();
-                    System.out.printf("%s%n", new String(binaryMessage, StandardCharsets.UTF_8));
+                    BinaryMessage binaryMessage = subscriptionResponseMessage.getBinaryMessage();
+                    output.write(tagOf(binaryMessage.getContext()), binaryMessage.getMessage());
                 }
             } catch (Exception e) {
                 System.err.println("Exception occurred while processing subscription response " +
@@ -444,6 +638,14 @@ public class NucleusAdapterIpcClientImpl implements NucleusAdapterIpc {
             }
         }
 
+        // The topic a message was published to, which differs from the subscribed one for wildcards.
+        private String tagOf(MessageContext context) {
+            if (topic == null) {
+                return null;
+            }
+            return context != null && context.getTopic() != null ? context.getTopic() : topic;
+        }
+
         @Override
         public boolean onStreamError(Throwable error) {
             System.err.println("Received a stream error.");
@@ -453,7 +655,10 @@ public class NucleusAdapterIpcClientImpl implements NucleusAdapterIpc {
 
         @Override
         public void onStreamClosed() {
-            System.out.println("Subscribe to topic stream closed.");
+            output.writeStatus("Subscribe to topic stream closed.");
+            if (ownsOutput) {
+                output.close();
+            }
             fut.complete(null);
         }
     }
@@ -461,7 +666,10 @@ public class NucleusAdapterIpcClientImpl implements NucleusAdapterIpc {
     private String getGgcRoot() {
         // check if root path was passed as an argument to the command line, else fall back to env variable
         // if root path not found then throw exception
-        String ggcRootPath = root != null ? root : System.getenv("GGC_ROOT_PATH");
+        String ggcRootPath = root.get();
+        if (ggcRootPath == null) {
+            ggcRootPath = System.getenv("GGC_ROOT_PATH");
+        }
         if (ggcRootPath == null) {
             throw new RuntimeException("GGC root path not configured. Provide ggc root path via cli greengrass-cli "
                     + "--ggcRootPath {PATH} {rest of the arguments} " +
@@ -471,28 +679,24 @@ public class NucleusAdapterIpcClientImpl implements NucleusAdapterIpc {
         return ggcRootPath;
     }
 
-    private GreengrassCoreIPCClient getIpcClient() {
-        if (ipcClient != null) {
+    private synchronized GreengrassCoreIPCClient getIpcClient() {
+        if (ipcClient != null && !disconnected) {
             return ipcClient;
         }
-        String ggcRootPath = getGgcRoot();
+        if (ipcClient != null) {
+            // The nucleus closed the connection, for example when it restarted, so we connect again.
+            closeConnection();
+        }
+        disconnected = false;
+        ipcClient = connector.get();
+        return ipcClient;
+    }
+
+    private GreengrassCoreIPCClient connect() {
+        Path ipcInfoDirectory = deTilde(getGgcRoot()).orElse(Paths.get(""))
+                .resolve(CliIpcInfo.CLI_IPC_INFO_DIRECTORY).normalize();
         try {
-            Map<String, String> ipcInfoMap = OBJECT_MAPPER.readValue(loadCliIpcInfo(ggcRootPath), HashMap.class);
-            String domainSocketPath = ipcInfoMap.get(DOMAIN_SOCKET_PATH);
-            if (Files.exists(Paths.get(IPC_SERVER_SOCKET_SYMLINK), LinkOption.NOFOLLOW_LINKS)) {
-                Files.delete(Paths.get(IPC_SERVER_SOCKET_SYMLINK));
-            }
-            boolean symlinkCreated = false;
-            // Only symlink when the absolute path would overflow
-            if (Paths.get(domainSocketPath).toString().length() >= 108) {
-                try {
-                    Files.createSymbolicLink(Paths.get(IPC_SERVER_SOCKET_SYMLINK), Paths.get(domainSocketPath));
-                    symlinkCreated = true;
-                } catch (IOException e) {
-                    //Symlink not created, ignoring and using absolute path
-                }
-            }
-            String token = ipcInfoMap.get(CLI_AUTH_TOKEN);
+            CliIpcInfo ipcInfo = CliIpcInfo.load(ipcInfoDirectory);
 
             socketOptions = new SocketOptions();
             //timeout for establishing the connection
@@ -500,12 +704,13 @@ public class NucleusAdapterIpcClientImpl implements NucleusAdapterIpc {
             socketOptions.domain = SocketOptions.SocketDomain.LOCAL;
             socketOptions.type = SocketOptions.SocketType.STREAM;
 
-            clientConnection = connectToGGCOverEventStreamIPC(socketOptions, token,
-                    symlinkCreated ? IPC_SERVER_SOCKET_SYMLINK : domainSocketPath);
-
-            ipcClient = new GreengrassCoreIPCClient(clientConnection);
-            return ipcClient;
+            clientConnection = connectToGGCOverEventStreamIPC(socketOptions, ipcInfo.getToken(),
+                    ipcInfo.connectPath());
+            return new GreengrassCoreIPCClient(clientConnection);
         } catch (Exception e) {
+            closeConnection();
+            // The nucleus may have restarted with a new token or socket, so the files are read again next time.
+            CliIpcInfo.invalidate(ipcInfoDirectory);
             throw new RuntimeException("Unable to create ipc client", e);
         }
 
@@ -532,11 +737,13 @@ public class NucleusAdapterIpcClientImpl implements NucleusAdapterIpc {
 
             @Override
             public void onDisconnect(int errorCode) {
+                disconnected = true;
             }
 
             //This on error is for any errors that is connection level, including problems during connect()
             @Override
             public boolean onError(Throwable t) {
+                disconnected = true;
                 connected.completeExceptionally(t);
                 return true;    //hints at handler to disconnect due to this error
             }
@@ -559,43 +766,34 @@ public class NucleusAdapterIpcClientImpl implements NucleusAdapterIpc {
             return Optional.of(Paths.get(System.getProperty("user.home")).resolve(path.substring(HOME_DIR_PREFIX.length()))
                     .toAbsolutePath());
         }
+        Path workingDirectory = WORKING_DIRECTORY.get();
+        if (workingDirectory != null) {
+            return Optional.of(workingDirectory.resolve(Paths.get(path)).toAbsolutePath());
+        }
         return Optional.of(Paths.get(path).toAbsolutePath());
     }
 
-    private byte[] loadCliIpcInfo(String ggcRootPath) throws IOException {
-        Path directory = deTilde(ggcRootPath).orElse(Paths.get("")).resolve(CLI_IPC_INFO_DIRECTORY).normalize();
-
-        IOException e = new IOException("Not able to find auth information in directory: " + directory +
-                ". Please run CLI as authorized user or group.");
-
-        try {
-            return Files.readAllBytes(directory.resolve(USER_CLIENT_ID_PREFIX + PlatformUtils.getEffectiveUID()));
-        } catch (IOException ioe) {
-            e.addSuppressed(ioe);
-        }
-
-        try {
-            return Files.readAllBytes(directory.resolve(GROUP_CLIENT_ID_PREFIX + PlatformUtils.getEffectiveGID()));
-        } catch (IOException ioe) {
-            e.addSuppressed(ioe);
-        }
-
-        File[] files = directory.toFile().listFiles();
-        if (files != null) {
-            for (File file : files) {
-                try {
-                    return Files.readAllBytes(file.toPath());
-                } catch (IOException ioe) {
-                    e.addSuppressed(ioe);
-                }
-            }
+    /*
+     * Resolve relative paths of commands run by the current thread against the given directory instead of the
+     * process's working directory. Used when commands are run on behalf of another process. Null resets it.
+     */
+    public static void setWorkingDirectory(@Nullable Path workingDirectory) {
+        if (workingDirectory == null) {
+            WORKING_DIRECTORY.remove();
         } else {
-            e.addSuppressed(new IOException("Unable to list files under: " + directory));
+            WORKING_DIRECTORY.set(workingDirectory);
         }
-        throw e;
     }
 
     private void close() {
+        if (persistent) {
+            return;
+        }
+        closeConnection();
+    }
+
+    @Override
+    public synchronized void closeConnection() {
         try {
             if (clientConnection != null) {
                 clientConnection.close();
@@ -609,10 +807,13 @@ public class NucleusAdapterIpcClientImpl implements NucleusAdapterIpc {
             if (elGroup != null) {
                 elGroup.close();
             }
-            if (Files.exists(Paths.get(IPC_SERVER_SOCKET_SYMLINK), LinkOption.NOFOLLOW_LINKS)) {
-                Files.delete(Paths.get(IPC_SERVER_SOCKET_SYMLINK));
-            }
         } catch (Exception e) {
+        } finally {
+            ipcClient = null;
+            clientConnection = null;
+            socketOptions = null;
+            clientBootstrap = null;
+            elGroup = null;
         }
     }
 }
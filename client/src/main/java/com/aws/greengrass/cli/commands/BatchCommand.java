@@ -0,0 +1,202 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.commands;
+
+import com.aws.greengrass.cli.CLI;
+import com.aws.greengrass.cli.adapter.NucleusAdapterIpc;
+import com.aws.greengrass.cli.module.CommandsComponent;
+import picocli.CommandLine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import javax.inject.Inject;
+
+import static com.aws.greengrass.cli.adapter.impl.NucleusAdapterIpcClientImpl.deTilde;
+
+/*
+ * Runs commands read from a file or stdin, one per line, over a single connection to the nucleus.
+ */
+@CommandLine.Command(name = "batch", resourceBundle = "com.aws.greengrass.cli.CLI_messages",
+        subcommands = CommandLine.HelpCommand.class, mixinStandardHelpOptions = true,
+        versionProvider = com.aws.greengrass.cli.module.VersionProvider.class)
+public class BatchCommand extends BaseCommand implements CommandLine.IExitCodeGenerator {
+    private static final String STDIN = "-";
+    private static final String CLI_NAME = "greengrass-cli";
+    // Commands that manage processes or connections themselves.
+    private static final Set<String> UNSUPPORTED_COMMANDS = new HashSet<>(Arrays.asList("batch", "daemon"));
+    private static final String GGC_ROOT_PATH_OPTION = "--ggcRootPath";
+
+    private final NucleusAdapterIpc nucleusAdapterIpc;
+    private final CommandsComponent commandsComponent;
+
+    @CommandLine.Option(names = {"-f", "--file"}, paramLabel = "Command file", defaultValue = STDIN)
+    private String file;
+    @CommandLine.Option(names = {"-k", "--keep-going"}, paramLabel = "Keep going after a failure")
+    private boolean keepGoing;
+    private int exitCode;
+
+    @Inject
+    public BatchCommand(NucleusAdapterIpc nucleusAdapterIpc, CommandsComponent commandsComponent) {
+        this.nucleusAdapterIpc = nucleusAdapterIpc;
+        this.commandsComponent = commandsComponent;
+    }
+
+    @Override
+    public void run() {
+        try (BufferedReader reader = STDIN.equals(file)
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(deTilde(file).get(), StandardCharsets.UTF_8)) {
+            exitCode = runLines(reader);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    private int runLines(BufferedReader reader) throws IOException {
+        int exitCode = 0;
+        boolean wasPersistent = nucleusAdapterIpc.isPersistent();
+        nucleusAdapterIpc.setPersistent(true);
+        try {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                int lineExitCode = runLine(line, lineNumber);
+                System.out.flush();
+                if (lineExitCode != 0) {
+                    System.err.println("Command on line " + lineNumber + " failed with exit code " + lineExitCode
+                            + ": " + line.trim());
+                    if (exitCode == 0) {
+                        exitCode = lineExitCode;
+                    }
+                    if (!keepGoing) {
+                        break;
+                    }
+                }
+            }
+        } finally {
+            nucleusAdapterIpc.setPersistent(wasPersistent);
+        }
+        return exitCode;
+    }
+
+    private int runLine(String line, int lineNumber) {
+        List<String> args;
+        try {
+            args = tokenize(line);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Unable to parse line " + lineNumber + ": " + e.getMessage());
+            return 2;
+        }
+        if (!args.isEmpty() && CLI_NAME.equals(args.get(0))) {
+            args.remove(0);
+        }
+        if (args.isEmpty()) {
+            return 0;
+        }
+        if (setsGgcRootPath(args)) {
+            // Every line runs over the connection of the batch, so it cannot connect to another nucleus.
+            System.err.println("Line " + lineNumber + " cannot set " + GGC_ROOT_PATH_OPTION
+                    + ", set it on the batch command instead");
+            return 2;
+        }
+        if (UNSUPPORTED_COMMANDS.contains(args.get(0))) {
+            System.err.println("The " + args.get(0) + " command cannot run in a batch");
+            return 2;
+        }
+        try {
+            String[] commandArgs = args.toArray(new String[0]);
+            return CLI.newCommandLine(new CLI(), commandsComponent, commandArgs).execute(commandArgs);
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            return 1;
+        }
+    }
+
+    /*
+     * Whether the top level options, before the command, set the Greengrass root path.
+     */
+    private static boolean setsGgcRootPath(List<String> args) {
+        for (String arg : args) {
+            if (GGC_ROOT_PATH_OPTION.equals(arg) || arg.startsWith(GGC_ROOT_PATH_OPTION + "=")) {
+                return true;
+            }
+            if (!arg.startsWith("-")) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Split a line into arguments like a POSIX shell does, without expansions. Arguments are separated by
+     * whitespace, quotes group characters and backslashes escape the next character outside single quotes.
+     * Everything after an unquoted # starting an argument is a comment.
+     *
+     * @param line line to split
+     * @return arguments, empty for blank and comment lines
+     * @throws IllegalArgumentException if a quote is not closed
+     */
+    static List<String> tokenize(String line) {
+        List<String> args = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inArg = false;
+        char quote = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quote == '\'') {
+                if (c == '\'') {
+                    quote = 0;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '\\' && i + 1 < line.length()) {
+                current.append(line.charAt(++i));
+                inArg = true;
+            } else if (quote == '"') {
+                if (c == '"') {
+                    quote = 0;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+                inArg = true;
+            } else if (Character.isWhitespace(c)) {
+                if (inArg) {
+                    args.add(current.toString());
+                    current.setLength(0);
+                    inArg = false;
+                }
+            } else if (c == '#' && !inArg) {
+                break;
+            } else {
+                current.append(c);
+                inArg = true;
+            }
+        }
+        if (quote != 0) {
+            throw new IllegalArgumentException("Missing closing quote " + quote);
+        }
+        if (inArg) {
+            args.add(current.toString());
+        }
+        return args;
+    }
+}
@@ -5,13 +5,23 @@
 
 package com.aws.greengrass.cli.commands;
 
+import com.aws.greengrass.cli.adapter.ComponentOperationResult;
 import com.aws.greengrass.cli.adapter.NucleusAdapterIpc;
+import com.aws.greengrass.cli.util.ComponentStateWaiter;
+import com.aws.greengrass.cli.util.ComponentWatcher;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import picocli.CommandLine;
 import software.amazon.awssdk.aws.greengrass.model.ComponentDetails;
+import software.amazon.awssdk.aws.greengrass.model.LifecycleState;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
 import javax.inject.Inject;
 
 @CommandLine.Command(name = "component", resourceBundle = "com.aws.greengrass.cli.CLI_messages",
@@ -19,6 +29,13 @@ import javax.inject.Inject;
         versionProvider = com.aws.greengrass.cli.module.VersionProvider.class)
 public class ComponentCommand extends BaseCommand {
 
+    // Components that run once finish instead of running.
+    private static final Set<LifecycleState> RESTART_TARGET_STATES =
+            EnumSet.of(LifecycleState.RUNNING, LifecycleState.FINISHED);
+    private static final Set<LifecycleState> STOP_TARGET_STATES = EnumSet.of(LifecycleState.FINISHED);
+    // Shortest --interval of component list --watch, so that a watch cannot flood the nucleus with requests.
+    private static final double MIN_WATCH_INTERVAL_SEC = 0.1;
+
     private final ObjectMapper mapper = new ObjectMapper();
     private final NucleusAdapterIpc nucleusAdapterIpc;
 
@@ -30,8 +47,19 @@ public class ComponentCommand extends BaseCommand {
 
     @CommandLine.Command(name = "restart", mixinStandardHelpOptions = true,
             versionProvider = com.aws.greengrass.cli.module.VersionProvider.class)
-    public int restart(@CommandLine.Option(names = {"-n", "--names"}, paramLabel = "The names of the target components, separated with commas.", descriptionKey = "names", required = true) String names) {
+    public int restart(@CommandLine.Option(names = {"-n", "--names"}, paramLabel = "The names of the target components, separated with commas.", descriptionKey = "names", required = true) String names,
+                       @CommandLine.Option(names = {"-c", "--concurrency"}, paramLabel = "Requests in flight") Integer concurrency,
+                       @CommandLine.Option(names = {"-w", "--wait"}, paramLabel = "Wait for components") boolean wait,
+                       @CommandLine.Option(names = {"-t", "--timeout"}, paramLabel = "Timeout in seconds", defaultValue = "60") long timeout)
+            throws InterruptedException {
         String[] componentNames = names.split(" *[&,]+ *");
+        if (wait) {
+            return changeStateAndWait("restart", RESTART_TARGET_STATES, componentNames, concurrency, timeout,
+                    nucleusAdapterIpc::restartComponents);
+        }
+        if (concurrency != null) {
+            return printResults("restart", nucleusAdapterIpc.restartComponents(concurrency, componentNames));
+        }
         nucleusAdapterIpc.restartComponent(componentNames);
         return 0;
     }
@@ -39,8 +67,19 @@ public class ComponentCommand extends BaseCommand {
 
     @CommandLine.Command(name = "stop", mixinStandardHelpOptions = true,
             versionProvider = com.aws.greengrass.cli.module.VersionProvider.class)
-    public int stop(@CommandLine.Option(names = {"-n", "--names"}, paramLabel = "The names of the target components, separated with commas.", descriptionKey = "names", required = true) String names) {
+    public int stop(@CommandLine.Option(names = {"-n", "--names"}, paramLabel = "The names of the target components, separated with commas.", descriptionKey = "names", required = true) String names,
+                    @CommandLine.Option(names = {"-c", "--concurrency"}, paramLabel = "Requests in flight") Integer concurrency,
+                    @CommandLine.Option(names = {"-w", "--wait"}, paramLabel = "Wait for components") boolean wait,
+                    @CommandLine.Option(names = {"-t", "--timeout"}, paramLabel = "Timeout in seconds", defaultValue = "60") long timeout)
+            throws InterruptedException {
         String[] componentNames = names.split(" *[&,]+ *");
+        if (wait) {
+            return changeStateAndWait("stop", STOP_TARGET_STATES, componentNames, concurrency, timeout,
+                    nucleusAdapterIpc::stopComponents);
+        }
+        if (concurrency != null) {
+            return printResults("stop", nucleusAdapterIpc.stopComponents(concurrency, componentNames));
+        }
         nucleusAdapterIpc.stopComponent(componentNames);
         return 0;
     }
@@ -50,7 +89,31 @@ public class ComponentCommand extends BaseCommand {
     @CommandLine.Command(name = "list", mixinStandardHelpOptions = true,
             description = "Retrieve the names, component information, and runtime arguments for components.",
             versionProvider = com.aws.greengrass.cli.module.VersionProvider.class)
-    public int list() throws JsonProcessingException {
+    public int list(@CommandLine.Option(names = {"-w", "--watch"}, paramLabel = "Print changes until interrupted") boolean watch,
+                    @CommandLine.Option(names = {"--config"}, paramLabel = "Also watch configuration") boolean config,
+                    @CommandLine.Option(names = {"-i", "--interval"}, paramLabel = "Seconds between polls",
+                            defaultValue = "1") double interval,
+                    @CommandLine.Option(names = {"--max-interval"}, paramLabel = "Seconds between polls while idle",
+                            defaultValue = "10") double maxInterval,
+                    @CommandLine.Option(names = {"-d", "--duration"}, paramLabel = "Seconds to watch",
+                            defaultValue = "0") double duration)
+            throws JsonProcessingException, InterruptedException {
+        if (watch) {
+            // Also rejects NaN.
+            if (!(interval >= MIN_WATCH_INTERVAL_SEC)) {
+                System.err.printf("--interval must be at least %s seconds%n", MIN_WATCH_INTERVAL_SEC);
+                return 2;
+            }
+            boolean wasPersistent = nucleusAdapterIpc.isPersistent();
+            nucleusAdapterIpc.setPersistent(true);
+            try {
+                new ComponentWatcher(nucleusAdapterIpc, config, System.out).watch(secondsToMillis(interval),
+                        secondsToMillis(Math.max(interval, maxInterval)), secondsToMillis(duration));
+            } finally {
+                nucleusAdapterIpc.setPersistent(wasPersistent);
+            }
+            return 0;
+        }
         List<ComponentDetails> componentDetails = nucleusAdapterIpc.listComponents();
         System.out.println("Components currently running in Greengrass:");
         for (ComponentDetails c : componentDetails) {
@@ -70,6 +133,81 @@ public class ComponentCommand extends BaseCommand {
         return 0;
     }
 
+    private static long secondsToMillis(double seconds) {
+        return (long) (seconds * TimeUnit.SECONDS.toMillis(1));
+    }
+
+    private int changeStateAndWait(String operation, Set<LifecycleState> targetStates, String[] componentNames,
+                                   Integer concurrency, long timeout,
+                                   BiFunction<Integer, String[], List<ComponentOperationResult>> send)
+            throws InterruptedException {
+        boolean wasPersistent = nucleusAdapterIpc.isPersistent();
+        nucleusAdapterIpc.setPersistent(true);
+        try {
+            long startNanos = System.nanoTime();
+            List<ComponentOperationResult> results = send.apply(
+                    concurrency == null ? componentNames.length : concurrency, componentNames);
+            List<String> accepted = new ArrayList<>();
+            for (ComponentOperationResult result : results) {
+                if (result.isSucceeded()) {
+                    accepted.add(result.getComponentName());
+                }
+            }
+            Map<String, ComponentStateWaiter.Progress> progress = new ComponentStateWaiter(nucleusAdapterIpc,
+                    targetStates).await(accepted, startNanos, TimeUnit.SECONDS.toMillis(timeout));
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+
+            int width = "Component".length();
+            for (String componentName : componentNames) {
+                width = Math.max(width, componentName.length());
+            }
+            String format = "%-" + width + "s  %-9s  %-16s  %10s%n";
+            System.out.printf(format, "Component", "State", "Result", "Latency");
+            int failed = 0;
+            for (ComponentOperationResult result : results) {
+                ComponentStateWaiter.Progress p = progress.get(result.getComponentName());
+                if (p == null) {
+                    failed++;
+                    System.out.printf(format, result.getComponentName(), "-", operation + " failed",
+                            result.getLatencyMillis() + " ms");
+                    System.err.printf("%s: %s%n", result.getComponentName(), result.getError());
+                } else if (!p.isDone()) {
+                    failed++;
+                    System.out.printf(format, result.getComponentName(), p.getState() == null ? "missing"
+                            : p.getState(), "timed out", elapsedMillis + " ms");
+                } else {
+                    if (!p.isReached()) {
+                        failed++;
+                    }
+                    System.out.printf(format, result.getComponentName(), p.getState(),
+                            p.isReached() ? "done" : "failed", p.getLatencyMillis() + " ms");
+                }
+            }
+            return failed > 0 ? 1 : 0;
+        } finally {
+            nucleusAdapterIpc.setPersistent(wasPersistent);
+        }
+    }
+
+    private int printResults(String operation, List<ComponentOperationResult> results) {
+        int failed = 0;
+        for (ComponentOperationResult result : results) {
+            if (result.isSucceeded()) {
+                System.out.printf("%s: %s succeeded in %d ms%n", result.getComponentName(), operation,
+                        result.getLatencyMillis());
+            } else {
+                failed++;
+                System.out.printf("%s: %s failed after %d ms: %s%n", result.getComponentName(), operation,
+                        result.getLatencyMillis(), result.getError());
+            }
+        }
+        if (failed > 0) {
+            System.err.printf("Failed to %s %d of %d components%n", operation, failed, results.size());
+            return 1;
+        }
+        return 0;
+    }
+
     private void printComponentDetails(ComponentDetails component) throws JsonProcessingException {
         System.out.println("Component Name: " + component.getComponentName());
         // Indent following lines to make the components more easily readable
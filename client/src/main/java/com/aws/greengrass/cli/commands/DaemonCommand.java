@@ -0,0 +1,143 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.commands;
+
+import com.aws.greengrass.cli.CLI;
+import com.aws.greengrass.cli.daemon.DaemonClient;
+import com.aws.greengrass.cli.daemon.DaemonInfo;
+import com.aws.greengrass.cli.daemon.DaemonServer;
+import com.aws.greengrass.cli.module.AdapterModule;
+import com.aws.greengrass.cli.module.DaggerCommandsComponent;
+import picocli.CommandLine;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Inject;
+
+@CommandLine.Command(name = "daemon", resourceBundle = "com.aws.greengrass.cli.CLI_messages",
+        subcommands = CommandLine.HelpCommand.class, mixinStandardHelpOptions = true,
+        versionProvider = com.aws.greengrass.cli.module.VersionProvider.class)
+public class DaemonCommand extends BaseCommand {
+    private static final String GGC_ROOT_PATH_ENV = "GGC_ROOT_PATH";
+    private static final long START_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(15);
+    private static final long START_POLL_MILLIS = 100;
+    // Set by GraalVM when running as a native executable.
+    private static final String NATIVE_IMAGE_PROPERTY = "org.graalvm.nativeimage.imagecode";
+
+    @Inject
+    public DaemonCommand() {
+    }
+
+    @CommandLine.Command(name = "run", mixinStandardHelpOptions = true,
+            versionProvider = com.aws.greengrass.cli.module.VersionProvider.class)
+    public int runDaemon() throws IOException {
+        String ggcRootPath = ggcRootPath();
+        if (ggcRootPath == null) {
+            System.err.println("The Greengrass root path is required to run the daemon. "
+                    + "Use --ggcRootPath or set " + GGC_ROOT_PATH_ENV + ".");
+            return 1;
+        }
+        DaemonServer server = new DaemonServer(DaggerCommandsComponent.builder()
+                .adapterModule(new AdapterModule(ggcRootPath, true))
+                .build(), ggcRootPath, DaemonInfo.defaultFile());
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        System.out.println("Greengrass CLI daemon listening on port " + server.getInfo().getPort());
+        server.serve();
+        return 0;
+    }
+
+    @CommandLine.Command(name = "start", mixinStandardHelpOptions = true,
+            versionProvider = com.aws.greengrass.cli.module.VersionProvider.class)
+    public int start() throws IOException, InterruptedException {
+        if (DaemonClient.status(System.out) != null) {
+            return 0;
+        }
+        String ggcRootPath = ggcRootPath();
+        if (ggcRootPath == null) {
+            System.err.println("The Greengrass root path is required to start the daemon. "
+                    + "Use --ggcRootPath or set " + GGC_ROOT_PATH_ENV + ".");
+            return 1;
+        }
+        Path infoFile = DaemonInfo.defaultFile();
+        Path logFile = DaemonInfo.defaultLogFile();
+        Files.createDirectories(logFile.getParent());
+
+        List<String> command = launcher();
+        command.add("--ggcRootPath");
+        command.add(ggcRootPath);
+        command.add("daemon");
+        command.add("run");
+        long startedAt = System.currentTimeMillis();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(logFile.toFile()))
+                .redirectInput(ProcessBuilder.Redirect.from(new File(nullDevice())))
+                .start();
+
+        long deadline = startedAt + START_TIMEOUT_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            DaemonInfo info = DaemonInfo.read(infoFile);
+            if (info != null && info.getStartedAt() >= startedAt) {
+                System.out.println("Greengrass CLI daemon started with pid " + info.getPid());
+                return 0;
+            }
+            if (!process.isAlive()) {
+                break;
+            }
+            Thread.sleep(START_POLL_MILLIS);
+        }
+        System.err.println("Greengrass CLI daemon failed to start, see " + logFile);
+        return 1;
+    }
+
+    @CommandLine.Command(name = "stop", mixinStandardHelpOptions = true,
+            versionProvider = com.aws.greengrass.cli.module.VersionProvider.class)
+    public int stop() {
+        if (DaemonClient.stop(System.out) == null) {
+            System.out.println("Greengrass CLI daemon is not running.");
+        }
+        return 0;
+    }
+
+    @CommandLine.Command(name = "status", mixinStandardHelpOptions = true,
+            versionProvider = com.aws.greengrass.cli.module.VersionProvider.class)
+    public int status() {
+        if (DaemonClient.status(System.out) == null) {
+            System.out.println("Greengrass CLI daemon is not running.");
+            return 1;
+        }
+        return 0;
+    }
+
+    private String ggcRootPath() {
+        String ggcRootPath = parent.getGgcRootPath();
+        return ggcRootPath == null ? System.getenv(GGC_ROOT_PATH_ENV) : ggcRootPath;
+    }
+
+    private static List<String> launcher() throws IOException {
+        List<String> command = new ArrayList<>();
+        if (System.getProperty(NATIVE_IMAGE_PROPERTY) != null) {
+            // A native executable has no JVM to start, so it starts itself again.
+            command.add(Paths.get("/proc/self/exe").toRealPath().toString());
+        } else {
+            command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(CLI.class.getName());
+        }
+        return command;
+    }
+
+    private static String nullDevice() {
+        return System.getProperty("os.name").toLowerCase().startsWith("windows") ? "NUL" : "/dev/null";
+    }
+}
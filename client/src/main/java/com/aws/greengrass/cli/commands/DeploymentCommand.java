@@ -9,6 +9,7 @@ import com.aws.greengrass.cli.adapter.NucleusAdapterIpc;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.type.MapType;
+import lombok.Value;
 import picocli.CommandLine;
 import software.amazon.awssdk.aws.greengrass.model.CancelLocalDeploymentRequest;
 import software.amazon.awssdk.aws.greengrass.model.CreateLocalDeploymentRequest;
@@ -23,11 +24,19 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import javax.inject.Inject;
 
 import static com.aws.greengrass.cli.adapter.impl.NucleusAdapterIpcClientImpl.deTilde;
@@ -39,6 +48,9 @@ public class DeploymentCommand extends BaseCommand {
 
     private final String RUN_WITH_OPTION_POSIX_USER = "posixUser";
     private final String RUN_WITH_OPTION_WINDOWS_USER = "windowsUser";
+    // Format of the creation time of local deployments, as returned by the nucleus
+    private static final DateTimeFormatter CREATED_ON_FORMATTER = DateTimeFormatter.ofPattern("dd-MM-uuuu HH:mm:ss z");
+    private static final Pattern AGE_PATTERN = Pattern.compile("(\\d+)([smhd])");
     private final ObjectMapper mapper = new ObjectMapper();
     private NucleusAdapterIpc nucleusAdapterIpc;
 
@@ -219,19 +231,139 @@ public class DeploymentCommand extends BaseCommand {
      */
     @CommandLine.Command(name = "list", description = "Retrieve the status of local deployments",
             mixinStandardHelpOptions = true, versionProvider = com.aws.greengrass.cli.module.VersionProvider.class)
-    public int list() {
-        List<LocalDeployment> localDeployments = nucleusAdapterIpc.listLocalDeployments();
-        List<String> localDeploymentShortStatuses = new ArrayList<>();
-        for (LocalDeployment localDeployment : localDeployments) {
-            String statusBuilder = String.format("Deployment ID: %s\n", localDeployment.getDeploymentId()) +
-                    String.format("Created on: %s\n", localDeployment.getCreatedOn()) +
-                    String.format("Status: %s\n", localDeployment.getStatus());
-            localDeploymentShortStatuses.add(statusBuilder);
+    public int list(
+            @CommandLine.Option(names = {"-s", "--status"}, paramLabel = "Deployment status") List<DeploymentStatus> statuses,
+            @CommandLine.Option(names = {"--created-after"}, paramLabel = "Time") String createdAfter,
+            @CommandLine.Option(names = {"-n", "--limit"}, paramLabel = "Number of deployments") int limit,
+            @CommandLine.Option(names = {"--next-token"}, paramLabel = "Next token") String nextToken) {
+        Instant after;
+        Position next;
+        try {
+            after = createdAfter == null ? null : parseCreatedAfter(createdAfter, Instant.now());
+            next = nextToken == null ? null : Position.parse(nextToken);
+        } catch (IllegalArgumentException e) {
+            System.err.println(spec.commandLine().getColorScheme().errorText(e.getMessage()));
+            return 2;
+        }
+        // Deployments are listed in order of creation time and ID, and a page continues at the first deployment after
+        // the last one printed, even if that one was removed since
+        List<LocalDeployment> localDeployments = new ArrayList<>(nucleusAdapterIpc.listLocalDeployments());
+        localDeployments.sort(Comparator.comparing(Position::of));
+        int start = 0;
+        while (next != null && start < localDeployments.size()
+                && Position.of(localDeployments.get(start)).compareTo(next) <= 0) {
+            start++;
+        }
+
+        int printed = 0;
+        Position last = null;
+        for (int i = start; i < localDeployments.size(); i++) {
+            LocalDeployment localDeployment = localDeployments.get(i);
+            if (statuses != null && !statuses.contains(localDeployment.getStatus())
+                    || after != null && !createdAfter(localDeployment, after)) {
+                continue;
+            }
+            if (limit > 0 && printed == limit) {
+                System.out.printf("%nNext token: %s%n", last);
+                break;
+            }
+            if (printed > 0) {
+                System.out.println();
+            }
+            System.out.print(String.format("Deployment ID: %s\n", localDeployment.getDeploymentId())
+                    + String.format("Created on: %s\n", localDeployment.getCreatedOn())
+                    + String.format("Status: %s\n", localDeployment.getStatus()));
+            last = Position.of(localDeployment);
+            printed++;
         }
-        System.out.printf(String.join("\n", localDeploymentShortStatuses));
         return 0;
     }
 
+    /**
+     * Parse the time of --created-after, either as an ISO-8601 instant or as an age such as 30m, 12h or 7d.
+     *
+     * @param value time or age
+     * @param now   time that ages are relative to
+     * @return the parsed time
+     */
+    static Instant parseCreatedAfter(String value, Instant now) {
+        Matcher matcher = AGE_PATTERN.matcher(value);
+        if (matcher.matches()) {
+            long amount = Long.parseLong(matcher.group(1));
+            switch (matcher.group(2)) {
+                case "s":
+                    return now.minus(amount, ChronoUnit.SECONDS);
+                case "m":
+                    return now.minus(amount, ChronoUnit.MINUTES);
+                case "h":
+                    return now.minus(amount, ChronoUnit.HOURS);
+                default:
+                    return now.minus(amount, ChronoUnit.DAYS);
+            }
+        }
+        try {
+            return Instant.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("--created-after must be an ISO-8601 time such as "
+                    + "2021-01-01T00:00:00Z or an age such as 30m, 12h or 7d");
+        }
+    }
+
+    private static boolean createdAfter(LocalDeployment localDeployment, Instant after) {
+        long createdOn = createdOnSeconds(localDeployment);
+        return createdOn != Long.MIN_VALUE && Instant.ofEpochSecond(createdOn).isAfter(after);
+    }
+
+    // Creation time in epoch seconds, or Long.MIN_VALUE if unknown
+    private static long createdOnSeconds(LocalDeployment localDeployment) {
+        if (localDeployment.getCreatedOn() == null) {
+            return Long.MIN_VALUE;
+        }
+        try {
+            return ZonedDateTime.parse(localDeployment.getCreatedOn(), CREATED_ON_FORMATTER).toEpochSecond();
+        } catch (DateTimeParseException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    /*
+     * Position of a deployment in the list, which is also the next token: its creation time in epoch seconds and
+     * its ID, such as 1609459200_id.
+     */
+    @Value
+    static class Position implements Comparable<Position> {
+        long createdOn;
+        String deploymentId;
+
+        static Position of(LocalDeployment localDeployment) {
+            return new Position(createdOnSeconds(localDeployment), String.valueOf(localDeployment.getDeploymentId()));
+        }
+
+        static Position parse(String token) {
+            int separator = token.indexOf('_');
+            try {
+                if (separator > 0) {
+                    return new Position(Long.parseLong(token.substring(0, separator)),
+                            token.substring(separator + 1));
+                }
+            } catch (NumberFormatException e) {
+                // Reported below.
+            }
+            throw new IllegalArgumentException("Invalid next token " + token);
+        }
+
+        @Override
+        public int compareTo(Position other) {
+            int compared = Long.compare(createdOn, other.createdOn);
+            return compared != 0 ? compared : deploymentId.compareTo(other.deploymentId);
+        }
+
+        @Override
+        public String toString() {
+            return createdOn + "_" + deploymentId;
+        }
+    }
+
     private Map<String, RunWithInfo> getComponentToRunWithInfo(Map<String, String> runWithOptions,
             Map<String, SystemResourceLimits> systemLimits) {
         if (runWithOptions == null) {
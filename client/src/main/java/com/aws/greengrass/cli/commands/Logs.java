@@ -7,8 +7,11 @@ package com.aws.greengrass.cli.commands;
 
 import com.aws.greengrass.cli.util.logs.Aggregation;
 import com.aws.greengrass.cli.util.logs.Filter;
+import com.aws.greengrass.cli.util.logs.LogCursor;
 import com.aws.greengrass.cli.util.logs.LogEntry;
+import com.aws.greengrass.cli.util.logs.LogManifest;
 import com.aws.greengrass.cli.util.logs.LogQueue;
+import com.aws.greengrass.cli.util.logs.LogStats;
 import com.aws.greengrass.cli.util.logs.LogsUtil;
 import com.aws.greengrass.cli.util.logs.Visualization;
 import picocli.CommandLine;
@@ -23,6 +26,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 
@@ -31,6 +35,7 @@ import static com.aws.greengrass.cli.adapter.impl.NucleusAdapterIpcClientImpl.de
 @Command(name = "logs", resourceBundle = "com.aws.greengrass.cli.CLI_messages", subcommands = HelpCommand.class,
         mixinStandardHelpOptions = true, versionProvider = com.aws.greengrass.cli.module.VersionProvider.class)
 public class Logs extends BaseCommand {
+    private static final long STATS_INTERVAL_MILLIS = 5000;
 
     private final Aggregation aggregation;
     private final Filter filter;
@@ -62,8 +67,26 @@ public class Logs extends BaseCommand {
                    @CommandLine.Option(names = {"-fol", "--follow"}, paramLabel = "Follow live updates") boolean follow,
                    @CommandLine.Option(names = {"-nc", "--no-color"}, paramLabel = "Output without any colors") boolean noColor,
                    @CommandLine.Option(names = {"-v", "--verbose"}, paramLabel = "Use verbose logging") boolean verbose,
-                   @CommandLine.Option(names = {"-s", "--syslog"}, paramLabel = "Use syslog format") boolean syslog) {
-        Runtime.getRuntime().addShutdownHook(new Thread(aggregation::close));
+                   @CommandLine.Option(names = {"-s", "--syslog"}, paramLabel = "Use syslog format") boolean syslog,
+                   @CommandLine.Option(names = {"--cursor"}, paramLabel = "Cursor name") String cursorName,
+                   @CommandLine.Option(names = {"--stats"}, paramLabel = "Print pipeline stats") boolean stats,
+                   @CommandLine.Option(names = {"--manifest"}, paramLabel = "Cache directory listings") boolean manifest) {
+        if (manifest) {
+            aggregation.setManifest(LogManifest.load());
+        }
+        LogCursor cursor = cursorName == null ? null : LogCursor.load(cursorName);
+        LogStats.setEnabled(stats);
+        AtomicBoolean statsPrinted = new AtomicBoolean(false);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            aggregation.close();
+            if (cursor != null) {
+                cursor.flush();
+            }
+            // Following is usually ended by an interrupt, so the summary is printed on the way out.
+            if (stats && statsPrinted.compareAndSet(false, true)) {
+                LogsUtil.getErrorStream().println(LogStats.summary());
+            }
+        }));
         LogsUtil.setSyslog(syslog);
         if (syslog && verbose) {
             LogsUtil.getErrorStream().println("Syslog does not support verbosity!");
@@ -71,19 +94,34 @@ public class Logs extends BaseCommand {
         List<Path> logFileList = deTildeArray(logFileArray);
         List<Path> logDirList = deTildeArray(logDirArray);
         filter.composeRule(timeWindow, filterExpressions);
-        aggregation.configure(follow, filter, before, after, max);
+        aggregation.configure(follow, filter, before, after, max, cursor);
         LogQueue logQueue = aggregation.readLog(logFileList, logDirList);
+        long lastStats = System.currentTimeMillis();
         while (!logQueue.isEmpty() || aggregation.isAlive()) {
             try {
                 // GG_NEEDS_REVIEW: TODO: remove busy polling.
                 LogEntry entry = logQueue.poll(10, TimeUnit.MILLISECONDS);
                 if (entry != null) {
                     visualization.visualize(entry, noColor, verbose);
+                    entry.releaseCursor();
+                }
+                if (cursor != null) {
+                    cursor.flushIfDue();
+                }
+                if (stats && follow && System.currentTimeMillis() - lastStats >= STATS_INTERVAL_MILLIS) {
+                    lastStats = System.currentTimeMillis();
+                    LogsUtil.getErrorStream().println(LogStats.summary());
                 }
             } catch (InterruptedException e) {
                 break;
             }
         }
+        if (cursor != null) {
+            cursor.flush();
+        }
+        if (stats && statsPrinted.compareAndSet(false, true)) {
+            LogsUtil.getErrorStream().println(LogStats.summary());
+        }
         return 0;
     }
 
@@ -101,7 +139,12 @@ public class Logs extends BaseCommand {
     @Command(name = "list-log-files", mixinStandardHelpOptions = true,
             versionProvider = com.aws.greengrass.cli.module.VersionProvider.class)
     public void listLogFiles(@CommandLine.Option(names = {"-ld", "--log-dir"}, paramLabel = "Log directory",
-            required = true) String[] logDir) {
+            required = true) String[] logDir,
+                             @CommandLine.Option(names = {"--manifest"}, paramLabel = "Cache directory listings")
+                                     boolean manifest) {
+        if (manifest) {
+            aggregation.setManifest(LogManifest.load());
+        }
         List<Path> logDirList = Arrays.stream(logDir).map(Paths::get).collect(Collectors.toList());
         Set<File> logFileSet = aggregation.listLog(logDirList);
         if (!logFileSet.isEmpty()) {
@@ -1,10 +1,17 @@
 package com.aws.greengrass.cli.commands.topic;
 
 import com.aws.greengrass.cli.adapter.NucleusAdapterIpc;
+import com.aws.greengrass.cli.util.pubsub.CaptureRecording;
 import picocli.CommandLine;
+import software.amazon.awssdk.aws.greengrass.model.IoTCoreMessage;
+import software.amazon.awssdk.aws.greengrass.model.MQTTMessage;
+import software.amazon.awssdk.aws.greengrass.model.QOS;
+import software.amazon.awssdk.eventstreamrpc.StreamResponseHandler;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 @CommandLine.Command(name = "iotcore", resourceBundle = "com.aws.greengrass.cli.CLI_messages",
         subcommands = CommandLine.HelpCommand.class, mixinStandardHelpOptions = true,
@@ -22,29 +29,133 @@ public class IotCoreCommand extends TopicBaseInfo {
             description = PUB_COMMAND_DESCRIPTION,
             mixinStandardHelpOptions = true,
             versionProvider = com.aws.greengrass.cli.module.VersionProvider.class)
-    public void pub(@CommandLine.Option(names = {"-t", "--topic"}, paramLabel = TOPIC_NAME_DESCRIPTION, required = true) String topicName,
-                    @CommandLine.Option(names = {"-m", "--message"}, paramLabel = MESSAGE_DESCRIPTION, required = true) String message,
-                    @CommandLine.Option(names = {"-q", "--qos"}, paramLabel = QOS_DESCRIPTION, defaultValue = "0") String qos
+    public int pub(@CommandLine.Option(names = {"-t", "--topic"}, paramLabel = TOPIC_NAME_DESCRIPTION, required = true) String topicName,
+                   @CommandLine.Option(names = {"-m", "--message"}, paramLabel = MESSAGE_DESCRIPTION) String message,
+                   @CommandLine.Option(names = {"-q", "--qos"}, paramLabel = QOS_DESCRIPTION, defaultValue = "0") String qos,
+                   @CommandLine.Option(names = {"-f", "--from"}, paramLabel = FROM_DESCRIPTION) String from,
+                   @CommandLine.Option(names = {"--ndjson"}, paramLabel = NDJSON_DESCRIPTION) boolean ndjson,
+                   @CommandLine.Option(names = {"-w", "--window"}, paramLabel = WINDOW_DESCRIPTION,
+                           defaultValue = "64") int window
     ) {
         if(isEmpty(topicName)){
             System.err.println(TOPIC_EMPTY_ERROR_MESSAGE);
-            return;
+            return 0;
+        }
+        if ((message == null) == (from == null)) {
+            System.err.println(MESSAGE_OR_FROM_ERROR_MESSAGE);
+            return 2;
+        }
+        if (from != null) {
+            QOS mqttQos = QOS.get(qos);
+            return publishLines(nucleusAdapterIpc, from, window, line -> {
+                if (ndjson) {
+                    // IoT Core payloads are bytes, so JSON is only validated.
+                    parseJsonObject(line);
+                }
+                return nucleusAdapterIpc.publishToIoTCoreAsync(topicName, line.getBytes(StandardCharsets.UTF_8),
+                        mqttQos);
+            });
+        }
+        byte[] content = getContent(message);
+        if (content == null) {
+            return 1;
         }
-        String content = getContent(message);
         nucleusAdapterIpc.publishToIoTCore(topicName, content, qos);
+        return 0;
     }
 
     @CommandLine.Command(name = "sub",
             description = SUB_COMMAND_DESCRIPTION,
             mixinStandardHelpOptions = true,
             versionProvider = com.aws.greengrass.cli.module.VersionProvider.class)
-    public void sub(@CommandLine.Option(names = {"-t", "--topic"}, paramLabel = TOPIC_NAME_DESCRIPTION, required = true) String topicName,
-                    @CommandLine.Option(names = {"-q", "--qos"}, paramLabel = QOS_DESCRIPTION, defaultValue = "0") String qos)
+    public int sub(@CommandLine.Option(names = {"-t", "--topic"}, paramLabel = TOPICS_DESCRIPTION) List<String> topicNames,
+                   @CommandLine.Option(names = {"--topic-file"}, paramLabel = TOPIC_FILE_DESCRIPTION) String topicFile,
+                   @CommandLine.Option(names = {"-q", "--qos"}, paramLabel = QOS_DESCRIPTION, defaultValue = "0") String qos)
             throws IOException {
-        if(isEmpty(topicName)){
+        List<String> topics = readTopics(topicNames, topicFile);
+        if (topics.isEmpty()) {
+            System.err.println(TOPIC_OR_TOPIC_FILE_ERROR_MESSAGE);
+            return 2;
+        }
+        if (topics.stream().anyMatch(this::isEmpty)) {
             System.err.println(TOPIC_EMPTY_ERROR_MESSAGE);
-            return;
+            return 0;
+        }
+        nucleusAdapterIpc.subscribeToIoTCore(topics, qos);
+        return 0;
+    }
+
+    @CommandLine.Command(name = "record",
+            description = RECORD_COMMAND_DESCRIPTION,
+            mixinStandardHelpOptions = true,
+            versionProvider = com.aws.greengrass.cli.module.VersionProvider.class)
+    public int record(@CommandLine.Option(names = {"-t", "--topic"}, paramLabel = RECORD_TOPICS_DESCRIPTION) List<String> topicNames,
+                      @CommandLine.Option(names = {"--topic-file"}, paramLabel = TOPIC_FILE_DESCRIPTION) String topicFile,
+                      @CommandLine.Option(names = {"-o", "--output"}, paramLabel = OUTPUT_DESCRIPTION,
+                              required = true) String output,
+                      @CommandLine.Option(names = {"-d", "--duration"}, paramLabel = DURATION_DESCRIPTION,
+                              defaultValue = "0") long durationSeconds,
+                      @CommandLine.Option(names = {"-n", "--count"}, paramLabel = RECORD_COUNT_DESCRIPTION,
+                              defaultValue = "0") long count,
+                      @CommandLine.Option(names = {"-q", "--qos"}, paramLabel = QOS_DESCRIPTION, defaultValue = "0") String qos)
+            throws IOException {
+        QOS mqttQos = QOS.get(qos);
+        return recordTopics(nucleusAdapterIpc, topicNames, topicFile, output, durationSeconds, count,
+                (topic, recording) -> nucleusAdapterIpc.subscribeToIoTCoreAsync(topic, mqttQos,
+                        new RecordingHandler(topic, recording)));
+    }
+
+    @CommandLine.Command(name = "replay",
+            description = REPLAY_COMMAND_DESCRIPTION,
+            mixinStandardHelpOptions = true,
+            versionProvider = com.aws.greengrass.cli.module.VersionProvider.class)
+    public int replay(@CommandLine.Option(names = {"-i", "--input"}, paramLabel = INPUT_DESCRIPTION,
+                              required = true) String input,
+                      @CommandLine.Option(names = {"-x", "--speed"}, paramLabel = SPEED_DESCRIPTION,
+                              defaultValue = "1") double speed,
+                      @CommandLine.Option(names = {"-t", "--topic"}, paramLabel = REPLAY_TOPIC_DESCRIPTION) String topicName,
+                      @CommandLine.Option(names = {"-w", "--window"}, paramLabel = CONCURRENCY_DESCRIPTION,
+                              defaultValue = "64") int window,
+                      @CommandLine.Option(names = {"-q", "--qos"}, paramLabel = QOS_DESCRIPTION, defaultValue = "0") String qos)
+            throws IOException {
+        QOS mqttQos = QOS.get(qos);
+        // IoT Core payloads are bytes, so JSON records of a local recording are published as their text.
+        return replayCapture(nucleusAdapterIpc, input, speed, topicName, window, (topic, message) ->
+                nucleusAdapterIpc.publishToIoTCoreAsync(topic, message.getPayload(), mqttQos));
+    }
+
+    /*
+     * Appends the messages of one IoT Core subscription to the capture file of a recording, as binary records.
+     */
+    private static class RecordingHandler implements StreamResponseHandler<IoTCoreMessage> {
+        private final String topic;
+        private final CaptureRecording recording;
+
+        RecordingHandler(String topic, CaptureRecording recording) {
+            this.topic = topic;
+            this.recording = recording;
+        }
+
+        @Override
+        public void onStreamEvent(IoTCoreMessage message) {
+            MQTTMessage mqttMessage = message.getMessage();
+            if (mqttMessage == null || mqttMessage.getPayload() == null) {
+                return;
+            }
+            // The topic a message was published to, which differs from the subscribed one for wildcards.
+            recording.append(mqttMessage.getTopicName() == null ? topic : mqttMessage.getTopicName(), false,
+                    mqttMessage.getPayload());
+        }
+
+        @Override
+        public boolean onStreamError(Throwable error) {
+            System.err.println("Subscription to " + topic + " failed: " + error.getMessage());
+            return true;
+        }
+
+        @Override
+        public void onStreamClosed() {
+            recording.streamClosed();
         }
-        nucleusAdapterIpc.subscribeToIoTCore(topicName, qos);
     }
 }
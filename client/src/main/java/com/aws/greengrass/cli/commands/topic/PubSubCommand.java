@@ -1,16 +1,32 @@
 package com.aws.greengrass.cli.commands.topic;
 
 import com.aws.greengrass.cli.adapter.NucleusAdapterIpc;
+import com.aws.greengrass.cli.util.pubsub.CaptureRecording;
+import com.aws.greengrass.cli.util.pubsub.PubSubBenchmark;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import picocli.CommandLine;
+import software.amazon.awssdk.aws.greengrass.model.BinaryMessage;
+import software.amazon.awssdk.aws.greengrass.model.JsonMessage;
+import software.amazon.awssdk.aws.greengrass.model.MessageContext;
+import software.amazon.awssdk.aws.greengrass.model.SubscriptionResponseMessage;
+import software.amazon.awssdk.eventstreamrpc.StreamResponseHandler;
 
 import javax.inject.Inject;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @CommandLine.Command(name = "pubsub", resourceBundle = "com.aws.greengrass.cli.CLI_messages",
         subcommands = CommandLine.HelpCommand.class, mixinStandardHelpOptions = true,
         versionProvider = com.aws.greengrass.cli.module.VersionProvider.class)
 public class PubSubCommand extends TopicBaseInfo {
 
+    private static final String BENCH_TOPIC_PREFIX = "greengrass-cli/bench/";
+    private static final ObjectWriter JSON_WRITER = new ObjectMapper().writer();
+
     private final NucleusAdapterIpc nucleusAdapterIpc;
 
     @Inject
@@ -23,26 +39,174 @@ public class PubSubCommand extends TopicBaseInfo {
             description = PUB_COMMAND_DESCRIPTION,
             mixinStandardHelpOptions = true,
             versionProvider = com.aws.greengrass.cli.module.VersionProvider.class)
-    public void pub(@CommandLine.Option(names = {"-t", "--topic"}, paramLabel = TOPIC_NAME_DESCRIPTION, required = true) String topicName,
-                    @CommandLine.Option(names = {"-m", "--message"}, paramLabel = MESSAGE_DESCRIPTION, required = true) String message) {
+    public int pub(@CommandLine.Option(names = {"-t", "--topic"}, paramLabel = TOPIC_NAME_DESCRIPTION, required = true) String topicName,
+                   @CommandLine.Option(names = {"-m", "--message"}, paramLabel = MESSAGE_DESCRIPTION) String message,
+                   @CommandLine.Option(names = {"-f", "--from"}, paramLabel = FROM_DESCRIPTION) String from,
+                   @CommandLine.Option(names = {"--ndjson"}, paramLabel = NDJSON_DESCRIPTION) boolean ndjson,
+                   @CommandLine.Option(names = {"-w", "--window"}, paramLabel = WINDOW_DESCRIPTION,
+                           defaultValue = "64") int window) {
         if(isEmpty(topicName)){
             System.err.println(TOPIC_EMPTY_ERROR_MESSAGE);
-            return;
+            return 0;
+        }
+        if ((message == null) == (from == null)) {
+            System.err.println(MESSAGE_OR_FROM_ERROR_MESSAGE);
+            return 2;
+        }
+        if (from != null) {
+            return publishLines(nucleusAdapterIpc, from, window, line -> ndjson
+                    ? nucleusAdapterIpc.publishJsonToTopicAsync(topicName, parseJsonObject(line))
+                    : nucleusAdapterIpc.publishToTopicAsync(topicName, line.getBytes(StandardCharsets.UTF_8)));
+        }
+        byte[] content = getContent(message);
+        if (content == null) {
+            return 1;
         }
-        String content = getContent(message);
         nucleusAdapterIpc.publishToTopic(topicName, content);
+        return 0;
     }
 
     @CommandLine.Command(name = "sub",
             description = SUB_COMMAND_DESCRIPTION,
             mixinStandardHelpOptions = true,
             versionProvider = com.aws.greengrass.cli.module.VersionProvider.class)
-    public void sub(@CommandLine.Option(names = {"-t", "--topic"}, paramLabel = TOPIC_NAME_DESCRIPTION, required = true) String topicName)
+    public int sub(@CommandLine.Option(names = {"-t", "--topic"}, paramLabel = TOPICS_DESCRIPTION) List<String> topicNames,
+                   @CommandLine.Option(names = {"--topic-file"}, paramLabel = TOPIC_FILE_DESCRIPTION) String topicFile)
             throws IOException {
-        if(isEmpty(topicName)){
+        List<String> topics = readTopics(topicNames, topicFile);
+        if (topics.isEmpty()) {
+            System.err.println(TOPIC_OR_TOPIC_FILE_ERROR_MESSAGE);
+            return 2;
+        }
+        if (topics.stream().anyMatch(this::isEmpty)) {
             System.err.println(TOPIC_EMPTY_ERROR_MESSAGE);
-            return;
+            return 0;
+        }
+        nucleusAdapterIpc.subscribeToTopics(topics);
+        return 0;
+    }
+
+    @CommandLine.Command(name = "bench",
+            description = BENCH_COMMAND_DESCRIPTION,
+            mixinStandardHelpOptions = true,
+            versionProvider = com.aws.greengrass.cli.module.VersionProvider.class)
+    public int bench(@CommandLine.Option(names = {"-t", "--topic"}, paramLabel = BENCH_TOPIC_DESCRIPTION) String topicName,
+                     @CommandLine.Option(names = {"-s", "--size"}, paramLabel = SIZE_DESCRIPTION,
+                             defaultValue = "256") int size,
+                     @CommandLine.Option(names = {"-n", "--count"}, paramLabel = COUNT_DESCRIPTION,
+                             defaultValue = "10000") int count,
+                     @CommandLine.Option(names = {"-r", "--rate"}, paramLabel = RATE_DESCRIPTION,
+                             defaultValue = "0") double rate,
+                     @CommandLine.Option(names = {"-c", "--concurrency"}, paramLabel = CONCURRENCY_DESCRIPTION,
+                             defaultValue = "64") int concurrency,
+                     @CommandLine.Option(names = {"--drain"}, paramLabel = DRAIN_DESCRIPTION,
+                             defaultValue = "5") long drainSeconds) {
+        if (topicName == null) {
+            topicName = BENCH_TOPIC_PREFIX + UUID.randomUUID();
+        } else if (isEmpty(topicName)) {
+            System.err.println(TOPIC_EMPTY_ERROR_MESSAGE);
+            return 2;
+        }
+        if (count <= 0 || concurrency <= 0 || size < PubSubBenchmark.HEADER_BYTES) {
+            System.err.println("Count and concurrency must be positive and size at least "
+                    + PubSubBenchmark.HEADER_BYTES);
+            return 2;
+        }
+        PubSubBenchmark benchmark = new PubSubBenchmark(nucleusAdapterIpc, topicName, size, count, rate, concurrency);
+        boolean wasPersistent = nucleusAdapterIpc.isPersistent();
+        nucleusAdapterIpc.setPersistent(true);
+        try {
+            System.out.println("Benchmarking topic " + topicName);
+            return benchmark.run(TimeUnit.SECONDS.toMillis(drainSeconds), System.out) ? 0 : 1;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Benchmark interrupted");
+            return 1;
+        } finally {
+            // Also ends the subscription, unless a batch keeps the connection open.
+            if (wasPersistent) {
+                nucleusAdapterIpc.closeConnection();
+            }
+            nucleusAdapterIpc.setPersistent(wasPersistent);
+        }
+    }
+
+    @CommandLine.Command(name = "record",
+            description = RECORD_COMMAND_DESCRIPTION,
+            mixinStandardHelpOptions = true,
+            versionProvider = com.aws.greengrass.cli.module.VersionProvider.class)
+    public int record(@CommandLine.Option(names = {"-t", "--topic"}, paramLabel = RECORD_TOPICS_DESCRIPTION) List<String> topicNames,
+                      @CommandLine.Option(names = {"--topic-file"}, paramLabel = TOPIC_FILE_DESCRIPTION) String topicFile,
+                      @CommandLine.Option(names = {"-o", "--output"}, paramLabel = OUTPUT_DESCRIPTION,
+                              required = true) String output,
+                      @CommandLine.Option(names = {"-d", "--duration"}, paramLabel = DURATION_DESCRIPTION,
+                              defaultValue = "0") long durationSeconds,
+                      @CommandLine.Option(names = {"-n", "--count"}, paramLabel = RECORD_COUNT_DESCRIPTION,
+                              defaultValue = "0") long count) throws IOException {
+        return recordTopics(nucleusAdapterIpc, topicNames, topicFile, output, durationSeconds, count,
+                (topic, recording) -> nucleusAdapterIpc.subscribeToTopicAsync(topic,
+                        new RecordingHandler(topic, recording)));
+    }
+
+    @CommandLine.Command(name = "replay",
+            description = REPLAY_COMMAND_DESCRIPTION,
+            mixinStandardHelpOptions = true,
+            versionProvider = com.aws.greengrass.cli.module.VersionProvider.class)
+    public int replay(@CommandLine.Option(names = {"-i", "--input"}, paramLabel = INPUT_DESCRIPTION,
+                              required = true) String input,
+                      @CommandLine.Option(names = {"-x", "--speed"}, paramLabel = SPEED_DESCRIPTION,
+                              defaultValue = "1") double speed,
+                      @CommandLine.Option(names = {"-t", "--topic"}, paramLabel = REPLAY_TOPIC_DESCRIPTION) String topicName,
+                      @CommandLine.Option(names = {"-w", "--window"}, paramLabel = CONCURRENCY_DESCRIPTION,
+                              defaultValue = "64") int window) throws IOException {
+        return replayCapture(nucleusAdapterIpc, input, speed, topicName, window, (topic, message) -> message.isJson()
+                ? nucleusAdapterIpc.publishJsonToTopicAsync(topic,
+                        parseJsonObject(new String(message.getPayload(), StandardCharsets.UTF_8)))
+                : nucleusAdapterIpc.publishToTopicAsync(topic, message.getPayload()));
+    }
+
+    /*
+     * Appends the messages of one subscription to the capture file of a recording.
+     */
+    private static class RecordingHandler implements StreamResponseHandler<SubscriptionResponseMessage> {
+        private final String topic;
+        private final CaptureRecording recording;
+
+        RecordingHandler(String topic, CaptureRecording recording) {
+            this.topic = topic;
+            this.recording = recording;
+        }
+
+        @Override
+        public void onStreamEvent(SubscriptionResponseMessage message) {
+            try {
+                if (message.getJsonMessage() != null && message.getJsonMessage().getMessage() != null) {
+                    JsonMessage json = message.getJsonMessage();
+                    recording.append(topicOf(json.getContext()), true,
+                            JSON_WRITER.writeValueAsBytes(json.getMessage()));
+                } else if (message.getBinaryMessage() != null && message.getBinaryMessage().getMessage() != null) {
+                    BinaryMessage binary = message.getBinaryMessage();
+                    recording.append(topicOf(binary.getContext()), false, binary.getMessage());
+                }
+            } catch (IOException e) {
+                System.err.println("Unable to record message: " + e.getMessage());
+            }
+        }
+
+        // The topic a message was published to, which differs from the subscribed one for wildcards.
+        private String topicOf(MessageContext context) {
+            return context != null && context.getTopic() != null ? context.getTopic() : topic;
+        }
+
+        @Override
+        public boolean onStreamError(Throwable error) {
+            System.err.println("Subscription to " + topic + " failed: " + error.getMessage());
+            return true;
+        }
+
+        @Override
+        public void onStreamClosed() {
+            recording.streamClosed();
         }
-        nucleusAdapterIpc.subscribeToTopic(topicName);
     }
 }
@@ -1,13 +1,36 @@
 package com.aws.greengrass.cli.commands.topic;
 
+import com.aws.greengrass.cli.adapter.NucleusAdapterIpc;
 import com.aws.greengrass.cli.commands.BaseCommand;
+import com.aws.greengrass.cli.util.pubsub.CaptureReader;
+import com.aws.greengrass.cli.util.pubsub.CaptureRecord;
+import com.aws.greengrass.cli.util.pubsub.CaptureRecording;
+import com.aws.greengrass.cli.util.pubsub.CaptureWriter;
+import com.aws.greengrass.cli.util.pubsub.PipelinedPublisher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import static com.aws.greengrass.cli.adapter.impl.NucleusAdapterIpcClientImpl.deTilde;
 
@@ -21,6 +44,41 @@ public class TopicBaseInfo extends BaseCommand {
             "0. The MQTT message is delivered at most once. " +
             " 1. The MQTT message is delivered at least once.";
     protected static final String TOPIC_EMPTY_ERROR_MESSAGE = "Topic name cannot be empty";
+    protected static final String FROM_DESCRIPTION = "File with one message per line, or - for stdin.";
+    protected static final String NDJSON_DESCRIPTION = "Lines of the --from file are JSON documents.";
+    protected static final String WINDOW_DESCRIPTION = "Publish requests in flight at once with --from.";
+    protected static final String MESSAGE_OR_FROM_ERROR_MESSAGE = "Either --message or --from is required";
+    protected static final String STDIN = "-";
+    protected static final String TOPICS_DESCRIPTION = "The name of the topic, repeat to subscribe to several. "
+            + "Messages are printed after their topic and a tab with several topics or wildcards.";
+    protected static final String TOPIC_FILE_DESCRIPTION = "File with one topic per line, or - for stdin.";
+    protected static final String RECORD_COMMAND_DESCRIPTION = "Record the messages of topics to a capture file, "
+            + "with the time each message was received.";
+    protected static final String REPLAY_COMMAND_DESCRIPTION = "Publish the messages of a capture file to topics "
+            + "again, with their recorded timing.";
+    protected static final String RECORD_TOPICS_DESCRIPTION = "The name of the topic, repeat to record several.";
+    protected static final String OUTPUT_DESCRIPTION = "Capture file to write.";
+    protected static final String INPUT_DESCRIPTION = "Capture file to replay.";
+    protected static final String DURATION_DESCRIPTION = "Seconds to record, 0 to record until interrupted.";
+    protected static final String RECORD_COUNT_DESCRIPTION = "Messages to record, 0 for no limit.";
+    protected static final String SPEED_DESCRIPTION = "Replay speed relative to the recording, 2 for twice as fast, "
+            + "0 to publish as fast as the window allows.";
+    protected static final String REPLAY_TOPIC_DESCRIPTION = "Publish all messages to this topic instead of their own.";
+    protected static final String TOPIC_OR_TOPIC_FILE_ERROR_MESSAGE = "Either --topic or --topic-file is required";
+    protected static final String BENCH_COMMAND_DESCRIPTION = "Measure local pub/sub throughput and end-to-end "
+            + "latency by publishing to a topic that this command also subscribes to.";
+    protected static final String BENCH_TOPIC_DESCRIPTION = "Topic to use, with no other publishers. "
+            + "Defaults to a new topic under greengrass-cli/bench/.";
+    protected static final String SIZE_DESCRIPTION = "Payload size in bytes, at least 24.";
+    protected static final String COUNT_DESCRIPTION = "Number of messages to publish.";
+    protected static final String RATE_DESCRIPTION = "Messages per second, 0 to publish as fast as the window allows.";
+    protected static final String CONCURRENCY_DESCRIPTION = "Publish requests in flight at once.";
+    protected static final String DRAIN_DESCRIPTION = "Seconds to wait for messages after the last publish response.";
+    // How long to wait for responses still in flight once the input is exhausted.
+    private static final long STREAM_FINISH_TIMEOUT_SEC = 60;
+    private static final int CAPTURE_CAPACITY = 65536;
+    private static final long SUBSCRIBE_TIMEOUT_SEC = 30;
+    private static final ObjectReader JSON_OBJECT_READER = new ObjectMapper().readerFor(Map.class);
 
     /**
      * Determine if string is empty.
@@ -42,34 +100,258 @@ public class TopicBaseInfo extends BaseCommand {
     }
 
     /**
-     * Get content from a file or string.
+     * Get content from a file or string. File content is read straight into the payload, so binary files are
+     * published unchanged, and strings are encoded as UTF-8.
      *
      * @param message
-     * @return String
+     * @return payload bytes, or null if the file cannot be read
      */
-    protected String getContent(String message) {
-        String content = null;
-        if (message != null && !message.isEmpty()) {
+    protected byte[] getContent(String message) {
+        if (message == null || message.isEmpty()) {
+            return new byte[0];
+        }
+        // Try to read content from a file if it is a path and the file exists
+        try {
+            Optional<Path> filePath = deTilde(message);
+            if (filePath.isPresent() && Files.isRegularFile(filePath.get())) {
+                return Files.readAllBytes(filePath.get());
+            }
+        } catch (InvalidPathException ignored) {
+            // InvalidPathException is thrown from deTilde and needs to be ignored.
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            return null;
+        }
+
+        // If it wasn't a file or a path, then use it as a string
+        return message.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Publish every non-empty line of a file or stdin as one message, keeping up to window requests in flight on
+     * one connection, then print the throughput and latencies.
+     *
+     * @param nucleusAdapterIpc adapter whose connection is kept open while publishing
+     * @param from file to read, or - for stdin
+     * @param window maximum publish requests in flight
+     * @param send publishes one line and returns the response
+     * @return 0 if all messages were published, 1 if any failed, timed out or publishing was interrupted
+     */
+    protected int publishLines(NucleusAdapterIpc nucleusAdapterIpc, String from, int window,
+                               Function<String, CompletableFuture<?>> send) {
+        PipelinedPublisher publisher = new PipelinedPublisher(window);
+        boolean finished = false;
+        boolean wasPersistent = nucleusAdapterIpc.isPersistent();
+        nucleusAdapterIpc.setPersistent(true);
+        try (BufferedReader reader = STDIN.equals(from)
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(deTilde(from).get(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                String message = line;
+                publisher.publish(() -> send.apply(message));
+            }
+            finished = publisher.finish(TimeUnit.SECONDS.toMillis(STREAM_FINISH_TIMEOUT_SEC));
+            if (!finished) {
+                System.err.println("Timed out waiting for publish responses after " + STREAM_FINISH_TIMEOUT_SEC
+                        + " seconds");
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Publishing interrupted");
+        } finally {
+            nucleusAdapterIpc.setPersistent(wasPersistent);
+        }
+        publisher.printReport(System.out);
+        return finished && publisher.getFailed() == 0 ? 0 : 1;
+    }
+
+    /**
+     * Record the messages of topics to a capture file until the duration is over, count messages were recorded,
+     * every subscription is closed or the command is interrupted.
+     *
+     * @param nucleusAdapterIpc adapter whose connection is kept open while recording
+     * @param topicNames topics given with --topic, or null
+     * @param topicFile file with one topic per line, - for stdin, or null
+     * @param output capture file to write
+     * @param durationSeconds seconds to record, 0 for no limit
+     * @param count messages to record, 0 for no limit
+     * @param subscribe subscribes to one topic, passing its messages to the recording
+     * @return 0 if every message was recorded, 1 if messages were dropped or no topic could be subscribed to,
+     *     2 for invalid topics
+     * @throws IOException if the capture file cannot be written
+     */
+    protected int recordTopics(NucleusAdapterIpc nucleusAdapterIpc, List<String> topicNames, String topicFile,
+                               String output, long durationSeconds, long count,
+                               BiFunction<String, CaptureRecording, CompletableFuture<?>> subscribe)
+            throws IOException {
+        List<String> topics = readTopics(topicNames, topicFile);
+        if (topics.isEmpty()) {
+            System.err.println(TOPIC_OR_TOPIC_FILE_ERROR_MESSAGE);
+            return 2;
+        }
+        if (topics.stream().anyMatch(this::isEmpty)) {
+            System.err.println(TOPIC_EMPTY_ERROR_MESSAGE);
+            return 2;
+        }
+        CaptureWriter writer = new CaptureWriter(Files.newOutputStream(deTilde(output).get()), CAPTURE_CAPACITY);
+        try {
+            boolean wasPersistent = nucleusAdapterIpc.isPersistent();
+            nucleusAdapterIpc.setPersistent(true);
             try {
-                // Try to read content from a file if it is a path and the file exists
-                try {
-                    Optional<Path> filePath = deTilde(message);
-                    if (filePath.isPresent() && Files.exists(filePath.get())) {
-                        content = new String(Files.readAllBytes(filePath.get()), StandardCharsets.UTF_8);
-                        return content;
+                CaptureRecording recording = new CaptureRecording(writer, count, topics.size());
+                List<CompletableFuture<?>> responses = new ArrayList<>(topics.size());
+                for (String topic : topics) {
+                    responses.add(subscribe.apply(topic, recording));
+                }
+                int subscribed = 0;
+                for (int i = 0; i < topics.size(); i++) {
+                    try {
+                        responses.get(i).get(SUBSCRIBE_TIMEOUT_SEC, TimeUnit.SECONDS);
+                        subscribed++;
+                    } catch (ExecutionException | TimeoutException e) {
+                        System.err.println("Unable to subscribe to topic " + topics.get(i) + ": " + e.getMessage());
+                        recording.streamClosed();
+                    }
+                }
+                if (subscribed == 0) {
+                    return 1;
+                }
+                System.out.println("Recording " + subscribed + " topics to " + output);
+                if (durationSeconds > 0) {
+                    recording.getDone().get(durationSeconds, TimeUnit.SECONDS);
+                } else {
+                    recording.getDone().get();
+                }
+            } catch (TimeoutException e) {
+                // The duration is over.
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                System.err.println("Recording interrupted");
+            } finally {
+                // Ends the subscriptions before the file is closed.
+                if (wasPersistent) {
+                    nucleusAdapterIpc.closeConnection();
+                }
+                nucleusAdapterIpc.setPersistent(wasPersistent);
+            }
+        } finally {
+            writer.close();
+        }
+        System.out.println("Recorded " + writer.getRecorded() + " messages to " + output);
+        return writer.getDropped() == 0 ? 0 : 1;
+    }
+
+    /**
+     * Publish the messages of a capture file with their recorded timing, keeping up to window requests in flight
+     * on one connection, then print the throughput and latencies.
+     *
+     * @param nucleusAdapterIpc adapter whose connection is kept open while publishing
+     * @param input capture file to replay
+     * @param speed replay speed relative to the recording, 0 to publish as fast as the window allows
+     * @param topicName topic to publish every message to, or null for the topic of each message
+     * @param window maximum publish requests in flight
+     * @param publish publishes one record to a topic and returns the response
+     * @return 0 if all messages were published, 1 if any failed, timed out or publishing was interrupted, 2 for an
+     *     invalid topic
+     * @throws IOException if the capture file cannot be read
+     */
+    protected int replayCapture(NucleusAdapterIpc nucleusAdapterIpc, String input, double speed, String topicName,
+                                int window, BiFunction<String, CaptureRecord, CompletableFuture<?>> publish)
+            throws IOException {
+        if (topicName != null && isEmpty(topicName)) {
+            System.err.println(TOPIC_EMPTY_ERROR_MESSAGE);
+            return 2;
+        }
+        PipelinedPublisher publisher = new PipelinedPublisher(window);
+        boolean finished = false;
+        boolean wasPersistent = nucleusAdapterIpc.isPersistent();
+        nucleusAdapterIpc.setPersistent(true);
+        try (CaptureReader reader = new CaptureReader(
+                new BufferedInputStream(Files.newInputStream(deTilde(input).get())))) {
+            long startNanos = System.nanoTime();
+            long firstOffsetMicros = -1;
+            CaptureRecord record;
+            while ((record = reader.next()) != null) {
+                if (firstOffsetMicros < 0) {
+                    firstOffsetMicros = record.getOffsetMicros();
+                }
+                if (speed > 0) {
+                    long offsetNanos = TimeUnit.MICROSECONDS.toNanos(record.getOffsetMicros() - firstOffsetMicros);
+                    long delay = startNanos + (long) (offsetNanos / speed) - System.nanoTime();
+                    if (delay > 0) {
+                        LockSupport.parkNanos(delay);
                     }
-                } catch (InvalidPathException ignored) {
-                    // InvalidPathException is thrown from deTilde and needs to be ignored.
                 }
+                String topic = topicName == null ? record.getTopic() : topicName;
+                CaptureRecord message = record;
+                publisher.publish(() -> publish.apply(topic, message));
+            }
+            finished = publisher.finish(TimeUnit.SECONDS.toMillis(STREAM_FINISH_TIMEOUT_SEC));
+            if (!finished) {
+                System.err.println("Timed out waiting for publish responses after " + STREAM_FINISH_TIMEOUT_SEC
+                        + " seconds");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Replay interrupted");
+        } finally {
+            nucleusAdapterIpc.setPersistent(wasPersistent);
+        }
+        publisher.printReport(System.out);
+        return finished && publisher.getFailed() == 0 ? 0 : 1;
+    }
 
-                // If it wasn't a file or a path, then try reading it as a string
-                if (content == null) {
-                    content = message;
+    /**
+     * Collect the topics to subscribe to from the command line and a topic file, in order and without duplicates.
+     * Blank lines and lines starting with # in the file are ignored.
+     *
+     * @param topicNames topics given with --topic, or null
+     * @param topicFile file with one topic per line, - for stdin, or null
+     * @return the topics, empty if none were given
+     */
+    protected List<String> readTopics(List<String> topicNames, String topicFile) {
+        Set<String> topics = new LinkedHashSet<>();
+        if (topicNames != null) {
+            topics.addAll(topicNames);
+        }
+        if (topicFile != null) {
+            try (BufferedReader reader = STDIN.equals(topicFile)
+                    ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                    : Files.newBufferedReader(deTilde(topicFile).get(), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && !line.startsWith("#")) {
+                        topics.add(line);
+                    }
                 }
             } catch (IOException e) {
-                System.err.println(e.getMessage());
+                throw new RuntimeException(e);
             }
         }
-        return content;
+        return new ArrayList<>(topics);
+    }
+
+    /**
+     * Parse a line of NDJSON input.
+     *
+     * @param line one JSON object
+     * @return the object
+     * @throws IllegalArgumentException if the line is not a JSON object
+     */
+    protected static Map<String, Object> parseJsonObject(String line) {
+        try {
+            return JSON_OBJECT_READER.readValue(line);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid JSON object: " + e.getMessage(), e);
+        }
     }
 }
@@ -0,0 +1,224 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.daemon;
+
+import com.aws.greengrass.cli.CLI;
+import com.aws.greengrass.cli.module.AdapterModule;
+import com.aws.greengrass.cli.module.DaggerCommandsComponent;
+import picocli.CommandLine;
+import picocli.CommandLine.ParseResult;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import static com.aws.greengrass.cli.adapter.impl.NucleusAdapterIpcClientImpl.deTilde;
+
+/*
+ * Thin client that forwards a command line to the local daemon.
+ */
+public final class DaemonClient {
+    // Commands that only talk to the nucleus over IPC. Long running subscriptions and commands that only read
+    // local files are not worth forwarding.
+    private static final Set<String> SERVED_COMMANDS = new HashSet<>(Arrays.asList("component", "deployment",
+            "get-debug-password"));
+    private static final String GGC_ROOT_PATH_OPTION = "--ggcRootPath";
+    private static final String GGC_ROOT_PATH_ENV = "GGC_ROOT_PATH";
+    private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+
+    private DaemonClient() {
+    }
+
+    /*
+     * Run a command line through the daemon. Returns its exit code, or null if the command should run locally
+     * because no daemon is running, the daemon serves another Greengrass root, or the command is not served or
+     * runs until interrupted.
+     */
+    public static Integer tryRun(String... args) {
+        return tryRun(DaemonInfo.defaultFile(), args, System.out, System.err);
+    }
+
+    static Integer tryRun(Path infoFile, String[] args, PrintStream out, PrintStream err) {
+        // Parsing the arguments takes longest, so it is only done when a daemon may serve them
+        if (!SERVED_COMMANDS.contains(firstCommand(args)) || !Files.exists(infoFile)
+                || runsUntilInterrupted(args)) {
+            return null;
+        }
+        DaemonInfo info = DaemonInfo.read(infoFile);
+        if (info == null || !Objects.equals(normalize(info.getGgcRootPath()), normalize(ggcRootPath(args)))) {
+            return null;
+        }
+        Socket socket;
+        try {
+            socket = connect(info);
+        } catch (IOException e) {
+            // The daemon is gone without cleaning up, so the command runs locally.
+            return null;
+        }
+        try (Socket s = socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+             DataOutputStream request = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()))) {
+            DaemonProtocol.writeString(request, info.getToken());
+            request.writeByte(DaemonProtocol.REQUEST_RUN);
+            DaemonProtocol.writeString(request, Paths.get("").toAbsolutePath().toString());
+            request.writeInt(args.length);
+            for (String arg : args) {
+                DaemonProtocol.writeString(request, arg);
+            }
+            request.flush();
+            return readResponse(in, out, err);
+        } catch (IOException e) {
+            // The command may have run already, so it must not be run again locally.
+            err.println("Lost connection to the Greengrass CLI daemon: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    /**
+     * Send a status or stop request to the daemon.
+     *
+     * @param infoFile daemon info file
+     * @param request DaemonProtocol.REQUEST_STATUS or DaemonProtocol.REQUEST_STOP
+     * @param out stream receiving the daemon's answer
+     * @return exit code, or null if no daemon is reachable
+     */
+    static Integer control(Path infoFile, byte request, PrintStream out) {
+        DaemonInfo info = DaemonInfo.read(infoFile);
+        if (info == null) {
+            return null;
+        }
+        try (Socket s = connect(info);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+             DataOutputStream requestStream = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()))) {
+            DaemonProtocol.writeString(requestStream, info.getToken());
+            requestStream.writeByte(request);
+            requestStream.flush();
+            return readResponse(in, out, out);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public static Integer status(PrintStream out) {
+        return control(DaemonInfo.defaultFile(), DaemonProtocol.REQUEST_STATUS, out);
+    }
+
+    public static Integer stop(PrintStream out) {
+        return control(DaemonInfo.defaultFile(), DaemonProtocol.REQUEST_STOP, out);
+    }
+
+    private static Socket connect(DaemonInfo info) throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), info.getPort()),
+                    CONNECT_TIMEOUT_MILLIS);
+            socket.setTcpNoDelay(true);
+            return socket;
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    private static Integer readResponse(DataInputStream in, PrintStream out, PrintStream err) throws IOException {
+        byte[] buffer = new byte[8192];
+        while (true) {
+            byte type = in.readByte();
+            switch (type) {
+                case DaemonProtocol.RESPONSE_STDOUT:
+                case DaemonProtocol.RESPONSE_STDERR:
+                    PrintStream target = type == DaemonProtocol.RESPONSE_STDOUT ? out : err;
+                    int remaining = in.readInt();
+                    while (remaining > 0) {
+                        int read = in.read(buffer, 0, Math.min(buffer.length, remaining));
+                        if (read < 0) {
+                            throw new IOException("Unexpected end of response");
+                        }
+                        target.write(buffer, 0, read);
+                        remaining -= read;
+                    }
+                    target.flush();
+                    break;
+                case DaemonProtocol.RESPONSE_EXIT:
+                    return in.readInt();
+                case DaemonProtocol.RESPONSE_UNAUTHORIZED:
+                    // The info file belongs to another daemon, the request was not run.
+                    return null;
+                case DaemonProtocol.RESPONSE_BUSY:
+                    // The daemon has too many clients, the request was not run.
+                    return null;
+                default:
+                    throw new IOException("Unknown response " + type);
+            }
+        }
+    }
+
+    /*
+     * The first argument that is not a top level option, which names the command.
+     */
+    static String firstCommand(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (GGC_ROOT_PATH_OPTION.equals(args[i])) {
+                i++;
+            } else if (!args[i].startsWith("-")) {
+                return args[i];
+            }
+        }
+        return null;
+    }
+
+    /*
+     * Whether the arguments run component list --watch, which runs until interrupted, so it runs locally instead of
+     * holding one of the few command threads of the daemon. The arguments are parsed like the CLI does, because
+     * options such as -w mean different things for different commands.
+     */
+    static boolean runsUntilInterrupted(String[] args) {
+        ParseResult parseResult;
+        try {
+            parseResult = CLI.newCommandLine(new CLI(), DaggerCommandsComponent.builder()
+                    .adapterModule(new AdapterModule((String) null)).build(), args).parseArgs(args);
+        } catch (CommandLine.ParameterException e) {
+            // The daemon reports invalid arguments.
+            return false;
+        }
+        ParseResult command = parseResult.subcommand();
+        ParseResult subcommand = command == null ? null : command.subcommand();
+        return subcommand != null && "component".equals(command.commandSpec().name())
+                && "list".equals(subcommand.commandSpec().name()) && subcommand.hasMatchedOption("--watch");
+    }
+
+    static String ggcRootPath(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            if (GGC_ROOT_PATH_OPTION.equals(args[i]) && i + 1 < args.length) {
+                return args[i + 1];
+            }
+            if (args[i].startsWith(GGC_ROOT_PATH_OPTION + "=")) {
+                return args[i].substring(GGC_ROOT_PATH_OPTION.length() + 1);
+            }
+            if (!args[i].startsWith("-")) {
+                break;
+            }
+        }
+        return System.getenv(GGC_ROOT_PATH_ENV);
+    }
+
+    static String normalize(String ggcRootPath) {
+        return deTilde(ggcRootPath).map(path -> path.normalize().toString()).orElse(null);
+    }
+}
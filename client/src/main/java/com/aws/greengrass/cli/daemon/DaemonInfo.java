@@ -0,0 +1,84 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.daemon;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+
+/*
+ * Where a running daemon can be reached. The file is only readable by its owner, since the token is what
+ * authorizes a client to run commands through the daemon.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DaemonInfo {
+    static final String DAEMON_DIRECTORY = ".greengrass-cli";
+    private static final String DAEMON_INFO_FILE = "daemon.json";
+    private static final String DAEMON_LOG_FILE = "daemon.log";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private int port;
+    private String token;
+    private String pid;
+    private String ggcRootPath;
+    private long startedAt;
+
+    public static Path defaultFile() {
+        return Paths.get(System.getProperty("user.home")).resolve(DAEMON_DIRECTORY).resolve(DAEMON_INFO_FILE);
+    }
+
+    public static Path defaultLogFile() {
+        return Paths.get(System.getProperty("user.home")).resolve(DAEMON_DIRECTORY).resolve(DAEMON_LOG_FILE);
+    }
+
+    /*
+     * Read daemon info, or return null if there is none or it cannot be read.
+     */
+    public static DaemonInfo read(Path infoFile) {
+        try {
+            return OBJECT_MAPPER.readValue(infoFile.toFile(), DaemonInfo.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Write daemon info, readable by the owner only.
+     *
+     * @param infoFile path to the info file
+     * @throws IOException if writing fails
+     */
+    public void write(Path infoFile) throws IOException {
+        Files.createDirectories(infoFile.getParent());
+        Path tmp = infoFile.resolveSibling(infoFile.getFileName() + ".tmp");
+        Files.deleteIfExists(tmp);
+        try {
+            Files.createFile(tmp, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } catch (UnsupportedOperationException e) {
+            // Not a POSIX file system, the file inherits the permissions of the user's home directory.
+            Files.createFile(tmp);
+        }
+        OBJECT_MAPPER.writeValue(tmp.toFile(), this);
+        try {
+            Files.move(tmp, infoFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, infoFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
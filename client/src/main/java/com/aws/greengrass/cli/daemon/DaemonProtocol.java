@@ -0,0 +1,97 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.daemon;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/*
+ * Wire format between the daemon and its clients.
+ *
+ * A client sends its token, a request type and, to run a command, its working directory and arguments.
+ * The daemon answers with frames of stdout and stderr output, followed by a frame with the exit code, or only
+ * with a frame saying the request was not run because the token is wrong or the daemon has too many clients.
+ * Strings are sent as a length followed by UTF-8 bytes.
+ */
+final class DaemonProtocol {
+    static final byte REQUEST_RUN = 1;
+    static final byte REQUEST_STATUS = 2;
+    static final byte REQUEST_STOP = 3;
+
+    static final byte RESPONSE_STDOUT = 1;
+    static final byte RESPONSE_STDERR = 2;
+    static final byte RESPONSE_EXIT = 3;
+    static final byte RESPONSE_UNAUTHORIZED = 4;
+    static final byte RESPONSE_BUSY = 5;
+
+    // Tokens are 32 random bytes in base64, which is 44 characters.
+    static final int MAX_TOKEN_LENGTH = 64;
+    private static final int MAX_STRING_LENGTH = 16 * 1024 * 1024;
+
+    private DaemonProtocol() {
+    }
+
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        return readString(in, MAX_STRING_LENGTH);
+    }
+
+    static String readString(DataInputStream in, int maxLength) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > maxLength) {
+            throw new IOException("Invalid string length " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /*
+     * Output stream that sends everything written to it as frames of the given type.
+     */
+    static class FrameOutputStream extends OutputStream {
+        private final DataOutputStream out;
+        private final byte type;
+
+        FrameOutputStream(DataOutputStream out, byte type) {
+            this.out = out;
+            this.type = type;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+            // stdout and stderr share the connection, so a frame is written as a whole.
+            synchronized (out) {
+                out.writeByte(type);
+                out.writeInt(len);
+                out.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            synchronized (out) {
+                out.flush();
+            }
+        }
+    }
+}
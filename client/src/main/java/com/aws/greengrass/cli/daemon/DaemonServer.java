@@ -0,0 +1,332 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.daemon;
+
+import com.aws.greengrass.cli.CLI;
+import com.aws.greengrass.cli.adapter.impl.NucleusAdapterIpcClientImpl;
+import com.aws.greengrass.cli.module.CommandsComponent;
+import lombok.Getter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Local daemon that runs CLI commands on behalf of thin clients, using commands whose IPC connection to the
+ * nucleus stays open between commands.
+ *
+ * The daemon listens on the loopback interface only, and clients authenticate with the random token of the
+ * daemon info file, which only its owner can read. Commands print to System.out, so while serving, System.out
+ * and System.err send what each command thread prints to its own client. Commands run concurrently, and a
+ * command is interrupted when its client disconnects.
+ */
+public class DaemonServer implements Closeable {
+    private static final int TOKEN_BYTES = 32;
+    // At most this many commands run at once. Further clients wait in the queue, and beyond it are told the
+    // daemon is busy so that they run their command locally.
+    private static final int MAX_CONNECTIONS = 16;
+    private static final int MAX_WAITING_CONNECTIONS = 64;
+    // Until a client is authenticated and its request read, it may not hold a connection thread for long.
+    private static final int REQUEST_TIMEOUT_MILLIS = 5000;
+    // Where System.out and System.err of each command thread go.
+    private static final ThreadLocal<PrintStream> COMMAND_OUT = new ThreadLocal<>();
+    private static final ThreadLocal<PrintStream> COMMAND_ERR = new ThreadLocal<>();
+
+    private final CommandsComponent commandsComponent;
+    private final Path infoFile;
+    private final ServerSocket serverSocket;
+    @Getter
+    private final DaemonInfo info;
+    private final ThreadPoolExecutor connectionExecutor = new ThreadPoolExecutor(MAX_CONNECTIONS, MAX_CONNECTIONS,
+            60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(MAX_WAITING_CONNECTIONS), runnable -> {
+                Thread thread = new Thread(runnable, "greengrass-cli-daemon-connection");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private final AtomicLong commandsServed = new AtomicLong();
+    private volatile boolean running = true;
+
+    /**
+     * Bind the daemon to a free port on the loopback interface.
+     *
+     * @param commandsComponent component creating the commands to run, with a persistent IPC adapter
+     * @param ggcRootPath Greengrass root path the commands connect to
+     * @param infoFile where to publish how to reach the daemon
+     * @throws IOException if binding fails
+     */
+    public DaemonServer(CommandsComponent commandsComponent, String ggcRootPath, Path infoFile) throws IOException {
+        this.commandsComponent = commandsComponent;
+        this.infoFile = infoFile;
+        this.connectionExecutor.allowCoreThreadTimeOut(true);
+        this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        byte[] token = new byte[TOKEN_BYTES];
+        new SecureRandom().nextBytes(token);
+        this.info = new DaemonInfo(serverSocket.getLocalPort(), Base64.getEncoder().encodeToString(token),
+                ManagementFactory.getRuntimeMXBean().getName().split("@")[0], ggcRootPath,
+                System.currentTimeMillis());
+    }
+
+    /*
+     * Publish the daemon info and serve clients until the daemon is stopped.
+     */
+    public void serve() throws IOException {
+        PrintStream originalOut = System.out;
+        PrintStream originalErr = System.err;
+        System.setOut(commandPrintStream(COMMAND_OUT, originalOut));
+        System.setErr(commandPrintStream(COMMAND_ERR, originalErr));
+        try {
+            info.write(infoFile);
+            while (running) {
+                Socket socket;
+                try {
+                    socket = serverSocket.accept();
+                } catch (SocketException e) {
+                    // The server socket was closed by stop().
+                    break;
+                }
+                try {
+                    connectionExecutor.execute(() -> handle(socket));
+                } catch (RejectedExecutionException e) {
+                    reject(socket);
+                }
+            }
+        } finally {
+            close();
+            System.setOut(originalOut);
+            System.setErr(originalErr);
+        }
+    }
+
+    /*
+     * Stop serving and remove the daemon info, unless another daemon replaced it.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            serverSocket.close();
+        } catch (IOException ignore) {
+            // Closing anyway.
+        }
+        connectionExecutor.shutdown();
+        try {
+            connectionExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ignore) {
+            Thread.currentThread().interrupt();
+        }
+        DaemonInfo published = DaemonInfo.read(infoFile);
+        if (published != null && info.getToken().equals(published.getToken())) {
+            try {
+                Files.deleteIfExists(infoFile);
+            } catch (IOException ignore) {
+                // A stale info file is detected by clients when they fail to connect.
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (Socket s = socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(s.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()))) {
+            s.setSoTimeout(REQUEST_TIMEOUT_MILLIS);
+            String token = DaemonProtocol.readString(in, DaemonProtocol.MAX_TOKEN_LENGTH);
+            if (!MessageDigest.isEqual(token.getBytes(StandardCharsets.UTF_8),
+                    info.getToken().getBytes(StandardCharsets.UTF_8))) {
+                out.writeByte(DaemonProtocol.RESPONSE_UNAUTHORIZED);
+                out.flush();
+                return;
+            }
+            byte request = in.readByte();
+            switch (request) {
+                case DaemonProtocol.REQUEST_RUN:
+                    String workingDirectory = DaemonProtocol.readString(in);
+                    String[] args = new String[in.readInt()];
+                    for (int i = 0; i < args.length; i++) {
+                        args[i] = DaemonProtocol.readString(in);
+                    }
+                    // Commands may run for long without reading from the client.
+                    s.setSoTimeout(0);
+                    int exitCode = run(workingDirectory, args, in, out);
+                    writeExit(out, exitCode);
+                    break;
+                case DaemonProtocol.REQUEST_STATUS:
+                    writeOutput(out, String.format("Greengrass CLI daemon is running with pid %s on port %d.%n"
+                                    + "Greengrass root path: %s%nUptime: %d s%nCommands served: %d%n",
+                            info.getPid(), info.getPort(), info.getGgcRootPath(),
+                            TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() - info.getStartedAt()),
+                            commandsServed.get()));
+                    writeExit(out, 0);
+                    break;
+                case DaemonProtocol.REQUEST_STOP:
+                    writeOutput(out, String.format("Greengrass CLI daemon with pid %s stopped.%n", info.getPid()));
+                    writeExit(out, 0);
+                    running = false;
+                    serverSocket.close();
+                    break;
+                default:
+                    throw new IOException("Unknown request " + request);
+            }
+        } catch (IOException e) {
+            // The client went away, there is nobody left to tell.
+        }
+    }
+
+    /*
+     * Tell a client that the daemon has too many connections, so that it runs its command locally.
+     */
+    private static void reject(Socket socket) {
+        try (Socket s = socket) {
+            s.getOutputStream().write(DaemonProtocol.RESPONSE_BUSY);
+        } catch (IOException ignore) {
+            // The client went away, there is nobody left to tell.
+        }
+    }
+
+    private int run(String workingDirectory, String[] args, DataInputStream in, DataOutputStream out) {
+        PrintStream stdout = printStream(out, DaemonProtocol.RESPONSE_STDOUT);
+        PrintStream stderr = printStream(out, DaemonProtocol.RESPONSE_STDERR);
+        COMMAND_OUT.set(stdout);
+        COMMAND_ERR.set(stderr);
+        NucleusAdapterIpcClientImpl.setWorkingDirectory(Paths.get(workingDirectory));
+        DisconnectWatch watch = new DisconnectWatch(in, Thread.currentThread());
+        watch.start();
+        try {
+            return CLI.newCommandLine(new CLI(), commandsComponent, args)
+                    .setOut(new PrintWriter(stdout, true))
+                    .setErr(new PrintWriter(stderr, true))
+                    .execute(args);
+        } catch (RuntimeException e) {
+            e.printStackTrace(stderr);
+            return 1;
+        } finally {
+            watch.finish();
+            commandsServed.incrementAndGet();
+            NucleusAdapterIpcClientImpl.setWorkingDirectory(null);
+            COMMAND_OUT.remove();
+            COMMAND_ERR.remove();
+            stdout.flush();
+            stderr.flush();
+        }
+    }
+
+    /*
+     * Print stream sending what a thread prints to the stream set for it, or to the original stream for threads
+     * that do not run a command.
+     */
+    private static PrintStream commandPrintStream(ThreadLocal<PrintStream> commandStream, PrintStream original) {
+        try {
+            return new PrintStream(new OutputStream() {
+                @Override
+                public void write(int b) {
+                    target().write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    target().write(b, off, len);
+                }
+
+                @Override
+                public void flush() {
+                    target().flush();
+                }
+
+                private PrintStream target() {
+                    PrintStream stream = commandStream.get();
+                    return stream == null ? original : stream;
+                }
+            }, true, StandardCharsets.UTF_8.name());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /*
+     * Interrupts a command when its client disconnects. Clients send nothing after their request, so the end of
+     * the stream means the client is gone.
+     */
+    private static final class DisconnectWatch extends Thread {
+        private final DataInputStream in;
+        private final Thread command;
+        private boolean finished;
+
+        DisconnectWatch(DataInputStream in, Thread command) {
+            super("greengrass-cli-daemon-disconnect-watch");
+            setDaemon(true);
+            this.in = in;
+            this.command = command;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (in.read() >= 0) {
+                    // Nothing is expected from the client while its command runs.
+                }
+            } catch (IOException e) {
+                // Closed by the client, or by the daemon once the command finished.
+            }
+            synchronized (this) {
+                if (!finished) {
+                    command.interrupt();
+                }
+            }
+        }
+
+        /*
+         * Stop interrupting the command, and clear an interrupt that arrived as it finished.
+         */
+        synchronized void finish() {
+            finished = true;
+            Thread.interrupted();
+        }
+    }
+
+    private static PrintStream printStream(DataOutputStream out, byte type) {
+        try {
+            return new PrintStream(new BufferedOutputStream(new DaemonProtocol.FrameOutputStream(out, type)), true,
+                    StandardCharsets.UTF_8.name());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void writeOutput(DataOutputStream out, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        new DaemonProtocol.FrameOutputStream(out, DaemonProtocol.RESPONSE_STDOUT).write(bytes, 0, bytes.length);
+    }
+
+    private static void writeExit(DataOutputStream out, int exitCode) throws IOException {
+        synchronized (out) {
+            out.writeByte(DaemonProtocol.RESPONSE_EXIT);
+            out.writeInt(exitCode);
+            out.flush();
+        }
+    }
+}
@@ -10,19 +10,42 @@ import com.aws.greengrass.cli.adapter.impl.NucleusAdapterIpcClientImpl;
 import dagger.Module;
 import dagger.Provides;
 
+import java.util.function.Supplier;
 import javax.inject.Singleton;
 
 @Module
 public class AdapterModule {
-    private final String ggcRootPath;
+    private final Supplier<String> ggcRootPath;
+    private final boolean persistent;
 
     public AdapterModule(final String ggcRootPath) {
+        this(ggcRootPath, false);
+    }
+
+    /**
+     * Constructor for AdapterModule.
+     *
+     * @param ggcRootPath the path to the root directory of Greengrass
+     * @param persistent true to keep the IPC connection open between operations
+     */
+    public AdapterModule(final String ggcRootPath, final boolean persistent) {
+        this(() -> ggcRootPath, persistent);
+    }
+
+    /**
+     * Constructor for AdapterModule with a root path that is only known once the arguments are parsed.
+     *
+     * @param ggcRootPath supplies the path to the root directory of Greengrass when the adapter connects
+     * @param persistent true to keep the IPC connection open between operations
+     */
+    public AdapterModule(final Supplier<String> ggcRootPath, final boolean persistent) {
         this.ggcRootPath = ggcRootPath;
+        this.persistent = persistent;
     }
 
     @Provides
     @Singleton
     protected NucleusAdapterIpc providesAdapter() {
-        return new NucleusAdapterIpcClientImpl(ggcRootPath);
+        return new NucleusAdapterIpcClientImpl(ggcRootPath, persistent);
     }
 }
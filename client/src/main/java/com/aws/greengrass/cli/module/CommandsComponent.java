@@ -5,7 +5,9 @@
 
 package com.aws.greengrass.cli.module;
 
+import com.aws.greengrass.cli.commands.BatchCommand;
 import com.aws.greengrass.cli.commands.ComponentCommand;
+import com.aws.greengrass.cli.commands.DaemonCommand;
 import com.aws.greengrass.cli.commands.DeploymentCommand;
 import com.aws.greengrass.cli.commands.Logs;
 import com.aws.greengrass.cli.commands.PasswordCommand;
@@ -33,4 +35,8 @@ public interface CommandsComponent {
 
     PubSubCommand pubsub();
 
+    DaemonCommand daemon();
+
+    BatchCommand batch();
+
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.util;
+
+import com.aws.greengrass.cli.adapter.NucleusAdapterIpc;
+import lombok.AccessLevel;
+import lombok.Getter;
+import software.amazon.awssdk.aws.greengrass.model.ComponentDetails;
+import software.amazon.awssdk.aws.greengrass.model.LifecycleState;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Waits until components reach one of the target states, polling the state of all components with a single
+ * ListComponents request per round.
+ *
+ * Polling backs off while nothing changes and returns to the shortest interval whenever a component changes
+ * state, since components being restarted usually change state in bursts.
+ *
+ * Right after a restart is acknowledged a component may still report its old state. A component in a target
+ * state is therefore only done once it was seen in another state, or once it stayed in the target state for
+ * the settle time.
+ */
+public class ComponentStateWaiter {
+    static final long MIN_POLL_MILLIS = 100;
+    static final long MAX_POLL_MILLIS = 2000;
+    static final double BACKOFF_FACTOR = 1.5;
+    static final long SETTLE_MILLIS = 1000;
+
+    private final NucleusAdapterIpc nucleusAdapterIpc;
+    private final Set<LifecycleState> targetStates;
+
+    public ComponentStateWaiter(NucleusAdapterIpc nucleusAdapterIpc, Set<LifecycleState> targetStates) {
+        this.nucleusAdapterIpc = nucleusAdapterIpc;
+        this.targetStates = targetStates;
+    }
+
+    /**
+     * Wait until all components reach a target state, become BROKEN or the timeout expires.
+     *
+     * @param componentNames components to wait for
+     * @param startNanos System.nanoTime() when the components were asked to change state, latencies are measured
+     *                   from it
+     * @param timeoutMillis how long to wait in total
+     * @return the outcome of each component, in the given order
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public Map<String, Progress> await(List<String> componentNames, long startNanos, long timeoutMillis)
+            throws InterruptedException {
+        Map<String, Progress> progress = new LinkedHashMap<>();
+        for (String componentName : componentNames) {
+            progress.put(componentName, new Progress());
+        }
+        long deadline = startNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        long pollMillis = MIN_POLL_MILLIS;
+        int pending = componentNames.size();
+        while (pending > 0) {
+            long now = System.nanoTime();
+            boolean changed = false;
+            for (ComponentDetails component : nucleusAdapterIpc.listComponents()) {
+                Progress p = progress.get(component.getComponentName());
+                if (p != null && !p.isDone()) {
+                    changed |= p.update(component.getState(), now, startNanos);
+                    if (p.isDone()) {
+                        pending--;
+                    }
+                }
+            }
+            long remainingNanos = deadline - System.nanoTime();
+            if (pending == 0 || remainingNanos <= 0) {
+                break;
+            }
+            pollMillis = changed ? MIN_POLL_MILLIS : Math.min(MAX_POLL_MILLIS, (long) (pollMillis * BACKOFF_FACTOR));
+            Thread.sleep(Math.min(pollMillis, TimeUnit.NANOSECONDS.toMillis(remainingNanos) + 1));
+        }
+        return progress;
+    }
+
+    /*
+     * What is known about one component. Latency is the time from the request to the final state.
+     */
+    @Getter
+    public class Progress {
+        private LifecycleState state;
+        private boolean done;
+        private boolean reached;
+        private long latencyMillis;
+        @Getter(AccessLevel.NONE)
+        private boolean left;
+        // When the component was first seen in a target state without having been seen in another state.
+        @Getter(AccessLevel.NONE)
+        private long targetSinceNanos = -1;
+
+        boolean update(LifecycleState newState, long nowNanos, long startNanos) {
+            boolean changed = newState != state;
+            state = newState;
+            if (LifecycleState.BROKEN.equals(newState) && !targetStates.contains(newState)) {
+                finish(false, nowNanos, startNanos);
+            } else if (!targetStates.contains(newState)) {
+                left = true;
+                targetSinceNanos = -1;
+            } else if (left) {
+                finish(true, nowNanos, startNanos);
+            } else if (targetSinceNanos < 0) {
+                targetSinceNanos = nowNanos;
+            } else if (nowNanos - targetSinceNanos >= TimeUnit.MILLISECONDS.toNanos(SETTLE_MILLIS)) {
+                finish(true, targetSinceNanos, startNanos);
+            }
+            return changed;
+        }
+
+        private void finish(boolean reachedTarget, long nowNanos, long startNanos) {
+            done = true;
+            reached = reachedTarget;
+            latencyMillis = TimeUnit.NANOSECONDS.toMillis(nowNanos - startNanos);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.util;
+
+import com.aws.greengrass.cli.adapter.NucleusAdapterIpc;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import software.amazon.awssdk.aws.greengrass.model.ComponentDetails;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Polls the components on one connection and prints only what changed since the previous poll: components added
+ * or removed, and state or version changes. Configuration is only compared and printed when asked for, since it
+ * is by far the largest part of each response.
+ *
+ * Like ComponentStateWaiter, polling backs off while nothing changes and returns to the shortest interval when
+ * something does. The interval is also kept at LOAD_FACTOR times the duration of the last request, so that a
+ * nucleus that is slow to answer, because it is busy or has many components, is polled less often and the watch
+ * never keeps its IPC threads busy.
+ */
+public class ComponentWatcher {
+    static final double BACKOFF_FACTOR = 1.5;
+    static final int LOAD_FACTOR = 10;
+
+    private final NucleusAdapterIpc nucleusAdapterIpc;
+    private final boolean showConfiguration;
+    private final PrintStream out;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private Map<String, Snapshot> previous;
+
+    public ComponentWatcher(NucleusAdapterIpc nucleusAdapterIpc, boolean showConfiguration, PrintStream out) {
+        this.nucleusAdapterIpc = nucleusAdapterIpc;
+        this.showConfiguration = showConfiguration;
+        this.out = out;
+    }
+
+    /**
+     * Print all components, then their changes until the duration is over or printing fails.
+     *
+     * @param minPollMillis shortest interval between requests, positive
+     * @param maxPollMillis longest interval between requests while nothing changes
+     * @param durationMillis how long to watch, 0 or less to watch until interrupted
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void watch(long minPollMillis, long maxPollMillis, long durationMillis) throws InterruptedException {
+        if (minPollMillis <= 0) {
+            throw new IllegalArgumentException("Poll interval must be positive, was " + minPollMillis + " ms");
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        long pollMillis = minPollMillis;
+        while (true) {
+            long startNanos = System.nanoTime();
+            List<ComponentDetails> components = nucleusAdapterIpc.listComponents();
+            long requestMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            boolean changed = update(components, Instant.now().truncatedTo(ChronoUnit.SECONDS).toString());
+            if (out.checkError()) {
+                // Nobody reads the changes anymore, for example the reader of a pipe went away.
+                return;
+            }
+
+            pollMillis = changed ? minPollMillis : Math.min(maxPollMillis, (long) (pollMillis * BACKOFF_FACTOR));
+            pollMillis = Math.max(pollMillis, requestMillis * LOAD_FACTOR);
+            if (durationMillis > 0) {
+                long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMillis <= 0) {
+                    return;
+                }
+                pollMillis = Math.min(pollMillis, remainingMillis);
+            }
+            Thread.sleep(pollMillis);
+        }
+    }
+
+    /**
+     * Compare a poll to the previous one and print the differences. The first poll prints every component.
+     *
+     * @param components components returned by the nucleus
+     * @param time time to print with each change
+     * @return true if anything changed
+     */
+    boolean update(List<ComponentDetails> components, String time) {
+        Map<String, Snapshot> current = new TreeMap<>();
+        for (ComponentDetails component : components) {
+            current.put(component.getComponentName(), new Snapshot(component));
+        }
+        if (previous == null) {
+            previous = current;
+            for (Map.Entry<String, Snapshot> entry : current.entrySet()) {
+                out.printf("%s  %s  %s%n", time, entry.getKey(), entry.getValue().describe());
+            }
+            return true;
+        }
+
+        boolean changed = false;
+        for (Map.Entry<String, Snapshot> entry : current.entrySet()) {
+            Snapshot before = previous.get(entry.getKey());
+            Snapshot after = entry.getValue();
+            if (before == null) {
+                out.printf("%s  %s  added: %s%n", time, entry.getKey(), after.describe());
+                changed = true;
+                continue;
+            }
+            if (!Objects.equals(before.version, after.version)) {
+                out.printf("%s  %s  version %s -> %s%n", time, entry.getKey(), before.version, after.version);
+                changed = true;
+            }
+            if (!Objects.equals(before.state, after.state)) {
+                out.printf("%s  %s  state %s -> %s%n", time, entry.getKey(), before.state, after.state);
+                changed = true;
+            }
+            if (!Objects.equals(before.configuration, after.configuration)) {
+                out.printf("%s  %s  configuration: %s%n", time, entry.getKey(), after.configuration);
+                changed = true;
+            }
+        }
+        for (String name : previous.keySet()) {
+            if (!current.containsKey(name)) {
+                out.printf("%s  %s  removed%n", time, name);
+                changed = true;
+            }
+        }
+        previous = current;
+        return changed;
+    }
+
+    private class Snapshot {
+        private final String version;
+        private final String state;
+        // Serialized configuration, null unless configuration is shown.
+        private final String configuration;
+
+        Snapshot(ComponentDetails component) {
+            this.version = component.getVersion();
+            this.state = component.getState() == null ? null : component.getState().toString();
+            this.configuration = showConfiguration ? serialize(component.getConfiguration()) : null;
+        }
+
+        String describe() {
+            return configuration == null ? String.format("%s %s", version, state)
+                    : String.format("%s %s configuration: %s", version, state, configuration);
+        }
+    }
+
+    private String serialize(Map<String, Object> configuration) {
+        try {
+            return mapper.writeValueAsString(configuration == null ? new HashMap<>() : configuration);
+        } catch (JsonProcessingException e) {
+            return "<" + e.getMessage() + ">";
+        }
+    }
+}
@@ -9,17 +9,93 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 public final class PlatformUtils {
+    private static final Path PROC_SELF_STATUS = Paths.get("/proc/self/status");
+    private static final String UID_PREFIX = "Uid:";
+    private static final String GID_PREFIX = "Gid:";
+
+    // The ids cannot change while the CLI runs, so they are looked up once.
+    private static volatile Integer effectiveUID;
+    private static volatile Integer effectiveGID;
+
     private PlatformUtils() {
     }
 
+    /*
+     * Effective user id of this process. Read from /proc/self/status where available, which saves running
+     * "id -u" in a new process.
+     */
     public static int getEffectiveUID() throws IOException {
-        return Integer.parseInt(runCommand("id -u"));
+        Integer uid = effectiveUID;
+        if (uid == null) {
+            uid = lookupEffectiveId(UID_PREFIX, "id -u");
+            effectiveUID = uid;
+        }
+        return uid;
     }
 
+    /*
+     * Effective group id of this process. Read from /proc/self/status where available, which saves running
+     * "id -g" in a new process.
+     */
     public static int getEffectiveGID() throws IOException {
-        return Integer.parseInt(runCommand("id -g"));
+        Integer gid = effectiveGID;
+        if (gid == null) {
+            gid = lookupEffectiveId(GID_PREFIX, "id -g");
+            effectiveGID = gid;
+        }
+        return gid;
+    }
+
+    private static int lookupEffectiveId(String prefix, String command) throws IOException {
+        Integer id = readEffectiveIdFromProc(PROC_SELF_STATUS, prefix);
+        return id == null ? readEffectiveIdFromCommand(command) : id;
+    }
+
+    /**
+     * Read an effective id from a proc status file, whose Uid and Gid lines list the real, effective, saved and
+     * file system ids.
+     *
+     * @param statusFile proc status file
+     * @param prefix "Uid:" or "Gid:"
+     * @return the effective id, or null if the file does not exist or has no such line
+     */
+    static Integer readEffectiveIdFromProc(Path statusFile, String prefix) {
+        if (!Files.isReadable(statusFile)) {
+            return null;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(statusFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(prefix)) {
+                    String[] ids = line.substring(prefix.length()).trim().split("\\s+");
+                    return ids.length > 1 ? Integer.valueOf(ids[1]) : null;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Fall back to running id.
+        }
+        return null;
+    }
+
+    /*
+     * Uncached lookups, for tests and benchmarks comparing the two ways of getting the effective user id.
+     */
+    static Integer readEffectiveUIDFromProc() {
+        return readEffectiveIdFromProc(PROC_SELF_STATUS, UID_PREFIX);
+    }
+
+    static int readEffectiveUIDFromCommand() throws IOException {
+        return readEffectiveIdFromCommand("id -u");
+    }
+
+    private static int readEffectiveIdFromCommand(String command) throws IOException {
+        return Integer.parseInt(runCommand(command));
     }
 
     private static String runCommand(String command) throws IOException {
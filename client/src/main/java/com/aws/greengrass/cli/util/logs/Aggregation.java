@@ -13,10 +13,14 @@ import java.util.Set;
 public interface Aggregation {
     void configure(boolean follow, Filter filter, int before, int after, int max);
 
+    void configure(boolean follow, Filter filter, int before, int after, int max, LogCursor cursor);
+
     LogQueue readLog(List<Path> logFileList, List<Path> logDirList);
 
     Set<File> listLog(List<Path> logDirList);
 
+    void setManifest(LogManifest manifest);
+
     Boolean isAlive();
 
     void close();
@@ -7,12 +7,9 @@ package com.aws.greengrass.cli.util.logs;
 
 import com.aws.greengrass.cli.util.logs.impl.AggregationImplConfig;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -25,10 +22,25 @@ public class FileReader implements Runnable {
     private final List<LogFile> filesToRead;
     private final AggregationImplConfig config;
     private final List<LogEntry> beforeContextList;
+    private final LogStats.GroupStats stats;
     private int afterCount = 0;
+    // Time spent waiting on the queue, which is not counted as reading.
+    private long waitedNanos = 0;
 
     public FileReader(List<LogFile> fileToRead, AggregationImplConfig config) {
+        this(null, fileToRead, config);
+    }
+
+    /**
+     * Constructor for FileReader.
+     *
+     * @param logGroup name of the log group the files belong to, used for stats
+     * @param fileToRead files of the log group, ordered from oldest to most recent
+     * @param config aggregation config
+     */
+    public FileReader(String logGroup, List<LogFile> fileToRead, AggregationImplConfig config) {
         this.filesToRead = fileToRead;
+        this.stats = LogStats.group(logGroup == null ? "unknown" : logGroup);
         this.config = config;
         // GG_NEEDS_REVIEW: TODO: investigate which data structure to use for logEntryList
         this.beforeContextList = new ArrayList<>();
@@ -46,19 +58,30 @@ public class FileReader implements Runnable {
 
             File file = logFile.getFile();
             boolean isFollowing = config.isFollow() && logFile.isUpdate();
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file),
-                    LogsUtil.DEFAULT_CHARSETS))) {
+            LogCursor.Position position = config.getCursor() == null ? null : config.getCursor().position(file);
+            long startOffset = position == null ? 0 : position.getStartOffset();
+            long readStart = LogStats.start();
+            waitedNanos = 0;
+            try (OffsetLineReader reader = new OffsetLineReader(file, startOffset, LogsUtil.DEFAULT_CHARSETS)) {
                 String line;
                 // if the current time is after time window given, we break the loop and stop the thread.
                 while (!Thread.currentThread().isInterrupted()
                         && ((line = reader.readLine()) != null || (isFollowing && config.getFilterInterface().reachedEndTime()))) {
+                    if (line != null) {
+                        stats.recordLine(reader.getOffset() - reader.getLineStart());
+                    }
                     if (line != null && line.trim().isEmpty()) {
+                        readUpTo(position, reader);
                         continue;
                     }
                     if (line == null) {
                         // GG_NEEDS_REVIEW: TODO: remove busy polling by adding a WatcherService to track and notify file changes.
                         try {
+                            // Account for what was read so far, so that stats of a followed file stay current.
+                            stats.recordRead(readStart, waitedNanos);
                             sleep(100);
+                            readStart = LogStats.start();
+                            waitedNanos = 0;
                             continue;
                         } catch (InterruptedException e) {
                             return;
@@ -66,6 +89,13 @@ public class FileReader implements Runnable {
                     }
                     try {
                         LogEntry entry = new LogEntry(line);
+                        if (position != null && position.skips(entry.getTimestamp())) {
+                            readUpTo(position, reader);
+                            continue;
+                        }
+                        // The entry is held in the cursor until it is printed or dropped from the before context.
+                        entry.holdCursor(position, reader.getLineStart());
+                        readUpTo(position, reader);
 
                         // We only put filtered result into blocking queue to save memory.
                         if (config.getFilterInterface().filter(entry)) {
@@ -73,29 +103,34 @@ public class FileReader implements Runnable {
                             afterCount = config.getAfter();
                             // Adding entries before the matched line into the queue
                             for (LogEntry logEntry : beforeContextList) {
-                                config.getQueue().put(logEntry);
+                                put(logEntry);
                             }
                             beforeContextList.clear();
-                            config.getQueue().put(entry);
+                            put(entry);
                             continue;
                         }
 
                         // Adding entries after the matched line into the queue
                         if (afterCount > 0) {
                             afterCount--;
-                            config.getQueue().put(entry);
+                            put(entry);
                             continue;
                         }
                         // Add line that are not matched into before context
                         beforeContextList.add(entry);
                         // We remove the entry outside the context to save memory
                         if (beforeContextList.size() > config.getBefore()) {
-                            beforeContextList.remove(0);
+                            beforeContextList.remove(0).releaseCursor();
                         }
                     } catch (InterruptedException e) {
                         return;
                     }
                 }
+                // Context lines of a finished file are not worth re-reading after a restart.
+                for (LogEntry logEntry : beforeContextList) {
+                    logEntry.releaseCursor();
+                }
+                stats.recordRead(readStart, waitedNanos);
             } catch (FileNotFoundException e) {
                 LogsUtil.getErrorStream().println("Cannot find file: " + file);
             } catch (IOException e) {
@@ -104,4 +139,16 @@ public class FileReader implements Runnable {
             }
         }
     }
+
+    private void put(LogEntry entry) throws InterruptedException {
+        long start = LogStats.start();
+        config.getQueue().put(entry);
+        waitedNanos += LogStats.since(start);
+    }
+
+    private static void readUpTo(LogCursor.Position position, OffsetLineReader reader) {
+        if (position != null) {
+            position.read(reader.getOffset());
+        }
+    }
 }
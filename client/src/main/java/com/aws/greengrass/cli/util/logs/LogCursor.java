@@ -0,0 +1,247 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.util.logs;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/*
+ * Durable cursor that remembers how far each log file has been consumed, so that a later
+ * "logs get --cursor <name>" resumes where the previous one left off.
+ *
+ * Files are keyed by their file key (inode on Unix), which follows a file when it is rotated and renamed.
+ * The stored offset of a file is the start of the oldest line which was read but not yet printed, so
+ * nothing is lost if the CLI is killed while entries are still in the queue. The stored timestamp is that of the
+ * last entry consumed, so that a file which was truncated, or replaced at its path, is read again without the
+ * entries that were consumed already.
+ */
+public class LogCursor {
+    static final String CURSOR_DIRECTORY = ".greengrass-cli";
+    static final String CURSOR_SUBDIRECTORY = "cursors";
+    private static final String CURSOR_FILE_SUFFIX = ".json";
+    private static final Pattern CURSOR_NAME_PATTERN = Pattern.compile("[a-zA-Z0-9._-]+");
+    private static final long FLUSH_INTERVAL_MILLIS = 1000;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Getter
+    private final Path cursorFile;
+    private final Map<String, Checkpoint> storedCheckpoints;
+    private final Map<String, Position> positions = new ConcurrentHashMap<>();
+    private long lastFlush = System.currentTimeMillis();
+
+    LogCursor(Path cursorFile, Map<String, Checkpoint> storedCheckpoints) {
+        this.cursorFile = cursorFile;
+        this.storedCheckpoints = storedCheckpoints;
+    }
+
+    /**
+     * Load a named cursor from the cursor directory in the user's home directory.
+     *
+     * @param name name of the cursor
+     * @return the cursor, with no checkpoints if it did not exist yet
+     */
+    public static LogCursor load(String name) {
+        if (name == null || !CURSOR_NAME_PATTERN.matcher(name).matches()) {
+            throw new RuntimeException("Cursor name provided invalid: " + name);
+        }
+        return load(Paths.get(System.getProperty("user.home")).resolve(CURSOR_DIRECTORY)
+                .resolve(CURSOR_SUBDIRECTORY).resolve(name + CURSOR_FILE_SUFFIX));
+    }
+
+    /**
+     * Load a cursor from a file.
+     *
+     * @param cursorFile path to the cursor file
+     * @return the cursor, with no checkpoints if the file did not exist or cannot be read
+     */
+    public static LogCursor load(Path cursorFile) {
+        Map<String, Checkpoint> checkpoints = new HashMap<>();
+        if (Files.exists(cursorFile)) {
+            try {
+                CursorFile stored = OBJECT_MAPPER.readValue(cursorFile.toFile(), CursorFile.class);
+                if (stored.getFiles() != null) {
+                    checkpoints.putAll(stored.getFiles());
+                }
+            } catch (IOException e) {
+                LogsUtil.getErrorStream().println("Unable to read cursor " + cursorFile + ", starting over.");
+                LogsUtil.getErrorStream().println(e.getMessage());
+            }
+        }
+        return new LogCursor(cursorFile, checkpoints);
+    }
+
+    /**
+     * Get the position of a file, starting from its stored checkpoint if the checkpoint is still valid.
+     *
+     * @param file log file
+     * @return position of the file
+     */
+    public Position position(File file) {
+        String key = fileKey(file);
+        return positions.computeIfAbsent(key, k -> {
+            String path = file.getAbsolutePath();
+            Checkpoint checkpoint = storedCheckpoints.get(k);
+            if (checkpoint != null && checkpoint.getOffset() <= file.length()) {
+                return new Position(path, checkpoint.getOffset(), checkpoint.getTimestamp(), 0);
+            }
+            // A file shorter than the checkpoint was truncated, and a new file at the path of a checkpoint replaced
+            // the file it was taken from. Either way the file is read again from the beginning, skipping entries
+            // up to the last one consumed from the old file, which may have been copied into it.
+            if (checkpoint == null) {
+                checkpoint = storedCheckpoints.values().stream().filter(c -> path.equals(c.getPath())).findFirst()
+                        .orElse(null);
+            }
+            long timestamp = checkpoint == null ? 0 : checkpoint.getTimestamp();
+            return new Position(path, 0, timestamp, timestamp);
+        });
+    }
+
+    /*
+     * Write checkpoints if the last flush is older than FLUSH_INTERVAL_MILLIS.
+     */
+    public void flushIfDue() {
+        if (System.currentTimeMillis() - lastFlush >= FLUSH_INTERVAL_MILLIS) {
+            flush();
+        }
+    }
+
+    /*
+     * Write checkpoints of all files read in this session. Files that were not read are dropped from the
+     * cursor, so rotated files that were deleted do not accumulate.
+     */
+    public synchronized void flush() {
+        lastFlush = System.currentTimeMillis();
+        Map<String, Checkpoint> checkpoints = new TreeMap<>();
+        for (Map.Entry<String, Position> entry : positions.entrySet()) {
+            checkpoints.put(entry.getKey(), entry.getValue().checkpoint());
+        }
+        try {
+            Files.createDirectories(cursorFile.getParent());
+            Path tmp = cursorFile.resolveSibling(cursorFile.getFileName() + ".tmp");
+            OBJECT_MAPPER.writeValue(tmp.toFile(), new CursorFile(checkpoints));
+            try {
+                Files.move(tmp, cursorFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, cursorFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LogsUtil.getErrorStream().println("Unable to write cursor " + cursorFile);
+            LogsUtil.getErrorStream().println(e.getMessage());
+        }
+    }
+
+    private static String fileKey(File file) {
+        try {
+            Object key = Files.readAttributes(file.toPath(), BasicFileAttributes.class).fileKey();
+            if (key != null) {
+                return key.toString();
+            }
+        } catch (IOException ignore) {
+            // Fall back to the path if the file system does not provide a file key.
+        }
+        return file.getAbsolutePath();
+    }
+
+    /*
+     * Consumption state of a single file. Lines which are queued, or kept as context, are held until they
+     * are printed or dropped.
+     */
+    public static class Position {
+        private final String path;
+        private final long startOffset;
+        private final TreeMap<Long, Integer> held = new TreeMap<>();
+        // Entries at or before this timestamp were already consumed, 0 if none are to be skipped.
+        private final long skipUntil;
+        private long readOffset;
+        private long timestamp;
+
+        Position(String path, long startOffset, long timestamp, long skipUntil) {
+            this.path = path;
+            this.startOffset = startOffset;
+            this.readOffset = startOffset;
+            this.timestamp = timestamp;
+            this.skipUntil = skipUntil;
+        }
+
+        /*
+         * Offset to seek to when the file is opened.
+         */
+        public long getStartOffset() {
+            return startOffset;
+        }
+
+        /*
+         * Whether an entry was consumed before the file was replaced or truncated, so it must not be printed again.
+         */
+        public boolean skips(long entryTimestamp) {
+            return skipUntil > 0 && entryTimestamp <= skipUntil;
+        }
+
+        /*
+         * Record that all bytes up to the offset were read.
+         */
+        public synchronized void read(long offset) {
+            readOffset = Math.max(readOffset, offset);
+        }
+
+        synchronized void hold(long lineOffset) {
+            held.merge(lineOffset, 1, Integer::sum);
+        }
+
+        synchronized void release(long lineOffset, long lineTimestamp) {
+            Integer count = held.get(lineOffset);
+            if (count == null) {
+                return;
+            }
+            if (count == 1) {
+                held.remove(lineOffset);
+            } else {
+                held.put(lineOffset, count - 1);
+            }
+            timestamp = Math.max(timestamp, lineTimestamp);
+        }
+
+        synchronized Checkpoint checkpoint() {
+            long offset = held.isEmpty() ? readOffset : held.firstKey();
+            return new Checkpoint(path, offset, timestamp);
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Checkpoint {
+        private String path;
+        private long offset;
+        private long timestamp;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class CursorFile {
+        private Map<String, Checkpoint> files;
+    }
+}
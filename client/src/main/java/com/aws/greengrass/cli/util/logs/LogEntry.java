@@ -6,21 +6,14 @@
 package com.aws.greengrass.cli.util.logs;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import lombok.AccessLevel;
 import lombok.Getter;
 
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeFormatterBuilder;
-import java.time.temporal.ChronoField;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /*
  *  LogEntry class that contains the line, parsed JSON map, and timestamp.
@@ -34,21 +27,11 @@ public class LogEntry implements Comparable<LogEntry> {
 
     private final List<String> matchedKeywords = new ArrayList<>();
 
-    // Pattern to match for syslog format defined by RFC 3164 https://tools.ietf.org/html/rfc3164#section-4.1
-    // "<$Priority>$Timestamp $Host $Logger ($Class): $Message"
-    private static final Pattern SYSLOG_PATTERN = Pattern.compile("(<([0-9]+)>)?"
-                    // Matching for timestamp of format "Mmm dd hh:mm:ss". This is mandatory.
-                    + "([a-zA-z]{3}\\s[0-9\\s][0-9]\\s[0-9]{2}:[0-9]{2}:[0-9]{2})"
-                    // Matching for "host logger (class): ". These fields are optional.
-                    + "((\\s([\\S]+))?"
-                    + "(\\s([\\S]+))?"
-                    + "(\\s\\(([\\S]+)\\))?"
-                    // The rest after colon is defaulted to be message.
-                    + ":\\s)?(.+)"
-            );
-    private static final DateTimeFormatter SYSLOG_TIME_FORMAT = new DateTimeFormatterBuilder()
-            .parseDefaulting(ChronoField.YEAR, LocalDateTime.now().getYear())
-            .parseCaseInsensitive().appendPattern("MMM dd HH:mm:ss").toFormatter(Locale.ENGLISH);
+    // Position of the file this entry was read from when reading with a cursor, null otherwise.
+    @Getter(AccessLevel.NONE)
+    private LogCursor.Position cursorPosition;
+    @Getter(AccessLevel.NONE)
+    private long cursorOffset;
 
     /**
      * Constructor for LogEntry.
@@ -57,9 +40,14 @@ public class LogEntry implements Comparable<LogEntry> {
      */
     public LogEntry(String line) {
         this.line = line;
+        long start = LogStats.start();
+        boolean parsed = parse(line);
+        LogStats.recordParse(start, !parsed);
+    }
+
+    private boolean parse(String line) {
         if (LogsUtil.isSyslog()) {
-            parseSyslogFromString(line);
-            return;
+            return parseSyslogFromString(line);
         }
 
         try {
@@ -69,30 +57,48 @@ public class LogEntry implements Comparable<LogEntry> {
             this.map = new HashMap<>();
             this.map.put("message", line);
             this.timestamp = Instant.now().toEpochMilli();
-            return;
+            return false;
         }
         if (map.get("timestamp") instanceof Long) {
             this.timestamp = (long) map.get("timestamp");
-            return;
+            return true;
         }
         this.timestamp = Long.parseLong(map.get("timestamp").toString());
+        return true;
     }
 
-    private void parseSyslogFromString(String line) {
-        Matcher matcher = SYSLOG_PATTERN.matcher(line);
-        if (!matcher.find()) {
+    private boolean parseSyslogFromString(String line) {
+        Map<String, Object> syslog = SyslogParser.parse(line);
+        if (syslog == null) {
             LogsUtil.getErrorStream().println("Unable to parse syslog: " + line);
+            return false;
+        }
+        map = syslog;
+        timestamp = (long) map.get(SyslogParser.TIMESTAMP_KEY);
+        return true;
+    }
+
+    /*
+     * Hold the line of this entry in the cursor until the entry is printed or dropped.
+     */
+    void holdCursor(LogCursor.Position position, long lineOffset) {
+        if (position == null) {
             return;
         }
-        map = new HashMap<>();
-        map.put("priority", matcher.group(2));
-        map.put("host", matcher.group(6));
-        map.put("logger", matcher.group(8));
-        map.put("class", matcher.group(10));
-        timestamp = LocalDateTime.parse(matcher.group(3).replace("  ", " 0"), SYSLOG_TIME_FORMAT)
-                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
-        map.put("timestamp", timestamp);
+        this.cursorPosition = position;
+        this.cursorOffset = lineOffset;
+        position.hold(lineOffset);
+    }
 
+    /*
+     * Release the line of this entry from the cursor. Releasing more than once has no effect.
+     */
+    public void releaseCursor() {
+        if (cursorPosition == null) {
+            return;
+        }
+        cursorPosition.release(cursorOffset, timestamp);
+        cursorPosition = null;
     }
 
     private Map<String, Object> parseJSONFromString(String line) throws JsonProcessingException {
@@ -0,0 +1,200 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.util.logs;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Cached listing of log directories with the parsed names of their log files, so that repeated
+ * "logs list-log-files" and "logs get" calls skip rescanning directories with many rotated files.
+ *
+ * A listing is valid while the modification time of its directory is unchanged, as creating, deleting or
+ * renaming a file updates it. Listings of directories modified shortly before they were scanned are not
+ * trusted, because a change in the same clock tick would go unnoticed.
+ */
+public class LogManifest {
+    private static final String MANIFEST_FILE = "log-manifest.json";
+    private static final long RACY_INTERVAL_MILLIS = 2000;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Getter
+    private final Path manifestFile;
+    private final Map<String, Directory> directories = new ConcurrentHashMap<>();
+    // Parsed names of all files of valid listings, keyed by absolute path.
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile boolean dirty = false;
+
+    LogManifest(Path manifestFile) {
+        this.manifestFile = manifestFile;
+    }
+
+    /*
+     * Load the manifest from the CLI directory in the user's home directory.
+     */
+    public static LogManifest load() {
+        return load(Paths.get(System.getProperty("user.home")).resolve(LogCursor.CURSOR_DIRECTORY)
+                .resolve(MANIFEST_FILE));
+    }
+
+    /**
+     * Load a manifest from a file.
+     *
+     * @param manifestFile path to the manifest file
+     * @return the manifest, empty if the file did not exist or cannot be read
+     */
+    public static LogManifest load(Path manifestFile) {
+        LogManifest manifest = new LogManifest(manifestFile);
+        if (Files.exists(manifestFile)) {
+            try {
+                ManifestFile stored = OBJECT_MAPPER.readValue(manifestFile.toFile(), ManifestFile.class);
+                if (stored.getDirectories() != null) {
+                    manifest.directories.putAll(stored.getDirectories());
+                }
+            } catch (IOException e) {
+                LogsUtil.getErrorStream().println("Unable to read log manifest " + manifestFile + ", rescanning.");
+                LogsUtil.getErrorStream().println(e.getMessage());
+            }
+        }
+        return manifest;
+    }
+
+    /*
+     * Modification time of a directory, to be taken before it is scanned. Returns -1 if it cannot be read.
+     */
+    public static long lastModified(Path dir) {
+        try {
+            return Files.getLastModifiedTime(dir).toMillis();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Get the cached log files of a directory.
+     *
+     * @param dir log directory
+     * @return the log files, or null if the directory is not cached or changed since it was scanned
+     */
+    public List<File> files(Path dir) {
+        Directory directory = directories.get(key(dir));
+        if (directory == null || directory.getFiles() == null) {
+            return null;
+        }
+        long modified = lastModified(dir);
+        if (modified < 0 || modified != directory.getModified()
+                || modified >= directory.getScanned() - RACY_INTERVAL_MILLIS) {
+            return null;
+        }
+        List<File> files = new ArrayList<>(directory.getFiles().size());
+        for (Entry entry : directory.getFiles()) {
+            File file = dir.resolve(entry.getName()).toFile();
+            entries.put(file.getAbsolutePath(), entry);
+            files.add(file);
+        }
+        return files;
+    }
+
+    /**
+     * Replace the listing of a directory.
+     *
+     * @param dir log directory
+     * @param modified modification time of the directory taken before it was scanned
+     * @param files parsed names of its log files
+     */
+    public void update(Path dir, long modified, List<Entry> files) {
+        if (modified < 0) {
+            return;
+        }
+        directories.put(key(dir), new Directory(modified, System.currentTimeMillis(), files));
+        for (Entry entry : files) {
+            entries.put(dir.resolve(entry.getName()).toFile().getAbsolutePath(), entry);
+        }
+        dirty = true;
+    }
+
+    /*
+     * Parsed name of a file of a valid listing, or null.
+     */
+    public Entry entry(File file) {
+        return entries.get(file.getAbsolutePath());
+    }
+
+    /*
+     * Write the manifest if any listing was replaced.
+     */
+    public synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        try {
+            Files.createDirectories(manifestFile.getParent());
+            Path tmp = manifestFile.resolveSibling(manifestFile.getFileName() + ".tmp");
+            OBJECT_MAPPER.writeValue(tmp.toFile(), new ManifestFile(new TreeMap<>(directories)));
+            try {
+                Files.move(tmp, manifestFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, manifestFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LogsUtil.getErrorStream().println("Unable to write log manifest " + manifestFile);
+            LogsUtil.getErrorStream().println(e.getMessage());
+        }
+    }
+
+    private static String key(Path dir) {
+        return dir.toAbsolutePath().normalize().toString();
+    }
+
+    /*
+     * Parsed name of a log file. The group is null if the name is not a Greengrass log file name, and the
+     * timestamp and index are empty for the current file of a group.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private String name;
+        private String group;
+        private String timestamp;
+        private String index;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class Directory {
+        private long modified;
+        private long scanned;
+        private List<Entry> files;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class ManifestFile {
+        private Map<String, Directory> directories;
+    }
+}
@@ -43,11 +43,14 @@ public class LogQueue {
         }
         // if the current queue is full, wait until it's emptied.
         if (!sem.tryAcquire()) {
+            long start = LogStats.start();
             sem.acquire(capacity);
             // capacity - 1 to subtract the current log entry putting to queue
             sem = new Semaphore(capacity - 1, true);
+            LogStats.recordBlocked(start);
         }
         queue.put(e);
+        LogStats.recordQueued(queue.size());
     }
 
     public boolean isEmpty() {
@@ -0,0 +1,198 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.util.logs;
+
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Counters and timers of the logs pipeline, printed by "logs get --stats".
+ *
+ * Like LogsUtil this is process wide state. Nothing is recorded unless stats are enabled, so the pipeline
+ * does not pay for System.nanoTime() calls by default.
+ */
+public final class LogStats {
+    @Getter
+    private static volatile boolean enabled = false;
+    private static volatile long startNanos = System.nanoTime();
+
+    private static final Map<String, GroupStats> GROUPS = new ConcurrentHashMap<>();
+
+    // LogEntry parsing
+    private static final LongAdder PARSED = new LongAdder();
+    private static final LongAdder PARSE_FAILURES = new LongAdder();
+    private static final LongAdder PARSE_NANOS = new LongAdder();
+    // FilterImpl.filter
+    private static final LongAdder FILTERED = new LongAdder();
+    private static final LongAdder FILTER_MATCHES = new LongAdder();
+    private static final LongAdder FILTER_NANOS = new LongAdder();
+    // LogQueue
+    private static final LongAdder QUEUED = new LongAdder();
+    private static final AtomicInteger QUEUE_HIGH_WATER_MARK = new AtomicInteger();
+    private static final LongAdder QUEUE_BLOCKED = new LongAdder();
+    private static final LongAdder QUEUE_BLOCKED_NANOS = new LongAdder();
+    // VisualizationImpl.visualize
+    private static final LongAdder VISUALIZED = new LongAdder();
+    private static final LongAdder VISUALIZE_FAILURES = new LongAdder();
+    private static final LongAdder VISUALIZE_NANOS = new LongAdder();
+
+    private LogStats() {
+    }
+
+    /*
+     * Enable or disable recording. Enabling resets all counters and restarts the clock.
+     */
+    public static void setEnabled(boolean enable) {
+        if (enable) {
+            reset();
+        }
+        enabled = enable;
+    }
+
+    /*
+     * Reset all counters and restart the clock.
+     */
+    public static void reset() {
+        GROUPS.clear();
+        for (LongAdder adder : new LongAdder[]{PARSED, PARSE_FAILURES, PARSE_NANOS, FILTERED, FILTER_MATCHES,
+                FILTER_NANOS, QUEUED, QUEUE_BLOCKED, QUEUE_BLOCKED_NANOS, VISUALIZED, VISUALIZE_FAILURES,
+                VISUALIZE_NANOS}) {
+            adder.reset();
+        }
+        QUEUE_HIGH_WATER_MARK.set(0);
+        startNanos = System.nanoTime();
+    }
+
+    /*
+     * Current time for timers, or 0 if stats are disabled.
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /*
+     * Nanoseconds since a time returned by start(), or 0 if stats are disabled.
+     */
+    public static long since(long startNanos) {
+        return enabled ? System.nanoTime() - startNanos : 0;
+    }
+
+    public static GroupStats group(String logGroup) {
+        return GROUPS.computeIfAbsent(logGroup, k -> new GroupStats());
+    }
+
+    static void recordParse(long startNanos, boolean failed) {
+        if (!enabled) {
+            return;
+        }
+        PARSE_NANOS.add(System.nanoTime() - startNanos);
+        PARSED.increment();
+        if (failed) {
+            PARSE_FAILURES.increment();
+        }
+    }
+
+    public static void recordFilter(long startNanos, boolean matched) {
+        if (!enabled) {
+            return;
+        }
+        FILTER_NANOS.add(System.nanoTime() - startNanos);
+        FILTERED.increment();
+        if (matched) {
+            FILTER_MATCHES.increment();
+        }
+    }
+
+    static void recordQueued(int size) {
+        if (!enabled) {
+            return;
+        }
+        QUEUED.increment();
+        QUEUE_HIGH_WATER_MARK.accumulateAndGet(size, Math::max);
+    }
+
+    static void recordBlocked(long startNanos) {
+        if (!enabled) {
+            return;
+        }
+        QUEUE_BLOCKED.increment();
+        QUEUE_BLOCKED_NANOS.add(System.nanoTime() - startNanos);
+    }
+
+    public static void recordVisualize(long startNanos, boolean failed) {
+        if (!enabled) {
+            return;
+        }
+        VISUALIZE_NANOS.add(System.nanoTime() - startNanos);
+        VISUALIZED.increment();
+        if (failed) {
+            VISUALIZE_FAILURES.increment();
+        }
+    }
+
+    /**
+     * Format a summary of all counters.
+     *
+     * @return multi-line summary
+     */
+    public static String summary() {
+        long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+        double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Log stats after %.1f s:%n", seconds));
+        for (Map.Entry<String, GroupStats> entry : new TreeMap<>(GROUPS).entrySet()) {
+            GroupStats group = entry.getValue();
+            sb.append(String.format("  group %s: %d lines (%.0f lines/s), %d bytes (%.0f bytes/s), read %s%n",
+                    entry.getKey(), group.lines.sum(), group.lines.sum() / seconds, group.bytes.sum(),
+                    group.bytes.sum() / seconds, millis(group.readNanos.sum())));
+        }
+        sb.append(String.format("  parse: %d entries, %d failures, %s%n",
+                PARSED.sum(), PARSE_FAILURES.sum(), millis(PARSE_NANOS.sum())));
+        sb.append(String.format("  filter: %d entries, %d matched, %s%n",
+                FILTERED.sum(), FILTER_MATCHES.sum(), millis(FILTER_NANOS.sum())));
+        sb.append(String.format("  queue: %d entries, high-water mark %d, blocked %d times for %s%n",
+                QUEUED.sum(), QUEUE_HIGH_WATER_MARK.get(), QUEUE_BLOCKED.sum(), millis(QUEUE_BLOCKED_NANOS.sum())));
+        sb.append(String.format("  output: %d entries, %d failures, %s",
+                VISUALIZED.sum(), VISUALIZE_FAILURES.sum(), millis(VISUALIZE_NANOS.sum())));
+        return sb.toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1f ms", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    /*
+     * Throughput of a log group. Read time includes parsing and filtering, but not time spent waiting on the
+     * queue or for a followed file to grow.
+     */
+    public static final class GroupStats {
+        private final LongAdder lines = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder readNanos = new LongAdder();
+
+        private GroupStats() {
+        }
+
+        void recordLine(long lineBytes) {
+            if (enabled) {
+                lines.increment();
+                bytes.add(lineBytes);
+            }
+        }
+
+        void recordRead(long startNanos, long waitedNanos) {
+            if (enabled) {
+                readNanos.add(System.nanoTime() - startNanos - waitedNanos);
+            }
+        }
+    }
+}
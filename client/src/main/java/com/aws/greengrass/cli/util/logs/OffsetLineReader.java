@@ -0,0 +1,133 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.util.logs;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/*
+ * Line reader that keeps track of the byte offset of every line it returns, so that reading can be resumed
+ * from a stored offset. Line terminators are the same as BufferedReader: "\n", "\r" or "\r\n".
+ */
+public class OffsetLineReader implements Closeable {
+    private static final int BUFFER_SIZE = 8192;
+
+    private final FileInputStream in;
+    private final Charset charset;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int pos = 0;
+    private int limit = 0;
+
+    private byte[] lineBuffer = new byte[256];
+    private int lineLength = 0;
+    // true if the last line ended with "\r", in which case a following "\n" belongs to the same terminator.
+    private boolean skipLf = false;
+
+    // Offset right after the last consumed byte.
+    private long offset;
+    // Offset of the first byte of the last returned line.
+    private long lineStart;
+
+    /**
+     * Open a file for reading, starting at the given byte offset.
+     *
+     * @param file file to read
+     * @param startOffset byte offset to start from
+     * @param charset charset of the file
+     * @throws IOException if the file cannot be opened
+     */
+    public OffsetLineReader(File file, long startOffset, Charset charset) throws IOException {
+        this.in = new FileInputStream(file);
+        this.charset = charset;
+        if (startOffset > 0) {
+            in.getChannel().position(startOffset);
+        }
+        this.offset = startOffset;
+        this.lineStart = startOffset;
+    }
+
+    /**
+     * Read the next line. As BufferedReader, a partial line at the end of the file is returned as a line.
+     *
+     * @return the line without terminator, or null if the end of the file is reached
+     * @throws IOException if reading fails
+     */
+    public String readLine() throws IOException {
+        lineLength = 0;
+        long start = offset;
+        while (true) {
+            if (pos >= limit) {
+                int read = in.read(buffer);
+                if (read <= 0) {
+                    if (lineLength == 0) {
+                        return null;
+                    }
+                    return finishLine(start);
+                }
+                pos = 0;
+                limit = read;
+            }
+            if (skipLf) {
+                skipLf = false;
+                if (buffer[pos] == '\n') {
+                    pos++;
+                    offset++;
+                    start = offset;
+                    continue;
+                }
+            }
+            for (int i = pos; i < limit; i++) {
+                byte b = buffer[i];
+                if (b == '\n' || b == '\r') {
+                    append(pos, i - pos);
+                    offset += i - pos + 1;
+                    pos = i + 1;
+                    skipLf = b == '\r';
+                    return finishLine(start);
+                }
+            }
+            append(pos, limit - pos);
+            offset += limit - pos;
+            pos = limit;
+        }
+    }
+
+    /*
+     * Byte offset right after the last returned line and its terminator.
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /*
+     * Byte offset of the first byte of the last returned line.
+     */
+    public long getLineStart() {
+        return lineStart;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private String finishLine(long start) {
+        lineStart = start;
+        return new String(lineBuffer, 0, lineLength, charset);
+    }
+
+    private void append(int from, int length) {
+        if (lineLength + length > lineBuffer.length) {
+            lineBuffer = Arrays.copyOf(lineBuffer, Math.max(lineBuffer.length * 2, lineLength + length));
+        }
+        System.arraycopy(buffer, from, lineBuffer, lineLength, length);
+        lineLength += length;
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.util.logs;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Parser for syslog lines in the format defined by RFC 3164 https://tools.ietf.org/html/rfc3164#section-4.1
+ * "<$Priority>$Timestamp $Host $Logger ($Class): $Message"
+ *
+ * Lines are first parsed by a hand-written tokenizer which yields exactly the same fields as SYSLOG_PATTERN.
+ * Anything the tokenizer does not recognize falls back to the regular expression, so the pattern stays the
+ * single source of truth for unusual lines.
+ */
+public final class SyslogParser {
+    static final String PRIORITY_KEY = "priority";
+    static final String HOST_KEY = "host";
+    static final String LOGGER_KEY = "logger";
+    static final String CLASS_KEY = "class";
+    static final String TIMESTAMP_KEY = "timestamp";
+
+    // "Mmm dd hh:mm:ss"
+    private static final int TIMESTAMP_LENGTH = 15;
+    private static final String[] MONTHS = {"jan", "feb", "mar", "apr", "may", "jun", "jul", "aug", "sep", "oct",
+            "nov", "dec"};
+    private static final int CURRENT_YEAR = LocalDateTime.now().getYear();
+
+    private static final Pattern SYSLOG_PATTERN = Pattern.compile("(<([0-9]+)>)?"
+                    // Matching for timestamp of format "Mmm dd hh:mm:ss". This is mandatory.
+                    + "([a-zA-z]{3}\\s[0-9\\s][0-9]\\s[0-9]{2}:[0-9]{2}:[0-9]{2})"
+                    // Matching for "host logger (class): ". These fields are optional.
+                    + "((\\s([\\S]+))?"
+                    + "(\\s([\\S]+))?"
+                    + "(\\s\\(([\\S]+)\\))?"
+                    // The rest after colon is defaulted to be message.
+                    + ":\\s)?(.+)"
+            );
+    private static final DateTimeFormatter SYSLOG_TIME_FORMAT = new DateTimeFormatterBuilder()
+            .parseDefaulting(ChronoField.YEAR, CURRENT_YEAR)
+            .parseCaseInsensitive().appendPattern("MMM dd HH:mm:ss").toFormatter(Locale.ENGLISH);
+
+    // Consecutive syslog lines mostly share the same second, so we remember the last converted timestamp.
+    // The holder is immutable, which makes it safe to share between concurrent file readers.
+    private static volatile CachedTime lastTime = new CachedTime("", 0L);
+
+    private SyslogParser() {
+    }
+
+    /**
+     * Parse a syslog line.
+     *
+     * @param line a line of syslog
+     * @return map of priority, host, logger, class and timestamp, or null if the line is not in syslog format
+     */
+    public static Map<String, Object> parse(String line) {
+        Map<String, Object> map = tokenize(line);
+        if (map != null) {
+            return map;
+        }
+        return parseWithPattern(line);
+    }
+
+    static Map<String, Object> parseWithPattern(String line) {
+        Matcher matcher = SYSLOG_PATTERN.matcher(line);
+        if (!matcher.find()) {
+            return null;
+        }
+        Map<String, Object> map = new HashMap<>();
+        map.put(PRIORITY_KEY, matcher.group(2));
+        map.put(HOST_KEY, matcher.group(6));
+        map.put(LOGGER_KEY, matcher.group(8));
+        map.put(CLASS_KEY, matcher.group(10));
+        map.put(TIMESTAMP_KEY, LocalDateTime.parse(matcher.group(3).replace("  ", " 0"), SYSLOG_TIME_FORMAT)
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        return map;
+    }
+
+    /*
+     * Tokenize a syslog line without backtracking. Returns null whenever the line is not in the common shape,
+     * in which case the caller falls back to SYSLOG_PATTERN.
+     */
+    static Map<String, Object> tokenize(String line) {
+        int length = line.length();
+        int pos = 0;
+        String priority = null;
+        if (length > 0 && line.charAt(0) == '<') {
+            int end = 1;
+            while (end < length && isDigit(line.charAt(end))) {
+                end++;
+            }
+            if (end == 1 || end >= length || line.charAt(end) != '>') {
+                return null;
+            }
+            priority = line.substring(1, end);
+            pos = end + 1;
+        }
+        if (!isTimestamp(line, pos)) {
+            return null;
+        }
+        Long timestamp = toEpochMilli(line, pos);
+        if (timestamp == null) {
+            return null;
+        }
+        int headerStart = pos + TIMESTAMP_LENGTH;
+        // The message after the header must not be empty, otherwise the pattern decides.
+        if (headerStart >= length || isLineTerminator(line.charAt(headerStart))) {
+            return null;
+        }
+
+        // Up to three tokens, each preceded by exactly one whitespace.
+        int t1Start = tokenStart(line, headerStart);
+        int t1End = t1Start < 0 ? -1 : tokenEnd(line, t1Start);
+        int t2Start = t1End < 0 ? -1 : tokenStart(line, t1End);
+        int t2End = t2Start < 0 ? -1 : tokenEnd(line, t2Start);
+        int t3Start = t2End < 0 ? -1 : tokenStart(line, t2End);
+        int t3End = t3Start < 0 ? -1 : tokenEnd(line, t3Start);
+
+        String host = null;
+        String logger = null;
+        String clazz = null;
+        // Candidates are tried in the same order the pattern's greedy groups would try them.
+        if (t3Start >= 0 && isClassToken(line, t3Start, t3End)) {
+            host = line.substring(t1Start, t1End);
+            logger = line.substring(t2Start, t2End);
+            clazz = line.substring(t3Start + 1, t3End - 2);
+        } else if (t2Start >= 0 && isColonToken(line, t2Start, t2End)) {
+            host = line.substring(t1Start, t1End);
+            logger = line.substring(t2Start, t2End - 1);
+        } else if (t2Start >= 0 && isClassToken(line, t2Start, t2End)) {
+            host = line.substring(t1Start, t1End);
+            clazz = line.substring(t2Start + 1, t2End - 2);
+        } else if (t1Start >= 0 && isColonToken(line, t1Start, t1End)) {
+            host = line.substring(t1Start, t1End - 1);
+        } else if (t1Start >= 0 && isClassToken(line, t1Start, t1End)) {
+            clazz = line.substring(t1Start + 1, t1End - 2);
+        }
+
+        Map<String, Object> map = new HashMap<>();
+        map.put(PRIORITY_KEY, priority);
+        map.put(HOST_KEY, host);
+        map.put(LOGGER_KEY, logger);
+        map.put(CLASS_KEY, clazz);
+        map.put(TIMESTAMP_KEY, timestamp);
+        return map;
+    }
+
+    /*
+     * Convert "Mmm dd hh:mm:ss" at the given offset to epoch millis, reusing the last conversion if possible.
+     */
+    private static Long toEpochMilli(String line, int pos) {
+        CachedTime cached = lastTime;
+        if (line.regionMatches(pos, cached.key, 0, TIMESTAMP_LENGTH)) {
+            return cached.epochMilli;
+        }
+        int month = parseMonth(line, pos);
+        if (month < 0) {
+            return null;
+        }
+        char dayTens = line.charAt(pos + 4);
+        int day = (dayTens == ' ' ? 0 : dayTens - '0') * 10 + line.charAt(pos + 5) - '0';
+        int hour = twoDigits(line, pos + 7);
+        int minute = twoDigits(line, pos + 10);
+        int second = twoDigits(line, pos + 13);
+        long epochMilli;
+        try {
+            epochMilli = LocalDateTime.of(CURRENT_YEAR, month, day, hour, minute, second)
+                    .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeException e) {
+            // Let the formatter resolve or reject out of range values.
+            return null;
+        }
+        lastTime = new CachedTime(line.substring(pos, pos + TIMESTAMP_LENGTH), epochMilli);
+        return epochMilli;
+    }
+
+    private static boolean isTimestamp(String line, int pos) {
+        if (line.length() < pos + TIMESTAMP_LENGTH) {
+            return false;
+        }
+        return isLetter(line.charAt(pos)) && isLetter(line.charAt(pos + 1)) && isLetter(line.charAt(pos + 2))
+                && line.charAt(pos + 3) == ' '
+                && (line.charAt(pos + 4) == ' ' || isDigit(line.charAt(pos + 4))) && isDigit(line.charAt(pos + 5))
+                && line.charAt(pos + 6) == ' '
+                && isDigit(line.charAt(pos + 7)) && isDigit(line.charAt(pos + 8)) && line.charAt(pos + 9) == ':'
+                && isDigit(line.charAt(pos + 10)) && isDigit(line.charAt(pos + 11)) && line.charAt(pos + 12) == ':'
+                && isDigit(line.charAt(pos + 13)) && isDigit(line.charAt(pos + 14));
+    }
+
+    private static int parseMonth(String line, int pos) {
+        for (int i = 0; i < MONTHS.length; i++) {
+            if (line.regionMatches(true, pos, MONTHS[i], 0, 3)) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /*
+     * Returns the start of the token following a single whitespace at pos, or -1.
+     */
+    private static int tokenStart(String line, int pos) {
+        if (pos + 1 < line.length() && isWhitespace(line.charAt(pos)) && !isWhitespace(line.charAt(pos + 1))) {
+            return pos + 1;
+        }
+        return -1;
+    }
+
+    private static int tokenEnd(String line, int start) {
+        int end = start;
+        while (end < line.length() && !isWhitespace(line.charAt(end))) {
+            end++;
+        }
+        return end;
+    }
+
+    /*
+     * "$token:" followed by a whitespace and a message.
+     */
+    private static boolean isColonToken(String line, int start, int end) {
+        return end - start >= 2 && line.charAt(end - 1) == ':' && hasMessage(line, end);
+    }
+
+    /*
+     * "($class):" followed by a whitespace and a message.
+     */
+    private static boolean isClassToken(String line, int start, int end) {
+        return end - start >= 4 && line.charAt(start) == '(' && line.charAt(end - 2) == ')'
+                && line.charAt(end - 1) == ':' && hasMessage(line, end);
+    }
+
+    private static boolean hasMessage(String line, int pos) {
+        return pos + 1 < line.length() && isWhitespace(line.charAt(pos)) && !isLineTerminator(line.charAt(pos + 1));
+    }
+
+    private static int twoDigits(String line, int pos) {
+        return (line.charAt(pos) - '0') * 10 + line.charAt(pos + 1) - '0';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+
+    // Same character class as \s in java.util.regex.
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    // Characters not matched by '.' in java.util.regex.
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private static final class CachedTime {
+        private final String key;
+        private final long epochMilli;
+
+        private CachedTime(String key, long epochMilli) {
+            this.key = key;
+            this.epochMilli = epochMilli;
+        }
+    }
+}
@@ -8,22 +8,32 @@ package com.aws.greengrass.cli.util.logs.impl;
 import com.aws.greengrass.cli.util.logs.Aggregation;
 import com.aws.greengrass.cli.util.logs.FileReader;
 import com.aws.greengrass.cli.util.logs.Filter;
+import com.aws.greengrass.cli.util.logs.LogCursor;
 import com.aws.greengrass.cli.util.logs.LogFile;
+import com.aws.greengrass.cli.util.logs.LogManifest;
 import com.aws.greengrass.cli.util.logs.LogQueue;
 import com.aws.greengrass.cli.util.logs.LogsUtil;
 import lombok.Getter;
+import lombok.Setter;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.format.DateTimeParseException;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -31,6 +41,8 @@ import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class AggregationImpl implements Aggregation {
     // Log file name has pattern ComponentName_yyyy_MM_dd_HH_index.log or ComponentName.log
@@ -38,16 +50,29 @@ public class AggregationImpl implements Aggregation {
     private static final Pattern fileNamePatternByHour = Pattern.compile(
             "([a-zA-Z0-9-_.]+)(_([0-9]{4}_[0-9]{2}_[0-9]{2}_[0-9]{2})_([0-9]+))\\.log$");
     private static final Pattern fileNamePatternCurrent = Pattern.compile("([a-zA-Z0-9-_.]+)\\.log$");
+    private static final String SYSLOG_GROUP_PREFIX = "syslog:";
+    // Only files whose name contains "log" are considered log files.
+    // GG_NEEDS_REVIEW: TODO: further investigate log file criteria
+    // https://github.com/aws/aws-greengrass-cli/pull/14#discussion_r456007545
+    private static final String LOG_FILE_GLOB = "*log*";
+    private static final int PARALLEL_THRESHOLD = 1000;
 
     private final ExecutorService executorService = Executors.newCachedThreadPool();
     @Getter
     private List<Future<?>> readLogFutureList;
 
     private AggregationImplConfig config;
+    @Setter
+    private LogManifest manifest;
 
     @Override
     public void configure(boolean follow, Filter filter, int before, int after, int max) {
-        config = new AggregationImplConfig(follow, filter, before, after, max);
+        configure(follow, filter, before, after, max, null);
+    }
+
+    @Override
+    public void configure(boolean follow, Filter filter, int before, int after, int max, LogCursor cursor) {
+        config = new AggregationImplConfig(follow, filter, before, after, max, cursor);
     }
 
     /*
@@ -97,10 +122,11 @@ public class AggregationImpl implements Aggregation {
 
         for (Map.Entry<String, List<LogFile>> entry : logGroupMap.entrySet()) {
             // Here we sort all files in a log group by ascending order of their timestamps and indexes.
+            // Syslog groups contain a single file each.
             if (!LogsUtil.isSyslog()) {
                 Collections.sort(entry.getValue());
             }
-            readLogFutureList.add(executorService.submit(new FileReader(entry.getValue(), config)));
+            readLogFutureList.add(executorService.submit(new FileReader(entry.getKey(), entry.getValue(), config)));
         }
         // GG_NEEDS_REVIEW: TODO: track log rotation
         return config.getQueue();
@@ -118,19 +144,39 @@ public class AggregationImpl implements Aggregation {
         if (logDirList == null) {
             return logFileSet;
         }
-        for (Path dir : logDirList) {
-            File[] files = dir.toFile().listFiles();
-            if (files == null) {
-                LogsUtil.getErrorStream().println("Log dir provided invalid: " + dir);
-                continue;
+        // Directories are listed concurrently, as each one may hold tens of thousands of rotated files.
+        List<List<File>> listings = logDirList.parallelStream().map(this::listLogDir).collect(Collectors.toList());
+        for (List<File> listing : listings) {
+            logFileSet.addAll(listing);
+        }
+        if (manifest != null) {
+            manifest.save();
+        }
+        return logFileSet;
+    }
+
+    private List<File> listLogDir(Path dir) {
+        if (manifest != null) {
+            List<File> cached = manifest.files(dir);
+            if (cached != null) {
+                return cached;
             }
-            for (File file : files) {
-                if (isLogFile(file)) {
-                    logFileSet.add(file);
-                }
+        }
+        long modified = manifest == null ? -1 : LogManifest.lastModified(dir);
+        List<File> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, LOG_FILE_GLOB)) {
+            for (Path path : stream) {
+                files.add(path.toFile());
             }
+        } catch (IOException | DirectoryIteratorException e) {
+            LogsUtil.getErrorStream().println("Log dir provided invalid: " + dir);
+            return Collections.emptyList();
         }
-        return logFileSet;
+        if (manifest != null) {
+            manifest.update(dir, modified, stream(files).map(file -> parseFileName(file.getName()))
+                    .collect(Collectors.toList()));
+        }
+        return files;
     }
 
     /*
@@ -159,58 +205,71 @@ public class AggregationImpl implements Aggregation {
         }
     }
 
-    /*
-     * Help function that checks if a file is a log file.
-     * GG_NEEDS_REVIEW: TODO: further investigate log file criteria
-     * https://github.com/aws/aws-greengrass-cli/pull/14#discussion_r456007545
-     */
-    private boolean isLogFile(File file) {
-        return file.getName().contains("log");
-    }
-
     private Map<String, List<LogFile>> parseLogGroup(Set<File> logFileSet) {
         // key is logGroupName and value is all files within that log group.
         Map<String, List<LogFile>> logGroupMap = new HashMap<>();
-        // if we are parsing syslog, we default all syslogs into one single log group without ordering.
+        // if we are parsing syslog, every file becomes its own log group so that they are read in parallel.
+        // Entries are merged by timestamp in the priority queue of LogQueue.
         if (LogsUtil.isSyslog()) {
-            logGroupMap.put("syslog", new ArrayList<>());
             for (File file : logFileSet) {
-                logGroupMap.get("syslog").add(new LogFile(file, null, null));
+                logGroupMap.put(SYSLOG_GROUP_PREFIX + file.getPath(),
+                        Collections.singletonList(new LogFile(file, null, null)));
             }
             return logGroupMap;
         }
 
-        for (File file : logFileSet) {
-            Matcher fileNameMatcher = fileNamePatternByHour.matcher(file.getName());
-            boolean patternByHour = fileNameMatcher.matches();
-            String logGroupName;
-            String timestamp = "";
-            String index = "";
-            if (patternByHour) {
-                // group(1) = logGroupName, group2 = timestamp + index, group(3) = timestamp, group(4) = index.
-                logGroupName = fileNameMatcher.group(1);
-                timestamp = fileNameMatcher.group(3);
-                index = fileNameMatcher.group(4);
-            } else {
-                fileNameMatcher = fileNamePatternCurrent.matcher(file.getName());
-                if (!fileNameMatcher.matches()) {
-                    LogsUtil.getErrorStream().println("Unable to parse file name: " + file.getName());
-                    continue;
-                }
-                logGroupName = fileNameMatcher.group(1);
-            }
-
-            try {
-                LogFile logFile = new LogFile(file, timestamp, index);
-                logGroupMap.putIfAbsent(logGroupName, new ArrayList<>());
-                logGroupMap.get(logGroupName).add(logFile);
-            } catch (DateTimeParseException e) {
-                LogsUtil.getErrorStream().println("Unable to parse timestamp from file name: " + file.getName());
-                continue;
-            } catch (NumberFormatException e) {
-                LogsUtil.getErrorStream().println("Unable to parse file index from file name: " + file.getName());
-            }
+        List<Map.Entry<String, LogFile>> parsed = stream(logFileSet).map(this::toLogFile).filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        for (Map.Entry<String, LogFile> entry : parsed) {
+            logGroupMap.computeIfAbsent(entry.getKey(), k -> new ArrayList<>()).add(entry.getValue());
         }
         return logGroupMap;
     }
+
+    /*
+     * Parse the name of a log file into its log group and LogFile, or return null if it cannot be parsed.
+     */
+    private Map.Entry<String, LogFile> toLogFile(File file) {
+        LogManifest.Entry name = manifest == null ? null : manifest.entry(file);
+        if (name == null) {
+            name = parseFileName(file.getName());
+        }
+        if (name.getGroup() == null) {
+            LogsUtil.getErrorStream().println("Unable to parse file name: " + file.getName());
+            return null;
+        }
+        try {
+            return new AbstractMap.SimpleImmutableEntry<>(name.getGroup(),
+                    new LogFile(file, name.getTimestamp(), name.getIndex()));
+        } catch (DateTimeParseException e) {
+            LogsUtil.getErrorStream().println("Unable to parse timestamp from file name: " + file.getName());
+        } catch (NumberFormatException e) {
+            LogsUtil.getErrorStream().println("Unable to parse file index from file name: " + file.getName());
+        }
+        return null;
+    }
+
+    /*
+     * Parse a log file name of pattern ComponentName_yyyy_MM_dd_HH_index.log or ComponentName.log.
+     */
+    static LogManifest.Entry parseFileName(String fileName) {
+        Matcher fileNameMatcher = fileNamePatternByHour.matcher(fileName);
+        if (fileNameMatcher.matches()) {
+            // group(1) = logGroupName, group2 = timestamp + index, group(3) = timestamp, group(4) = index.
+            return new LogManifest.Entry(fileName, fileNameMatcher.group(1), fileNameMatcher.group(3),
+                    fileNameMatcher.group(4));
+        }
+        fileNameMatcher = fileNamePatternCurrent.matcher(fileName);
+        if (fileNameMatcher.matches()) {
+            return new LogManifest.Entry(fileName, fileNameMatcher.group(1), "", "");
+        }
+        return new LogManifest.Entry(fileName, null, null, null);
+    }
+
+    /*
+     * Parsing file names in parallel only pays off for large directories.
+     */
+    private static <T> Stream<T> stream(Collection<T> collection) {
+        return collection.size() >= PARALLEL_THRESHOLD ? collection.parallelStream() : collection.stream();
+    }
 }
@@ -6,6 +6,7 @@
 package com.aws.greengrass.cli.util.logs.impl;
 
 import com.aws.greengrass.cli.util.logs.Filter;
+import com.aws.greengrass.cli.util.logs.LogCursor;
 import com.aws.greengrass.cli.util.logs.LogQueue;
 import lombok.Getter;
 
@@ -24,15 +25,17 @@ public class AggregationImplConfig {
     private int before;
     private int after;
     private int max;
+    private LogCursor cursor;
 
     private LogQueue queue;
 
-    AggregationImplConfig(boolean follow, Filter filter, int before, int after, int max) {
+    AggregationImplConfig(boolean follow, Filter filter, int before, int after, int max, LogCursor cursor) {
         this.follow = follow;
         this.filterInterface = filter;
         this.before = before;
         this.after = after;
         this.max = max;
+        this.cursor = cursor;
     }
 
     public void initialize() {
@@ -7,6 +7,7 @@ package com.aws.greengrass.cli.util.logs.impl;
 
 import com.aws.greengrass.cli.util.logs.Filter;
 import com.aws.greengrass.cli.util.logs.LogEntry;
+import com.aws.greengrass.cli.util.logs.LogStats;
 import com.aws.greengrass.cli.util.logs.LogsUtil;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -88,7 +89,10 @@ public class FilterImpl implements Filter {
      */
     @Override
     public boolean filter(LogEntry logEntry) {
-        return checkTimeWindow(logEntry.getTimestamp()) && checkFilterExpression(logEntry);
+        long start = LogStats.start();
+        boolean matched = checkTimeWindow(logEntry.getTimestamp()) && checkFilterExpression(logEntry);
+        LogStats.recordFilter(start, matched);
+        return matched;
     }
 
     /*
@@ -6,6 +6,7 @@
 package com.aws.greengrass.cli.util.logs.impl;
 
 import com.aws.greengrass.cli.util.logs.LogEntry;
+import com.aws.greengrass.cli.util.logs.LogStats;
 import com.aws.greengrass.cli.util.logs.LogsUtil;
 import com.aws.greengrass.cli.util.logs.Visualization;
 import com.aws.greengrass.logging.impl.GreengrassLogMessage;
@@ -27,13 +28,19 @@ public class VisualizationImpl implements Visualization {
      */
     @Override
     public void visualize(LogEntry logEntry, boolean noColor, boolean verbose) {
+        long start = LogStats.start();
+        boolean printed = print(logEntry, noColor, verbose);
+        LogStats.recordVisualize(start, !printed);
+    }
+
+    private boolean print(LogEntry logEntry, boolean noColor, boolean verbose) {
         if (LogsUtil.isSyslog()) {
             if (noColor) {
                 LogsUtil.getPrintStream().println(logEntry.getLine());
-                return;
+                return true;
             }
             LogsUtil.getPrintStream().println(highlight(logEntry.getLine(), logEntry.getMatchedKeywords()));
-            return;
+            return true;
         }
 
         try {
@@ -42,12 +49,14 @@ public class VisualizationImpl implements Visualization {
 
             if (noColor) {
                 LogsUtil.getPrintStream().println(message);
-                return;
+                return true;
             }
             LogsUtil.getPrintStream().println(highlight(message, logEntry.getMatchedKeywords()));
+            return true;
         } catch (IOException e) {
             LogsUtil.getErrorStream().println("Unable to parse log message: ");
             LogsUtil.getErrorStream().println(logEntry.getLine());
+            return false;
         }
     }
 
@@ -0,0 +1,114 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.util.pubsub;
+
+import lombok.Getter;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/*
+ * Reads the records of a capture file written by CaptureWriter, in the order they were recorded. A record cut off
+ * at the end of the file, because the recording process was killed while writing it, ends the capture.
+ */
+public class CaptureReader implements AutoCloseable {
+    private final DataInputStream in;
+    private final List<String> topics = new ArrayList<>();
+    @Getter
+    private final long startMillis;
+    private long offsetMicros;
+
+    /**
+     * Open a capture file.
+     *
+     * @param in stream to read, preferably buffered, closed by close()
+     * @throws IOException if the stream is not a capture file of a supported version
+     */
+    public CaptureReader(InputStream in) throws IOException {
+        this.in = new DataInputStream(in);
+        byte[] magic = new byte[CaptureWriter.MAGIC.length];
+        try {
+            this.in.readFully(magic);
+            if (!Arrays.equals(magic, CaptureWriter.MAGIC)) {
+                throw new IOException("Not a capture file");
+            }
+            int version = this.in.readUnsignedByte();
+            if (version != CaptureWriter.VERSION) {
+                throw new IOException("Unsupported capture file version " + version);
+            }
+            this.startMillis = this.in.readLong();
+        } catch (EOFException e) {
+            throw new IOException("Not a capture file", e);
+        }
+    }
+
+    /**
+     * Read the next record.
+     *
+     * @return the record, or null at the end of the capture
+     * @throws IOException if the file cannot be read or is corrupt
+     */
+    public CaptureRecord next() throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            return null;
+        }
+        try {
+            long delta = readVarint(first);
+            int kind = in.readUnsignedByte();
+            if (kind != CaptureWriter.KIND_BINARY && kind != CaptureWriter.KIND_JSON) {
+                throw new IOException("Corrupt capture file, unknown record kind " + kind);
+            }
+            int topicId = (int) readVarint(in.readUnsignedByte());
+            if (topicId == topics.size()) {
+                topics.add(new String(readBytes(), StandardCharsets.UTF_8));
+            } else if (topicId > topics.size()) {
+                throw new IOException("Corrupt capture file, unknown topic " + topicId);
+            }
+            byte[] payload = readBytes();
+            offsetMicros += delta;
+            return new CaptureRecord(offsetMicros, topics.get(topicId), kind == CaptureWriter.KIND_JSON, payload);
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private byte[] readBytes() throws IOException {
+        long length = readVarint(in.readUnsignedByte());
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Corrupt capture file, length " + length);
+        }
+        byte[] bytes = new byte[(int) length];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private long readVarint(int first) throws IOException {
+        long value = first & 0x7F;
+        int shift = 7;
+        int b = first;
+        while ((b & 0x80) != 0) {
+            if (shift >= Long.SIZE) {
+                throw new IOException("Corrupt capture file, varint too long");
+            }
+            b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,21 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.util.pubsub;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/*
+ * A message read from a capture file, with its receive time in microseconds since the capture started.
+ */
+@Getter
+@AllArgsConstructor
+public class CaptureRecord {
+    private final long offsetMicros;
+    private final String topic;
+    private final boolean json;
+    private final byte[] payload;
+}
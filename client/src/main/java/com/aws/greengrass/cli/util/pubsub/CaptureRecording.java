@@ -0,0 +1,65 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.util.pubsub;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * State shared by the subscriptions of one recording: the capture file, the message limit and the future that
+ * completes when the limit is reached or every subscription is closed.
+ */
+public class CaptureRecording {
+    private final CaptureWriter writer;
+    private final long limit;
+    private final AtomicLong appended = new AtomicLong();
+    private final AtomicInteger open;
+    private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    /**
+     * Start a recording.
+     *
+     * @param writer capture file the messages are appended to
+     * @param limit messages to record, 0 for no limit
+     * @param streams subscriptions that record to the file
+     */
+    public CaptureRecording(CaptureWriter writer, long limit, int streams) {
+        this.writer = writer;
+        this.limit = limit;
+        this.open = new AtomicInteger(streams);
+    }
+
+    /**
+     * Append a message, unless the limit was reached.
+     *
+     * @param topic topic the message was published to
+     * @param json true if the payload is a JSON document
+     * @param payload message payload
+     */
+    public void append(String topic, boolean json, byte[] payload) {
+        if (limit > 0 && appended.incrementAndGet() > limit) {
+            return;
+        }
+        writer.append(topic, json, payload);
+        if (limit > 0 && appended.get() >= limit) {
+            done.complete(null);
+        }
+    }
+
+    /*
+     * Called once per subscription that is closed or could not be opened.
+     */
+    public void streamClosed() {
+        if (open.decrementAndGet() == 0) {
+            done.complete(null);
+        }
+    }
+
+    public CompletableFuture<Void> getDone() {
+        return done;
+    }
+}
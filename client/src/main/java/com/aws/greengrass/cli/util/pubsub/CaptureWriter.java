@@ -0,0 +1,128 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.util.pubsub;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Appends received messages to a capture file that CaptureReader reads back for replaying.
+ *
+ * The file starts with the magic bytes GGPS, a version byte and the wall clock time of the capture start in epoch
+ * milliseconds. Each record then holds, with unsigned LEB128 varints:
+ *   - microseconds since the previous record, or since the start for the first one
+ *   - a kind byte, 0 for binary and 1 for JSON payloads
+ *   - a topic id; an id not used before is followed by the topic's length and UTF-8 bytes
+ *   - the payload length and the payload, JSON as UTF-8 text
+ * Topics are written once, so records of busy topics cost a few bytes more than their payload.
+ *
+ * Records are encoded on the calling IPC thread, which is cheap, and written to the file by a SubscriberOutput.
+ */
+public class CaptureWriter implements AutoCloseable {
+    static final byte[] MAGIC = {'G', 'G', 'P', 'S'};
+    static final int VERSION = 1;
+    static final int KIND_BINARY = 0;
+    static final int KIND_JSON = 1;
+
+    private final OutputStream out;
+    private final SubscriberOutput output;
+    private final Map<String, Integer> topicIds = new HashMap<>();
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream();
+    private final long startNanos = System.nanoTime();
+    private long lastMicros;
+    private long recorded;
+
+    /**
+     * Start a capture file.
+     *
+     * @param out stream to write to, closed by close()
+     * @param capacity maximum records waiting to be written
+     * @throws IOException if the header cannot be written
+     */
+    public CaptureWriter(OutputStream out, int capacity) throws IOException {
+        this.out = out;
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        header.write(MAGIC);
+        header.write(VERSION);
+        long startMillis = System.currentTimeMillis();
+        for (int shift = Long.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+            header.write((int) (startMillis >>> shift));
+        }
+        header.writeTo(out);
+        out.flush();
+        this.output = new SubscriberOutput(out, capacity);
+    }
+
+    /**
+     * Append a message received now.
+     *
+     * @param topic topic the message was received on
+     * @param json true for a JSON payload
+     * @param payload message bytes
+     * @return false if the record was dropped
+     */
+    public synchronized boolean append(String topic, boolean json, byte[] payload) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        Integer topicId = topicIds.get(topic);
+        boolean newTopic = topicId == null;
+        if (newTopic) {
+            topicId = topicIds.size();
+        }
+
+        record.reset();
+        writeVarint(record, micros - lastMicros);
+        record.write(json ? KIND_JSON : KIND_BINARY);
+        writeVarint(record, topicId);
+        if (newTopic) {
+            byte[] topicBytes = topic.getBytes(StandardCharsets.UTF_8);
+            writeVarint(record, topicBytes.length);
+            record.write(topicBytes, 0, topicBytes.length);
+        }
+        writeVarint(record, payload.length);
+        record.write(payload, 0, payload.length);
+
+        // A dropped record must not define a topic or advance the clock, as later records depend on both.
+        if (!output.writeRaw(record.toByteArray())) {
+            return false;
+        }
+        if (newTopic) {
+            topicIds.put(topic, topicId);
+        }
+        lastMicros = micros;
+        recorded++;
+        return true;
+    }
+
+    public synchronized long getRecorded() {
+        return recorded;
+    }
+
+    public long getDropped() {
+        return output.getDropped();
+    }
+
+    /*
+     * Write the queued records and close the file.
+     */
+    @Override
+    public void close() throws IOException {
+        output.close();
+        out.close();
+    }
+
+    static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
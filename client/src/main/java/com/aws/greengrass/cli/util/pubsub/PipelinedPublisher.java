@@ -0,0 +1,125 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.util.pubsub;
+
+import java.io.PrintStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/*
+ * Publishes messages without waiting for each response, keeping at most window requests in flight on the
+ * connection. Publishing blocks while the window is full, so a fast producer is held back by the nucleus rather
+ * than queueing without bound.
+ *
+ * Latency is measured per message from sending the request to its response.
+ */
+public class PipelinedPublisher {
+    private final Semaphore window;
+    private final int windowSize;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicReference<String> firstError = new AtomicReference<>();
+    private long startNanos = -1;
+    private long endNanos;
+
+    public PipelinedPublisher(int windowSize) {
+        this.windowSize = Math.max(1, windowSize);
+        this.window = new Semaphore(this.windowSize);
+    }
+
+    /**
+     * Send a request once the window has room. A request whose payload cannot be built counts as failed.
+     *
+     * @param send sends the request and returns its response
+     * @throws InterruptedException if interrupted while waiting for room
+     */
+    public void publish(Supplier<CompletableFuture<?>> send) throws InterruptedException {
+        window.acquire();
+        long sentNanos = System.nanoTime();
+        if (startNanos < 0) {
+            startNanos = sentNanos;
+        }
+        CompletableFuture<?> response;
+        try {
+            response = send.get();
+        } catch (RuntimeException e) {
+            fail(e);
+            window.release();
+            return;
+        }
+        response.whenComplete((r, e) -> {
+            if (e == null) {
+                latency.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - sentNanos));
+                succeeded.increment();
+            } else {
+                fail(e);
+            }
+            window.release();
+        });
+    }
+
+    /**
+     * Wait for all requests in flight.
+     *
+     * @param timeoutMillis how long to wait
+     * @return true if all requests completed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean finish(long timeoutMillis) throws InterruptedException {
+        boolean completed = window.tryAcquire(windowSize, timeoutMillis, TimeUnit.MILLISECONDS);
+        if (completed) {
+            window.release(windowSize);
+        }
+        endNanos = System.nanoTime();
+        return completed;
+    }
+
+    public long getSucceeded() {
+        return succeeded.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /*
+     * Print the number of messages, the throughput from the first request to finish(), and the latencies.
+     */
+    public void printReport(PrintStream out) {
+        double seconds = startNanos < 0 ? 0 : (endNanos - startNanos) / 1e9;
+        long total = getSucceeded() + getFailed();
+        out.printf("Published %d of %d messages in %.3f s, %.1f msgs/sec%n", getSucceeded(), total, seconds,
+                seconds > 0 ? getSucceeded() / seconds : 0);
+        if (latency.getCount() > 0) {
+            out.println("Latency " + latency.summary());
+        }
+        if (getFailed() > 0) {
+            out.println(getFailed() + " messages failed, first error: " + firstError.get());
+        }
+    }
+
+    private void fail(Throwable e) {
+        failed.increment();
+        Throwable cause = e;
+        while ((cause instanceof ExecutionException || cause instanceof CompletionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        firstError.compareAndSet(null, cause.getMessage() == null ? cause.getClass().getSimpleName()
+                : cause.getMessage());
+    }
+}
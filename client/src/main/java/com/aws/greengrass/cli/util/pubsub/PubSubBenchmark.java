@@ -0,0 +1,188 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.util.pubsub;
+
+import com.aws.greengrass.cli.adapter.NucleusAdapterIpcAsync;
+import software.amazon.awssdk.aws.greengrass.model.SubscriptionResponseMessage;
+import software.amazon.awssdk.eventstreamrpc.StreamResponseHandler;
+
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ * Local pub/sub load generator. Subscribes to a topic and publishes timestamped messages to it on the same
+ * connection, then reports publish throughput, end-to-end latency from publishing to receiving, and messages that
+ * never arrived.
+ *
+ * Every payload starts with the run id, the sequence number and System.nanoTime() at sending, so that latency is
+ * measured on one clock and messages of other publishers on the topic are ignored. Latency is measured from the
+ * actual send, so when the window is full at a fixed rate, the time spent waiting for room is not included.
+ */
+public class PubSubBenchmark {
+    public static final int HEADER_BYTES = 3 * Long.BYTES;
+    private static final long SUBSCRIBE_TIMEOUT_SEC = 30;
+    private static final long PUBLISH_FINISH_TIMEOUT_SEC = 60;
+
+    private final NucleusAdapterIpcAsync ipc;
+    private final String topic;
+    private final int payloadBytes;
+    private final int count;
+    private final double rate;
+    private final int window;
+    private final long runId = ThreadLocalRandom.current().nextLong();
+
+    private final LatencyHistogram endToEnd = new LatencyHistogram();
+    private final BitSet received;
+    private final AtomicReference<String> streamError = new AtomicReference<>();
+    private int receivedCount;
+    private int duplicates;
+    private long firstReceivedNanos = -1;
+    private long lastReceivedNanos;
+
+    /**
+     * Create a benchmark.
+     *
+     * @param ipc adapter to publish and subscribe with, its connection must stay open until run() returns
+     * @param topic topic to use, which should have no other publishers
+     * @param payloadBytes size of each message, at least HEADER_BYTES
+     * @param count number of messages
+     * @param rate messages per second, 0 or less for as fast as the window allows
+     * @param window maximum publish requests in flight
+     */
+    public PubSubBenchmark(NucleusAdapterIpcAsync ipc, String topic, int payloadBytes, int count, double rate,
+                           int window) {
+        this.ipc = ipc;
+        this.topic = topic;
+        this.payloadBytes = Math.max(HEADER_BYTES, payloadBytes);
+        this.count = count;
+        this.rate = rate;
+        this.window = window;
+        this.received = new BitSet(count);
+    }
+
+    /**
+     * Subscribe, publish all messages, wait for them to arrive and print the results.
+     *
+     * @param drainMillis how long to wait for messages after the last publish response
+     * @param out stream to print the results to
+     * @return true if every message was published and received
+     * @throws InterruptedException if interrupted
+     */
+    public boolean run(long drainMillis, PrintStream out) throws InterruptedException {
+        try {
+            ipc.subscribeToTopicAsync(topic, new Handler()).get(SUBSCRIBE_TIMEOUT_SEC, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            out.println("Unable to subscribe to " + topic + ": " + e.getMessage());
+            return false;
+        }
+
+        PipelinedPublisher publisher = new PipelinedPublisher(window);
+        long intervalNanos = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / rate) : 0;
+        long startNanos = System.nanoTime();
+        for (int sequence = 0; sequence < count; sequence++) {
+            if (intervalNanos > 0) {
+                long delay = startNanos + sequence * intervalNanos - System.nanoTime();
+                if (delay > 0) {
+                    LockSupport.parkNanos(delay);
+                }
+            }
+            int seq = sequence;
+            publisher.publish(() -> ipc.publishToTopicAsync(topic, payload(seq)));
+        }
+        if (!publisher.finish(TimeUnit.SECONDS.toMillis(PUBLISH_FINISH_TIMEOUT_SEC))) {
+            out.println("Timed out waiting for publish responses after " + PUBLISH_FINISH_TIMEOUT_SEC + " seconds");
+        }
+
+        long expected = publisher.getSucceeded();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(drainMillis);
+        while (receivedCount() < expected && System.nanoTime() < deadline && streamError.get() == null) {
+            Thread.sleep(10);
+        }
+
+        publisher.printReport(out);
+        return report(expected, out) && publisher.getFailed() == 0;
+    }
+
+    private synchronized int receivedCount() {
+        return receivedCount;
+    }
+
+    private synchronized boolean report(long expected, PrintStream out) {
+        double seconds = firstReceivedNanos < 0 ? 0 : (lastReceivedNanos - firstReceivedNanos) / 1e9;
+        long dropped = Math.max(0, expected - receivedCount);
+        out.printf("Received %d of %d messages of %d bytes, %.1f msgs/sec, %d dropped, %d duplicates%n",
+                receivedCount, expected, payloadBytes, seconds > 0 ? receivedCount / seconds : 0, dropped,
+                duplicates);
+        if (endToEnd.getCount() > 0) {
+            out.println("End-to-end latency " + endToEnd.summary());
+        }
+        if (streamError.get() != null) {
+            out.println("Subscription failed: " + streamError.get());
+        }
+        return dropped == 0 && streamError.get() == null;
+    }
+
+    byte[] payload(int sequence) {
+        byte[] payload = new byte[payloadBytes];
+        ByteBuffer.wrap(payload).putLong(runId).putLong(sequence).putLong(System.nanoTime());
+        return payload;
+    }
+
+    void onMessage(byte[] payload, long receivedNanos) {
+        if (payload == null || payload.length < HEADER_BYTES) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        if (buffer.getLong() != runId) {
+            return;
+        }
+        long sequence = buffer.getLong();
+        long sentNanos = buffer.getLong();
+        if (sequence < 0 || sequence >= count) {
+            return;
+        }
+        synchronized (this) {
+            if (received.get((int) sequence)) {
+                duplicates++;
+                return;
+            }
+            received.set((int) sequence);
+            receivedCount++;
+            if (firstReceivedNanos < 0) {
+                firstReceivedNanos = receivedNanos;
+            }
+            lastReceivedNanos = receivedNanos;
+        }
+        endToEnd.record(TimeUnit.NANOSECONDS.toMicros(receivedNanos - sentNanos));
+    }
+
+    private class Handler implements StreamResponseHandler<SubscriptionResponseMessage> {
+        @Override
+        public void onStreamEvent(SubscriptionResponseMessage message) {
+            long receivedNanos = System.nanoTime();
+            if (message.getBinaryMessage() != null) {
+                onMessage(message.getBinaryMessage().getMessage(), receivedNanos);
+            }
+        }
+
+        @Override
+        public boolean onStreamError(Throwable error) {
+            streamError.compareAndSet(null, String.valueOf(error.getMessage()));
+            return true;
+        }
+
+        @Override
+        public void onStreamClosed() {
+        }
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.util.pubsub;
+
+import com.google.gson.Gson;
+import lombok.AllArgsConstructor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Writes received messages, one per line, on a writer thread, so that the IPC event loop thread delivering them
+ * only hands them over instead of formatting and printing each one.
+ *
+ * Messages wait in a bounded queue and are written in batches with one flush each. Binary payloads are written as
+ * they are, without decoding them, and JSON messages are serialized on the writer thread with one shared
+ * serializer. When the queue is full, because the output does not keep up, new messages are dropped and counted
+ * rather than blocking the event loop, which would stall every stream on the connection.
+ *
+ * Status lines, such as the end of a subscription, are never waited for either. When the queue is full they wait
+ * in a small separate queue and are written after the messages queued before them.
+ *
+ * One output can be shared by the subscriptions to several topics. Messages written with a topic are then printed
+ * after it and a tab, so that lines can be told apart and split again.
+ */
+public class SubscriberOutput implements AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 8192;
+    private static final int MAX_BATCH_MESSAGES = 256;
+    private static final long CLOSE_TIMEOUT_SEC = 10;
+    private static final int STATUS_CAPACITY = 16;
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+    private static final byte TOPIC_SEPARATOR = '\t';
+    private static final Gson GSON = new Gson();
+    private static final Object END = new Object();
+    // Wakes the writer up for status lines waiting in their own queue.
+    private static final Object WAKE = new Object();
+
+    private final OutputStream out;
+    private final BlockingQueue<Object> queue;
+    private final BlockingQueue<byte[]> statusQueue = new ArrayBlockingQueue<>(STATUS_CAPACITY);
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final Thread writer;
+    private final Thread shutdownHook;
+    private final CompletableFuture<Void> failed = new CompletableFuture<>();
+    private volatile boolean closed;
+    private volatile IOException error;
+
+    /**
+     * Start writing messages to a stream.
+     *
+     * @param out stream to write to, flushed after every batch
+     * @param capacity maximum messages waiting to be written
+     */
+    public SubscriberOutput(OutputStream out, int capacity) {
+        this.out = out;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writer = new Thread(this::writeLoop, "greengrass-cli-subscriber-output");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        // Messages still queued when the command is interrupted are written before the process exits.
+        this.shutdownHook = new Thread(this::close);
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    /**
+     * Queue a binary payload, which is written as it is.
+     *
+     * @param payload message bytes
+     * @return false if the message was dropped
+     */
+    public boolean write(byte[] payload) {
+        return enqueue(payload);
+    }
+
+    /**
+     * Queue a binary payload received on a topic.
+     *
+     * @param topic topic to tag the message with, or null to write it untagged
+     * @param payload message bytes
+     * @return false if the message was dropped
+     */
+    public boolean write(String topic, byte[] payload) {
+        return enqueue(topic == null || payload == null ? payload : new Tagged(topic, payload));
+    }
+
+    /**
+     * Queue a JSON message, which is written as one line of JSON.
+     *
+     * @param message JSON object
+     * @return false if the message was dropped
+     */
+    public boolean writeJson(Map<String, Object> message) {
+        return enqueue(message);
+    }
+
+    /**
+     * Queue a JSON message received on a topic.
+     *
+     * @param topic topic to tag the message with, or null to write it untagged
+     * @param message JSON object
+     * @return false if the message was dropped
+     */
+    public boolean writeJson(String topic, Map<String, Object> message) {
+        return enqueue(topic == null || message == null ? message : new Tagged(topic, message));
+    }
+
+    /**
+     * Queue bytes that are already encoded, such as a capture file record, which are written without a line
+     * separator.
+     *
+     * @param bytes bytes to write
+     * @return false if the bytes were dropped
+     */
+    public boolean writeRaw(byte[] bytes) {
+        return enqueue(bytes == null ? null : new Raw(bytes));
+    }
+
+    /**
+     * Queue a status line, such as the end of a subscription. It is written in order with the messages before it,
+     * and when the queue is full it waits in the status queue instead, so that the IPC event loop thread calling
+     * it is never blocked. It is only dropped if the status queue is full too.
+     *
+     * @param line text to write
+     * @return false if the line was dropped
+     */
+    public boolean writeStatus(String line) {
+        if (closed) {
+            return false;
+        }
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        if (queue.offer(bytes)) {
+            return true;
+        }
+        if (!statusQueue.offer(bytes)) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        // The writer may have emptied the queue since, and be waiting for the next message.
+        queue.offer(WAKE);
+        return true;
+    }
+
+    private boolean enqueue(Object message) {
+        if (message == null || closed) {
+            return false;
+        }
+        if (!queue.offer(message)) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    /*
+     * Completes once writing to the output failed, for example because the reader of a pipe went away, after
+     * which messages are discarded.
+     */
+    public CompletableFuture<Void> getFailed() {
+        return failed;
+    }
+
+    /*
+     * Write the queued messages and stop the writer thread, then report dropped messages and write errors on
+     * stderr. Messages queued after closing are ignored. If the output does not take the queued messages within
+     * the close timeout, they are dropped and the writer thread is interrupted.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(CLOSE_TIMEOUT_SEC);
+        try {
+            if (!queue.offer(END, CLOSE_TIMEOUT_SEC, TimeUnit.SECONDS)) {
+                // The output is stuck, so the queued messages are given up and the writer is stopped.
+                stopWriter();
+            }
+            writer.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+        } catch (InterruptedException e) {
+            stopWriter();
+            Thread.currentThread().interrupt();
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // Already shutting down, closed by the hook itself.
+        }
+        if (dropped.get() > 0) {
+            System.err.println(dropped.get() + " messages were dropped because the output did not keep up");
+        }
+        if (error != null) {
+            System.err.println("Unable to write messages: " + error.getMessage());
+        }
+    }
+
+    private void stopWriter() {
+        List<Object> discarded = new ArrayList<>();
+        queue.drainTo(discarded);
+        statusQueue.drainTo(discarded);
+        dropped.addAndGet(discarded.stream().filter(message -> message != END && message != WAKE).count());
+        queue.offer(END);
+        writer.interrupt();
+    }
+
+    private void writeLoop() {
+        List<Object> batch = new ArrayList<>(MAX_BATCH_MESSAGES);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        Writer jsonWriter = new OutputStreamWriter(buffer, StandardCharsets.UTF_8);
+        boolean end = false;
+        while (!end) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, MAX_BATCH_MESSAGES - 1);
+            int messages = 0;
+            for (Object message : batch) {
+                if (message == END) {
+                    end = true;
+                    break;
+                }
+                if (message == WAKE) {
+                    continue;
+                }
+                try {
+                    append(message, buffer, jsonWriter);
+                    messages++;
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Unable to format message: " + e.getMessage());
+                }
+            }
+            batch.clear();
+            byte[] status;
+            while ((status = statusQueue.poll()) != null) {
+                try {
+                    append(status, buffer, jsonWriter);
+                    messages++;
+                } catch (IOException e) {
+                    System.err.println("Unable to format message: " + e.getMessage());
+                }
+            }
+            flush(buffer, messages);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void append(Object message, ByteArrayOutputStream buffer, Writer jsonWriter)
+            throws IOException {
+        if (message instanceof Raw) {
+            buffer.write(((Raw) message).bytes);
+            return;
+        }
+        if (message instanceof Tagged) {
+            Tagged tagged = (Tagged) message;
+            buffer.write(tagged.topic.getBytes(StandardCharsets.UTF_8));
+            buffer.write(TOPIC_SEPARATOR);
+            message = tagged.message;
+        }
+        if (message instanceof byte[]) {
+            buffer.write((byte[]) message);
+        } else {
+            GSON.toJson((Map<String, Object>) message, jsonWriter);
+            jsonWriter.flush();
+        }
+        buffer.write(LINE_SEPARATOR);
+    }
+
+    private void flush(ByteArrayOutputStream buffer, int messages) {
+        if (messages == 0) {
+            return;
+        }
+        // Once the output failed, for example because the reader of a pipe went away, messages are discarded.
+        if (error == null) {
+            try {
+                buffer.writeTo(out);
+                out.flush();
+                // A PrintStream, such as System.out, never throws and only records that writing failed.
+                if (out instanceof PrintStream && ((PrintStream) out).checkError()) {
+                    throw new IOException("Output stream is closed");
+                }
+                written.addAndGet(messages);
+            } catch (IOException e) {
+                error = e;
+                failed.complete(null);
+            }
+        }
+        buffer.reset();
+    }
+
+    @AllArgsConstructor
+    private static class Tagged {
+        private final String topic;
+        private final Object message;
+    }
+
+    @AllArgsConstructor
+    private static class Raw {
+        private final byte[] bytes;
+    }
+}
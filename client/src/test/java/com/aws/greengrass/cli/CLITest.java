@@ -7,6 +7,7 @@ package com.aws.greengrass.cli;
 
 import com.aws.greengrass.cli.adapter.NucleusAdapterIpc;
 import com.aws.greengrass.cli.module.AdapterModule;
+import com.aws.greengrass.cli.module.CommandsComponent;
 import com.aws.greengrass.cli.module.DaggerCommandsComponent;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,12 +16,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import picocli.CommandLine;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.Mockito.verify;
 
@@ -57,13 +59,13 @@ class CLITest {
     }
 
     int runCommandLine(String... args) {
-        return new CommandLine(cli, new CommandFactory(DaggerCommandsComponent.builder()
+        return CLI.newCommandLine(cli, DaggerCommandsComponent.builder()
                 .adapterModule(new AdapterModule(null) {
                     @Override
                     protected NucleusAdapterIpc providesAdapter() {
                         return nucleusAdapterIpc;
                     }
-                }).build()))
+                }).build())
                 .execute(args);
     }
 
@@ -129,6 +131,19 @@ class CLITest {
         assertThat(exitCode, is(0));
     }
 
+    @Test
+    void GIVEN_args_naming_a_command_WHEN_new_command_line_THEN_only_that_command_is_registered() {
+        CommandsComponent commandsComponent = DaggerCommandsComponent.builder()
+                .adapterModule(new AdapterModule(null)).build();
+
+        assertThat(CLI.newCommandLine(new CLI(), commandsComponent, "--ggcRootPath", "/gg", "component", "list")
+                .getSubcommands().keySet(), containsInAnyOrder("help", "component"));
+        assertThat(CLI.newCommandLine(new CLI(), commandsComponent, "--version").getSubcommands().keySet(),
+                contains("help"));
+        assertThat(CLI.newCommandLine(new CLI(), commandsComponent, "help", "logs").getSubcommands().size(),
+                is(CLI.COMMANDS.size() + 1));
+    }
+
     @Test
     void missingCommand() {
         int exitCode = runCommandLine();
@@ -0,0 +1,31 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli;
+
+import com.aws.greengrass.cli.module.CommandsComponent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.lang.reflect.Method;
+
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class CommandFactoryTest {
+    @Mock
+    private CommandsComponent commandsComponent;
+
+    @Test
+    void GIVEN_commands_component_WHEN_create_each_command_THEN_component_method_is_used() throws Exception {
+        CommandFactory factory = new CommandFactory(commandsComponent);
+        for (Method method : CommandsComponent.class.getMethods()) {
+            factory.create(method.getReturnType());
+            method.invoke(verify(commandsComponent));
+        }
+    }
+}
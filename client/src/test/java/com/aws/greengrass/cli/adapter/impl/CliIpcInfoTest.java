@@ -0,0 +1,106 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.adapter.impl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CliIpcInfoTest {
+    private static final long OLD_MILLIS = 1594684800000L;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void GIVEN_unchanged_ipc_info_WHEN_load_again_THEN_cached_info_is_returned() throws IOException {
+        Path file = writeIpcInfo("any-client", "token1", "/socket1");
+
+        CliIpcInfo first = CliIpcInfo.load(tempDir);
+        assertThat(first.getToken(), is("token1"));
+        assertThat(first.getDomainSocketPath(), is("/socket1"));
+
+        // Same size and modification time, so the file is not read again.
+        Files.write(file, ipcInfo("token2", "/socket2").getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(OLD_MILLIS));
+        assertThat(CliIpcInfo.load(tempDir).getToken(), is("token1"));
+
+        CliIpcInfo.invalidate(tempDir);
+        assertThat(CliIpcInfo.load(tempDir).getToken(), is("token2"));
+    }
+
+    @Test
+    void GIVEN_rewritten_ipc_info_WHEN_load_again_THEN_new_info_is_returned() throws IOException {
+        Path file = writeIpcInfo("any-client", "token1", "/socket1");
+        assertThat(CliIpcInfo.load(tempDir).getToken(), is("token1"));
+
+        Files.write(file, ipcInfo("token2", "/socket2").getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(OLD_MILLIS + 1000));
+        assertThat(CliIpcInfo.load(tempDir).getToken(), is("token2"));
+    }
+
+    @Test
+    void GIVEN_no_ipc_info_WHEN_load_THEN_throws() {
+        assertThrows(IOException.class, () -> CliIpcInfo.load(tempDir.resolve("missing")));
+    }
+
+    @Test
+    void GIVEN_short_socket_path_WHEN_connect_path_THEN_socket_path_is_used() {
+        assertThat(new CliIpcInfo("token", "/greengrass/v2/ipc.socket").connectPath(),
+                is("/greengrass/v2/ipc.socket"));
+    }
+
+    @Test
+    void GIVEN_socket_paths_WHEN_link_name_THEN_name_is_sha256_prefix_of_path() {
+        // SHA-256 of "abc" starts with ba7816bf8f01cfea.
+        assertThat(CliIpcInfo.linkName("abc"), is("ipc-ba7816bf8f01cfea.socket"));
+        assertThat(CliIpcInfo.linkName("/greengrass/v2/ipc.socket"),
+                is(CliIpcInfo.linkName("/greengrass/v2/ipc.socket")));
+        assertThat(CliIpcInfo.linkName("/greengrass/v2/ipc.socket"),
+                not(CliIpcInfo.linkName("/greengrass/v3/ipc.socket")));
+    }
+
+    @Test
+    @DisabledOnOs(OS.WINDOWS)
+    void GIVEN_link_WHEN_ensure_link_THEN_link_is_reused_or_replaced() throws IOException {
+        Path link = tempDir.resolve("links").resolve("ipc.socket");
+        Path target1 = tempDir.resolve("socket1");
+        Path target2 = tempDir.resolve("socket2");
+
+        assertThat(CliIpcInfo.ensureLink(link, target1), is(link));
+        assertThat(Files.readSymbolicLink(link), is(target1));
+        assertThat(CliIpcInfo.ensureLink(link, target1), is(link));
+        assertThat(Files.readSymbolicLink(link), is(target1));
+
+        CliIpcInfo.ensureLink(link, target2);
+        assertThat(Files.readSymbolicLink(link), is(target2));
+        // Only the link is left, no temporary files.
+        assertThat(link.getParent().toFile().list().length, is(1));
+    }
+
+    private Path writeIpcInfo(String name, String token, String socketPath) throws IOException {
+        Path file = tempDir.resolve(name);
+        Files.write(file, ipcInfo(token, socketPath).getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, FileTime.fromMillis(OLD_MILLIS));
+        return file;
+    }
+
+    private static String ipcInfo(String token, String socketPath) {
+        return "{\"cli_auth_token\":\"" + token + "\",\"domain_socket_path\":\"" + socketPath + "\"}";
+    }
+}
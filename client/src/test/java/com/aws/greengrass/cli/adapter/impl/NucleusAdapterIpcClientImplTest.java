@@ -0,0 +1,89 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.adapter.impl;
+
+import com.aws.greengrass.cli.adapter.ComponentOperationResult;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.aws.greengrass.GetComponentDetailsResponseHandler;
+import software.amazon.awssdk.aws.greengrass.GreengrassCoreIPCClient;
+import software.amazon.awssdk.aws.greengrass.ListComponentsResponseHandler;
+import software.amazon.awssdk.aws.greengrass.model.ComponentDetails;
+import software.amazon.awssdk.aws.greengrass.model.GetComponentDetailsResponse;
+import software.amazon.awssdk.aws.greengrass.model.ListComponentsResponse;
+import software.amazon.awssdk.aws.greengrass.model.ResourceNotFoundError;
+import software.amazon.awssdk.aws.greengrass.model.RestartComponentResponse;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NucleusAdapterIpcClientImplTest {
+    @Mock
+    private GreengrassCoreIPCClient ipcClient;
+
+    @Test
+    void GIVEN_connected_WHEN_get_component_details_THEN_details_of_the_response_are_returned() throws Exception {
+        ComponentDetails details = new ComponentDetails();
+        details.setComponentName("A");
+        GetComponentDetailsResponse response = new GetComponentDetailsResponse();
+        response.setComponentDetails(details);
+        GetComponentDetailsResponseHandler handler = mock(GetComponentDetailsResponseHandler.class);
+        when(handler.getResponse()).thenReturn(CompletableFuture.completedFuture(response));
+        when(ipcClient.getComponentDetails(any(), any())).thenReturn(handler);
+        NucleusAdapterIpcClientImpl adapter = new NucleusAdapterIpcClientImpl(() -> null, false, () -> ipcClient);
+
+        assertThat(adapter.getComponentDetailsAsync("A").get().getComponentName(), is("A"));
+        assertThat(adapter.getComponentDetails("A").getComponentName(), is("A"));
+    }
+
+    @Test
+    void GIVEN_nucleus_returns_error_WHEN_list_components_THEN_future_fails_with_the_error() {
+        CompletableFuture<ListComponentsResponse> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new ResourceNotFoundError("not found"));
+        ListComponentsResponseHandler handler = mock(ListComponentsResponseHandler.class);
+        when(handler.getResponse()).thenReturn(failed);
+        when(ipcClient.listComponents(any(), any())).thenReturn(handler);
+        NucleusAdapterIpcClientImpl adapter = new NucleusAdapterIpcClientImpl(() -> null, false, () -> ipcClient);
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> adapter.listComponentsAsync().get());
+        assertThat(e.getCause(), instanceOf(ResourceNotFoundError.class));
+        RuntimeException blocking = assertThrows(RuntimeException.class, adapter::listComponents);
+        assertThat(blocking.getCause().getCause(), instanceOf(ResourceNotFoundError.class));
+    }
+
+    @Test
+    void GIVEN_connection_fails_WHEN_async_operations_THEN_futures_fail_instead_of_throwing() {
+        AtomicInteger attempts = new AtomicInteger();
+        NucleusAdapterIpcClientImpl adapter = new NucleusAdapterIpcClientImpl(() -> null, true, () -> {
+            attempts.incrementAndGet();
+            throw new RuntimeException("Unable to create ipc client");
+        });
+
+        CompletableFuture<RestartComponentResponse> response = adapter.restartComponentAsync("A");
+        assertThat(response.isCompletedExceptionally(), is(true));
+        ExecutionException e = assertThrows(ExecutionException.class, response::get);
+        assertThat(e.getCause().getMessage(), is("Unable to create ipc client"));
+
+        // Every request tries to connect again, and each component gets the error as its result.
+        List<ComponentOperationResult> results = adapter.restartComponents(2, "A", "B");
+        assertThat(results.get(0).getError(), is("Unable to create ipc client"));
+        assertThat(results.get(1).getError(), is("Unable to create ipc client"));
+        assertThat(attempts.get(), is(3));
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.commands;
+
+import com.aws.greengrass.cli.CLI;
+import com.aws.greengrass.cli.adapter.NucleusAdapterIpc;
+import com.aws.greengrass.cli.module.AdapterModule;
+import com.aws.greengrass.cli.module.DaggerCommandsComponent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class BatchCommandTest {
+    @TempDir
+    Path tempDir;
+    @Mock
+    private NucleusAdapterIpc nucleusAdapterIpc;
+
+    @Test
+    void GIVEN_batch_file_WHEN_run_THEN_commands_run_in_order_over_one_connection() throws IOException {
+        Path file = tempDir.resolve("commands.txt");
+        Files.write(file, Arrays.asList("# restart first", "component restart -n a", "",
+                "greengrass-cli component stop --names \"b, c\""));
+
+        int exitCode = runCommandLine("batch", "--file", file.toString());
+
+        assertThat(exitCode, is(0));
+        InOrder inOrder = inOrder(nucleusAdapterIpc);
+        inOrder.verify(nucleusAdapterIpc).setPersistent(true);
+        inOrder.verify(nucleusAdapterIpc).restartComponent("a");
+        inOrder.verify(nucleusAdapterIpc).stopComponent("b", "c");
+        inOrder.verify(nucleusAdapterIpc).setPersistent(false);
+    }
+
+    @Test
+    void GIVEN_batch_with_failing_command_WHEN_run_THEN_batch_stops_unless_keep_going() throws IOException {
+        Path file = tempDir.resolve("commands.txt");
+        Files.write(file, Arrays.asList("component unknown", "component restart -n a"));
+
+        assertThat(runCommandLine("batch", "--file", file.toString()), is(2));
+        verify(nucleusAdapterIpc, never()).restartComponent("a");
+
+        assertThat(runCommandLine("batch", "--file", file.toString(), "--keep-going"), is(2));
+        verify(nucleusAdapterIpc).restartComponent("a");
+    }
+
+    @Test
+    void GIVEN_line_setting_ggc_root_path_WHEN_run_THEN_line_is_rejected() throws IOException {
+        Path file = tempDir.resolve("commands.txt");
+        Files.write(file, Arrays.asList("--ggcRootPath /other component restart -n a",
+                "greengrass-cli --ggcRootPath=/other component restart -n b", "component restart -n c"));
+
+        assertThat(runCommandLine("batch", "--file", file.toString(), "--keep-going"), is(2));
+        verify(nucleusAdapterIpc, never()).restartComponent("a");
+        verify(nucleusAdapterIpc, never()).restartComponent("b");
+        verify(nucleusAdapterIpc).restartComponent("c");
+    }
+
+    @Test
+    void GIVEN_line_with_quotes_and_escapes_WHEN_tokenize_THEN_arguments_are_split_like_a_shell() {
+        assertThat(BatchCommand.tokenize("pubsub pub -t 'a b' -m \"{\\\"k\\\": 1}\" x\\ y # comment"),
+                contains("pubsub", "pub", "-t", "a b", "-m", "{\"k\": 1}", "x y"));
+        assertThat(BatchCommand.tokenize("  # only a comment"), is(empty()));
+        assertThat(BatchCommand.tokenize("a ''"), contains("a", ""));
+        assertThrows(IllegalArgumentException.class, () -> BatchCommand.tokenize("a 'b"));
+    }
+
+    private int runCommandLine(String... args) {
+        return CLI.newCommandLine(new CLI(),
+                DaggerCommandsComponent.builder().adapterModule(new AdapterModule(null) {
+                    @Override
+                    protected NucleusAdapterIpc providesAdapter() {
+                        return nucleusAdapterIpc;
+                    }
+                }).build()).execute(args);
+    }
+}
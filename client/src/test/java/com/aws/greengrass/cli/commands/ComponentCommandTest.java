@@ -11,7 +11,7 @@
 package com.aws.greengrass.cli.commands;
 
 import com.aws.greengrass.cli.CLI;
-import com.aws.greengrass.cli.CommandFactory;
+import com.aws.greengrass.cli.adapter.ComponentOperationResult;
 import com.aws.greengrass.cli.adapter.NucleusAdapterIpc;
 import com.aws.greengrass.cli.module.AdapterModule;
 import com.aws.greengrass.cli.module.DaggerCommandsComponent;
@@ -19,21 +19,25 @@ import com.aws.greengrass.cli.module.DaggerCommandsComponent;
 import org.hamcrest.core.StringContains;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import picocli.CommandLine;
 import software.amazon.awssdk.aws.greengrass.model.ComponentDetails;
 import software.amazon.awssdk.aws.greengrass.model.LifecycleState;
 
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.Arrays;
 import java.util.Collections;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.matchesPattern;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.only;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -126,13 +130,74 @@ class ComponentCommandTest {
         assertThat(exitCode, is(0));
     }
 
+    @Test
+    void GIVEN_interval_below_minimum_WHEN_list_watch_THEN_rejected_without_polling() {
+        assertThat(runCommandLine("component", "list", "--watch", "--interval", "0"), is(2));
+        assertThat(runCommandLine("component", "list", "--watch", "--interval", "-1"), is(2));
+        assertThat(runCommandLine("component", "list", "--watch", "--interval", "0.05"), is(2));
+        verifyNoInteractions(nucleusAdapteripc);
+    }
+
+    @Test
+    void GIVEN_concurrency_WHEN_restart_components_THEN_result_of_each_component_is_printed() {
+        when(nucleusAdapteripc.restartComponents(4, "a", "b")).thenReturn(Arrays.asList(
+                new ComponentOperationResult("a", null, 12),
+                new ComponentOperationResult("b", "Component not found", 7)));
+
+        ByteArrayOutputStream outputCaptor = new ByteArrayOutputStream();
+        PrintStream old = System.out;
+        System.setOut(new PrintStream(outputCaptor));
+        int exitCode = runCommandLine("component", "restart", "-n", "a,b", "--concurrency", "4");
+        System.out.flush();
+        System.setOut(old);
+
+        assertThat(exitCode, is(1));
+        String output = outputCaptor.toString();
+        assertThat(output, StringContains.containsString("a: restart succeeded in 12 ms"));
+        assertThat(output, StringContains.containsString("b: restart failed after 7 ms: Component not found"));
+    }
+
+    @Test
+    void GIVEN_wait_WHEN_restart_components_THEN_waits_until_components_run_again() {
+        when(nucleusAdapteripc.restartComponents(2, "a", "b")).thenReturn(Arrays.asList(
+                new ComponentOperationResult("a", null, 3), new ComponentOperationResult("b", null, 4)));
+        when(nucleusAdapteripc.listComponents()).thenReturn(
+                Arrays.asList(componentDetails("a", LifecycleState.STOPPING),
+                        componentDetails("b", LifecycleState.STARTING)),
+                Arrays.asList(componentDetails("a", LifecycleState.RUNNING),
+                        componentDetails("b", LifecycleState.BROKEN)));
+
+        ByteArrayOutputStream outputCaptor = new ByteArrayOutputStream();
+        PrintStream old = System.out;
+        System.setOut(new PrintStream(outputCaptor));
+        int exitCode = runCommandLine("component", "restart", "-n", "a,b", "--wait", "--timeout", "10");
+        System.out.flush();
+        System.setOut(old);
+
+        assertThat(exitCode, is(1));
+        String output = outputCaptor.toString();
+        assertThat(output, StringContains.containsString("Component"));
+        assertThat(output, matchesPattern("(?s).*a\\s+RUNNING\\s+done\\s+\\d+ ms.*"));
+        assertThat(output, matchesPattern("(?s).*b\\s+BROKEN\\s+failed\\s+\\d+ ms.*"));
+        InOrder inOrder = inOrder(nucleusAdapteripc);
+        inOrder.verify(nucleusAdapteripc).setPersistent(true);
+        inOrder.verify(nucleusAdapteripc).setPersistent(false);
+    }
+
+    private static ComponentDetails componentDetails(String name, LifecycleState state) {
+        ComponentDetails componentDetails = new ComponentDetails();
+        componentDetails.setComponentName(name);
+        componentDetails.setState(state);
+        return componentDetails;
+    }
+
     private int runCommandLine(String... args) {
-        return new CommandLine(new CLI(), new CommandFactory(
+        return CLI.newCommandLine(new CLI(),
                 DaggerCommandsComponent.builder().adapterModule(new AdapterModule(null) {
                     @Override
                     protected NucleusAdapterIpc providesAdapter() {
                         return nucleusAdapteripc;
                     }
-                }).build())).execute(args);
+                }).build()).execute(args);
     }
 }
@@ -6,7 +6,6 @@
 package com.aws.greengrass.cli.commands;
 
 import com.aws.greengrass.cli.CLI;
-import com.aws.greengrass.cli.CommandFactory;
 import com.aws.greengrass.cli.adapter.NucleusAdapterIpc;
 import com.aws.greengrass.cli.module.AdapterModule;
 import com.aws.greengrass.cli.module.DaggerCommandsComponent;
@@ -18,14 +17,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import picocli.CommandLine;
 import software.amazon.awssdk.aws.greengrass.model.CancelLocalDeploymentRequest;
 import software.amazon.awssdk.aws.greengrass.model.CreateLocalDeploymentRequest;
+import software.amazon.awssdk.aws.greengrass.model.DeploymentStatus;
 import software.amazon.awssdk.aws.greengrass.model.FailureHandlingPolicy;
+import software.amazon.awssdk.aws.greengrass.model.LocalDeployment;
 import software.amazon.awssdk.aws.greengrass.model.RunWithInfo;
 import software.amazon.awssdk.aws.greengrass.model.SystemResourceLimits;
 
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
 import java.nio.file.Paths;
+import java.time.Instant;
 import java.util.Arrays;
 
 import java.util.HashMap;
@@ -33,10 +36,14 @@ import java.util.Map;
 
 import static com.aws.greengrass.cli.adapter.impl.NucleusAdapterIpcClientImpl.deTilde;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class DeploymentCommandTest {
@@ -212,14 +219,91 @@ class DeploymentCommandTest {
         assertThat(exitCode, is(2));
     }
 
+    @Test
+    void GIVEN_deployment_list_WHEN_status_and_limit_provided_THEN_matching_page_and_next_token_printed() {
+        when(nucleusAdapteripc.listLocalDeployments()).thenReturn(Arrays.asList(
+                localDeployment("id1", DeploymentStatus.SUCCEEDED, "01-01-2021 00:00:00 UTC"),
+                localDeployment("id2", DeploymentStatus.FAILED, "02-01-2021 00:00:00 UTC"),
+                localDeployment("id3", DeploymentStatus.SUCCEEDED, "03-01-2021 00:00:00 UTC"),
+                localDeployment("id4", DeploymentStatus.SUCCEEDED, "04-01-2021 00:00:00 UTC")));
+
+        String output = captureOutput("deployment", "list", "--status", "SUCCEEDED", "-n", "2");
+        assertThat(output, containsString("Deployment ID: id1"));
+        assertThat(output, not(containsString("id2")));
+        assertThat(output, containsString("Deployment ID: id3"));
+        assertThat(output, not(containsString("Deployment ID: id4")));
+        assertThat(output, containsString("Next token: 1609632000_id3"));
+
+        output = captureOutput("deployment", "list", "--status", "SUCCEEDED", "-n", "2", "--next-token",
+                "1609632000_id3");
+        assertThat(output, containsString("Deployment ID: id4"));
+        assertThat(output, not(containsString("Next token")));
+
+        output = captureOutput("deployment", "list", "--created-after", "2021-01-02T12:00:00Z");
+        assertThat(output, not(containsString("id2")));
+        assertThat(output, containsString("Deployment ID: id3"));
+    }
+
+    @Test
+    void GIVEN_deployment_of_next_token_removed_WHEN_list_THEN_page_continues_after_its_position() {
+        when(nucleusAdapteripc.listLocalDeployments()).thenReturn(Arrays.asList(
+                localDeployment("id1", DeploymentStatus.SUCCEEDED, "01-01-2021 00:00:00 UTC"),
+                localDeployment("id4", DeploymentStatus.SUCCEEDED, "03-01-2021 00:00:00 UTC"),
+                localDeployment("id5", DeploymentStatus.SUCCEEDED, "04-01-2021 00:00:00 UTC")));
+
+        // id3, created on 03-01-2021, was removed since the previous page
+        String output = captureOutput("deployment", "list", "-n", "1", "--next-token", "1609632000_id3");
+        assertThat(output, not(containsString("id1")));
+        assertThat(output, containsString("Deployment ID: id4"));
+        assertThat(output, containsString("Next token: 1609632000_id4"));
+    }
+
+    @Test
+    void GIVEN_invalid_created_after_or_next_token_WHEN_list_THEN_exit_code_is_2() {
+        assertThat(runCommandLine("deployment", "list", "--created-after", "yesterday"), is(2));
+        assertThat(runCommandLine("deployment", "list", "--next-token", "id3"), is(2));
+        verify(nucleusAdapteripc, never()).listLocalDeployments();
+    }
+
+    @Test
+    void GIVEN_created_after_age_WHEN_parsed_THEN_time_is_relative_to_now() {
+        Instant now = Instant.parse("2021-01-02T00:00:00Z");
+        assertThat(DeploymentCommand.parseCreatedAfter("12h", now), is(Instant.parse("2021-01-01T12:00:00Z")));
+        assertThat(DeploymentCommand.parseCreatedAfter("1d", now), is(Instant.parse("2021-01-01T00:00:00Z")));
+        assertThat(DeploymentCommand.parseCreatedAfter("2020-12-31T00:00:00Z", now),
+                is(Instant.parse("2020-12-31T00:00:00Z")));
+        assertThrows(IllegalArgumentException.class, () -> DeploymentCommand.parseCreatedAfter("yesterday", now));
+    }
+
+    private String captureOutput(String... args) {
+        ByteArrayOutputStream outputCaptor = new ByteArrayOutputStream();
+        PrintStream old = System.out;
+        System.setOut(new PrintStream(outputCaptor));
+        try {
+            assertThat(runCommandLine(args), is(0));
+        } finally {
+            System.out.flush();
+            System.setOut(old);
+        }
+        return outputCaptor.toString();
+    }
+
+    private static LocalDeployment localDeployment(String deploymentId, DeploymentStatus status, String createdOn) {
+        LocalDeployment localDeployment = new LocalDeployment();
+        localDeployment.setDeploymentId(deploymentId);
+        localDeployment.setStatus(status);
+        localDeployment.setCreatedOn(createdOn);
+        return localDeployment;
+    }
+
     private int runCommandLine(String... args) {
-        return new CommandLine(new CLI(), new CommandFactory(DaggerCommandsComponent.builder()
+        return CLI.newCommandLine(new CLI(), DaggerCommandsComponent.builder()
                 .adapterModule(new AdapterModule(null) {
                     @Override
                     protected NucleusAdapterIpc providesAdapter() {
                         return nucleusAdapteripc;
                     }
                 }).build()
-        )).execute(args);
+        ).execute(args);
     }
 }
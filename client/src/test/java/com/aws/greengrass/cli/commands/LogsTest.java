@@ -6,7 +6,6 @@
 package com.aws.greengrass.cli.commands;
 
 import com.aws.greengrass.cli.CLI;
-import com.aws.greengrass.cli.CommandFactory;
 import com.aws.greengrass.cli.TestUtil;
 import com.aws.greengrass.cli.module.AdapterModule;
 import com.aws.greengrass.cli.module.DaggerCommandsComponent;
@@ -15,7 +14,6 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
-import picocli.CommandLine;
 
 import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
@@ -255,6 +253,6 @@ public class LogsTest {
     }
 
     private void runCommandLine(String... args) {
-        new CommandLine(new CLI(), new CommandFactory(DaggerCommandsComponent.builder().adapterModule(new AdapterModule(null)).build())).execute(args);
+        CLI.newCommandLine(new CLI(), DaggerCommandsComponent.builder().adapterModule(new AdapterModule(null)).build()).execute(args);
     }
 }
@@ -0,0 +1,322 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.commands.topic;
+
+import com.aws.greengrass.cli.CLI;
+import com.aws.greengrass.cli.adapter.NucleusAdapterIpc;
+import com.aws.greengrass.cli.module.AdapterModule;
+import com.aws.greengrass.cli.module.DaggerCommandsComponent;
+import com.aws.greengrass.cli.util.pubsub.CaptureReader;
+import com.aws.greengrass.cli.util.pubsub.CaptureRecord;
+import com.aws.greengrass.cli.util.pubsub.CaptureWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.aws.greengrass.model.BinaryMessage;
+import software.amazon.awssdk.aws.greengrass.model.IoTCoreMessage;
+import software.amazon.awssdk.aws.greengrass.model.MQTTMessage;
+import software.amazon.awssdk.aws.greengrass.model.PublishToIoTCoreResponse;
+import software.amazon.awssdk.aws.greengrass.model.PublishToTopicResponse;
+import software.amazon.awssdk.aws.greengrass.model.QOS;
+import software.amazon.awssdk.aws.greengrass.model.SubscribeToIoTCoreResponse;
+import software.amazon.awssdk.aws.greengrass.model.SubscribeToTopicResponse;
+import software.amazon.awssdk.aws.greengrass.model.SubscriptionResponseMessage;
+import software.amazon.awssdk.eventstreamrpc.StreamResponseHandler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PubSubCommandTest {
+    private static final String TOPIC = "a/b";
+
+    @Mock
+    private NucleusAdapterIpc nucleusAdapterIpc;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void GIVEN_message_file_WHEN_pub_from_file_THEN_every_line_is_published_on_one_connection() throws IOException {
+        Path file = tempDir.resolve("messages.txt");
+        Files.write(file, Arrays.asList("one", "", "two", "three"));
+        when(nucleusAdapterIpc.publishToTopicAsync(eq(TOPIC), any()))
+                .thenReturn(CompletableFuture.completedFuture(new PublishToTopicResponse()));
+
+        String output = captureOutput(() -> assertThat(
+                runCommandLine("pubsub", "pub", "-t", TOPIC, "--from", file.toString(), "-w", "2"), is(0)));
+
+        ArgumentCaptor<byte[]> messages = ArgumentCaptor.forClass(byte[].class);
+        verify(nucleusAdapterIpc, times(3)).publishToTopicAsync(eq(TOPIC), messages.capture());
+        assertThat(new String(messages.getAllValues().get(2), StandardCharsets.UTF_8), is("three"));
+        verify(nucleusAdapterIpc).setPersistent(true);
+        verify(nucleusAdapterIpc).setPersistent(false);
+        assertThat(output, containsString("Published 3 of 3 messages"));
+        assertThat(output, containsString("p99"));
+    }
+
+    @Test
+    void GIVEN_ndjson_file_WHEN_pub_from_file_THEN_lines_are_published_as_json() throws IOException {
+        Path file = tempDir.resolve("messages.ndjson");
+        Files.write(file, Arrays.asList("{\"n\":1}", "not json"));
+        when(nucleusAdapterIpc.publishJsonToTopicAsync(eq(TOPIC), any()))
+                .thenReturn(CompletableFuture.completedFuture(new PublishToTopicResponse()));
+
+        String output = captureOutput(() -> assertThat(
+                runCommandLine("pubsub", "pub", "-t", TOPIC, "--from", file.toString(), "--ndjson"), is(1)));
+
+        verify(nucleusAdapterIpc).publishJsonToTopicAsync(TOPIC, Collections.<String, Object>singletonMap("n", 1));
+        assertThat(output, containsString("Published 1 of 2 messages"));
+        assertThat(output, containsString("Invalid JSON object"));
+    }
+
+    @Test
+    void GIVEN_failed_publish_WHEN_iotcore_pub_from_file_THEN_failure_is_reported() throws IOException {
+        Path file = tempDir.resolve("messages.txt");
+        Files.write(file, Arrays.asList("one", "two"));
+        CompletableFuture<PublishToIoTCoreResponse> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new RuntimeException("throttled"));
+        when(nucleusAdapterIpc.publishToIoTCoreAsync(eq(TOPIC), any(), eq(QOS.AT_LEAST_ONCE)))
+                .thenReturn(CompletableFuture.completedFuture(new PublishToIoTCoreResponse()), failed);
+
+        String output = captureOutput(() -> assertThat(
+                runCommandLine("iotcore", "pub", "-t", TOPIC, "-q", "1", "--from", file.toString()), is(1)));
+
+        assertThat(output, containsString("Published 1 of 2 messages"));
+        assertThat(output, containsString("first error: throttled"));
+    }
+
+    @Test
+    void GIVEN_binary_file_WHEN_pub_THEN_file_bytes_are_published_unchanged() throws IOException {
+        byte[] content = {(byte) 0xff, (byte) 0xfe, 0, (byte) 0x80};
+        Path file = tempDir.resolve("firmware.bin");
+        Files.write(file, content);
+
+        assertThat(runCommandLine("pubsub", "pub", "-t", TOPIC, "-m", file.toString()), is(0));
+        assertThat(runCommandLine("iotcore", "pub", "-t", TOPIC, "-m", file.toString()), is(0));
+        assertThat(runCommandLine("pubsub", "pub", "-t", TOPIC, "-m", "text"), is(0));
+
+        verify(nucleusAdapterIpc).publishToTopic(TOPIC, content);
+        verify(nucleusAdapterIpc).publishToIoTCore(TOPIC, content, "0");
+        verify(nucleusAdapterIpc).publishToTopic(TOPIC, "text".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void GIVEN_message_and_file_WHEN_pub_THEN_nothing_is_published() {
+        assertThat(runCommandLine("pubsub", "pub", "-t", TOPIC, "-m", "x", "--from", "-"), is(2));
+        assertThat(runCommandLine("pubsub", "pub", "-t", TOPIC), is(2));
+        verify(nucleusAdapterIpc, never()).publishToTopic(any(), any(byte[].class));
+    }
+
+    @Test
+    void GIVEN_topics_and_topic_file_WHEN_sub_THEN_all_topics_are_subscribed_at_once() throws IOException {
+        Path file = tempDir.resolve("topics.txt");
+        Files.write(file, Arrays.asList("# sensors", "c/+", "", TOPIC));
+
+        assertThat(runCommandLine("pubsub", "sub", "-t", TOPIC, "-t", "b", "--topic-file", file.toString()), is(0));
+        assertThat(runCommandLine("iotcore", "sub", "-t", "x/#", "-q", "1"), is(0));
+
+        verify(nucleusAdapterIpc).subscribeToTopics(Arrays.asList(TOPIC, "b", "c/+"));
+        verify(nucleusAdapterIpc).subscribeToIoTCore(Collections.singletonList("x/#"), "1");
+    }
+
+    @Test
+    void GIVEN_no_topic_WHEN_sub_THEN_nothing_is_subscribed() throws IOException {
+        assertThat(runCommandLine("pubsub", "sub"), is(2));
+        verify(nucleusAdapterIpc, never()).subscribeToTopics(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void GIVEN_messages_echoed_WHEN_bench_THEN_latency_is_reported_without_drops() {
+        ArgumentCaptor<StreamResponseHandler<SubscriptionResponseMessage>> handler =
+                ArgumentCaptor.forClass(StreamResponseHandler.class);
+        when(nucleusAdapterIpc.subscribeToTopicAsync(eq(TOPIC), handler.capture()))
+                .thenReturn(CompletableFuture.completedFuture(new SubscribeToTopicResponse()));
+        when(nucleusAdapterIpc.publishToTopicAsync(eq(TOPIC), any())).thenAnswer(invocation -> {
+            SubscriptionResponseMessage message = new SubscriptionResponseMessage();
+            BinaryMessage binaryMessage = new BinaryMessage();
+            binaryMessage.setMessage(invocation.getArgument(1));
+            message.setBinaryMessage(binaryMessage);
+            handler.getValue().onStreamEvent(message);
+            // Duplicates are counted but not recorded twice.
+            handler.getValue().onStreamEvent(message);
+            return CompletableFuture.completedFuture(new PublishToTopicResponse());
+        });
+
+        String output = captureOutput(() -> assertThat(
+                runCommandLine("pubsub", "bench", "-t", TOPIC, "-n", "100", "-s", "32", "-c", "4"), is(0)));
+
+        ArgumentCaptor<byte[]> messages = ArgumentCaptor.forClass(byte[].class);
+        verify(nucleusAdapterIpc, times(100)).publishToTopicAsync(eq(TOPIC), messages.capture());
+        assertThat(messages.getValue().length, is(32));
+        assertThat(output, containsString("Published 100 of 100 messages"));
+        assertThat(output, containsString("Received 100 of 100 messages of 32 bytes"));
+        assertThat(output, containsString("0 dropped, 100 duplicates"));
+        assertThat(output, containsString("End-to-end latency mean"));
+    }
+
+    @Test
+    void GIVEN_messages_not_delivered_WHEN_bench_THEN_drops_are_reported() {
+        when(nucleusAdapterIpc.subscribeToTopicAsync(any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new SubscribeToTopicResponse()));
+        when(nucleusAdapterIpc.publishToTopicAsync(any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new PublishToTopicResponse()));
+
+        String output = captureOutput(() -> assertThat(
+                runCommandLine("pubsub", "bench", "-n", "10", "--drain", "0"), is(1)));
+
+        assertThat(output, containsString("Benchmarking topic greengrass-cli/bench/"));
+        assertThat(output, containsString("Received 0 of 10 messages"));
+        assertThat(output, containsString("10 dropped"));
+    }
+
+    @Test
+    void GIVEN_capture_file_WHEN_replay_THEN_messages_are_published_to_their_topics() throws IOException {
+        Path file = tempDir.resolve("capture.bin");
+        try (CaptureWriter writer = new CaptureWriter(Files.newOutputStream(file), 16)) {
+            writer.append(TOPIC, false, "one".getBytes(StandardCharsets.UTF_8));
+            writer.append("c", true, "{\"n\":2}".getBytes(StandardCharsets.UTF_8));
+        }
+        when(nucleusAdapterIpc.publishToTopicAsync(any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new PublishToTopicResponse()));
+        when(nucleusAdapterIpc.publishJsonToTopicAsync(any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new PublishToTopicResponse()));
+
+        String output = captureOutput(() -> assertThat(
+                runCommandLine("pubsub", "replay", "-i", file.toString(), "-x", "0"), is(0)));
+
+        verify(nucleusAdapterIpc).publishToTopicAsync(TOPIC, "one".getBytes(StandardCharsets.UTF_8));
+        verify(nucleusAdapterIpc).publishJsonToTopicAsync("c", Collections.<String, Object>singletonMap("n", 2));
+        assertThat(output, containsString("Published 2 of 2 messages"));
+    }
+
+    @Test
+    void GIVEN_messages_on_topic_WHEN_record_with_count_THEN_capture_holds_that_many() throws IOException {
+        when(nucleusAdapterIpc.subscribeToTopicAsync(eq(TOPIC), any())).thenAnswer(invocation -> {
+            StreamResponseHandler<SubscriptionResponseMessage> handler = invocation.getArgument(1);
+            for (int i = 0; i < 3; i++) {
+                BinaryMessage binaryMessage = new BinaryMessage();
+                binaryMessage.setMessage(new byte[]{(byte) i});
+                SubscriptionResponseMessage message = new SubscriptionResponseMessage();
+                message.setBinaryMessage(binaryMessage);
+                handler.onStreamEvent(message);
+            }
+            return CompletableFuture.completedFuture(new SubscribeToTopicResponse());
+        });
+        Path file = tempDir.resolve("capture.bin");
+
+        String output = captureOutput(() -> assertThat(
+                runCommandLine("pubsub", "record", "-t", TOPIC, "-o", file.toString(), "-n", "2"), is(0)));
+
+        assertThat(output, containsString("Recorded 2 messages"));
+        try (CaptureReader reader = new CaptureReader(Files.newInputStream(file))) {
+            assertThat(reader.next().getPayload(), is(new byte[]{0}));
+            CaptureRecord second = reader.next();
+            assertThat(second.getTopic(), is(TOPIC));
+            assertThat(second.getPayload(), is(new byte[]{1}));
+            assertThat(reader.next(), is(nullValue()));
+        }
+    }
+
+    @Test
+    void GIVEN_capture_file_WHEN_iotcore_replay_with_qos_THEN_payloads_are_published_to_iot_core()
+            throws IOException {
+        Path file = tempDir.resolve("capture.bin");
+        try (CaptureWriter writer = new CaptureWriter(Files.newOutputStream(file), 16)) {
+            writer.append(TOPIC, false, "one".getBytes(StandardCharsets.UTF_8));
+            writer.append("c", true, "{\"n\":2}".getBytes(StandardCharsets.UTF_8));
+        }
+        when(nucleusAdapterIpc.publishToIoTCoreAsync(any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new PublishToIoTCoreResponse()));
+
+        String output = captureOutput(() -> assertThat(
+                runCommandLine("iotcore", "replay", "-i", file.toString(), "-x", "0", "--qos", "1"), is(0)));
+
+        verify(nucleusAdapterIpc).publishToIoTCoreAsync(TOPIC, "one".getBytes(StandardCharsets.UTF_8),
+                QOS.AT_LEAST_ONCE);
+        verify(nucleusAdapterIpc).publishToIoTCoreAsync("c", "{\"n\":2}".getBytes(StandardCharsets.UTF_8),
+                QOS.AT_LEAST_ONCE);
+        assertThat(output, containsString("Published 2 of 2 messages"));
+    }
+
+    @Test
+    void GIVEN_messages_on_iot_core_WHEN_iotcore_record_THEN_capture_holds_binary_records_of_their_topics()
+            throws IOException {
+        when(nucleusAdapterIpc.subscribeToIoTCoreAsync(eq("a/#"), eq(QOS.AT_LEAST_ONCE), any()))
+                .thenAnswer(invocation -> {
+                    StreamResponseHandler<IoTCoreMessage> handler = invocation.getArgument(2);
+                    for (int i = 0; i < 2; i++) {
+                        MQTTMessage mqttMessage = new MQTTMessage();
+                        mqttMessage.setTopicName("a/" + i);
+                        mqttMessage.setPayload(new byte[]{(byte) i});
+                        IoTCoreMessage message = new IoTCoreMessage();
+                        message.setMessage(mqttMessage);
+                        handler.onStreamEvent(message);
+                    }
+                    return CompletableFuture.completedFuture(new SubscribeToIoTCoreResponse());
+                });
+        Path file = tempDir.resolve("capture.bin");
+
+        String output = captureOutput(() -> assertThat(runCommandLine("iotcore", "record", "-t", "a/#", "-o",
+                file.toString(), "-n", "2", "-q", "1"), is(0)));
+
+        assertThat(output, containsString("Recorded 2 messages"));
+        try (CaptureReader reader = new CaptureReader(Files.newInputStream(file))) {
+            CaptureRecord first = reader.next();
+            assertThat(first.getTopic(), is("a/0"));
+            assertThat(first.isJson(), is(false));
+            assertThat(first.getPayload(), is(new byte[]{0}));
+            assertThat(reader.next().getTopic(), is("a/1"));
+            assertThat(reader.next(), is(nullValue()));
+        }
+    }
+
+    private String captureOutput(Runnable runnable) {
+        ByteArrayOutputStream outputCaptor = new ByteArrayOutputStream();
+        PrintStream old = System.out;
+        System.setOut(new PrintStream(outputCaptor));
+        try {
+            runnable.run();
+        } finally {
+            System.out.flush();
+            System.setOut(old);
+        }
+        return outputCaptor.toString();
+    }
+
+    private int runCommandLine(String... args) {
+        return CLI.newCommandLine(new CLI(),
+                DaggerCommandsComponent.builder().adapterModule(new AdapterModule(null) {
+                    @Override
+                    protected NucleusAdapterIpc providesAdapter() {
+                        return nucleusAdapterIpc;
+                    }
+                }).build()).execute(args);
+    }
+}
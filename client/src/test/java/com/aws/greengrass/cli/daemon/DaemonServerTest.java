@@ -0,0 +1,199 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.daemon;
+
+import com.aws.greengrass.cli.adapter.NucleusAdapterIpc;
+import com.aws.greengrass.cli.module.AdapterModule;
+import com.aws.greengrass.cli.module.DaggerCommandsComponent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class DaemonServerTest {
+    private static final String GGC_ROOT_PATH = "/greengrass/v2";
+
+    @TempDir
+    Path tempDir;
+    @Mock
+    private NucleusAdapterIpc nucleusAdapterIpc;
+
+    private Path infoFile;
+    private DaemonServer server;
+    private Thread serverThread;
+
+    @BeforeEach
+    void startServer() throws IOException, InterruptedException {
+        infoFile = tempDir.resolve("daemon.json");
+        server = new DaemonServer(DaggerCommandsComponent.builder().adapterModule(new AdapterModule(null) {
+            @Override
+            protected NucleusAdapterIpc providesAdapter() {
+                return nucleusAdapterIpc;
+            }
+        }).build(), GGC_ROOT_PATH, infoFile);
+        serverThread = new Thread(() -> {
+            try {
+                server.serve();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        serverThread.start();
+        while (!Files.exists(infoFile)) {
+            Thread.sleep(10);
+        }
+    }
+
+    @AfterEach
+    void stopServer() throws InterruptedException {
+        server.close();
+        serverThread.join();
+    }
+
+    @Test
+    void GIVEN_daemon_running_WHEN_run_component_restart_THEN_command_runs_in_daemon() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Integer exitCode = DaemonClient.tryRun(infoFile, new String[]{"--ggcRootPath", GGC_ROOT_PATH, "component",
+                "restart", "-n", "a,b"}, new PrintStream(out), System.err);
+
+        assertThat(exitCode, is(0));
+        verify(nucleusAdapterIpc).restartComponent("a", "b");
+    }
+
+    @Test
+    void GIVEN_daemon_running_WHEN_run_with_missing_option_THEN_usage_is_relayed() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Integer exitCode = DaemonClient.tryRun(infoFile, new String[]{"--ggcRootPath", GGC_ROOT_PATH, "component",
+                "restart"}, new PrintStream(out), new PrintStream(out));
+
+        assertThat(exitCode, is(2));
+        assertThat(out.toString(), containsString("Missing required option"));
+        verifyNoInteractions(nucleusAdapterIpc);
+    }
+
+    @Test
+    void GIVEN_command_running_WHEN_other_runs_and_client_leaves_THEN_both_run_and_first_is_interrupted()
+            throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new RuntimeException(e);
+            }
+            return null;
+        }).when(nucleusAdapterIpc).getComponentDetails("slow");
+        DaemonInfo info = DaemonInfo.read(infoFile);
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), info.getPort());
+             DataOutputStream request = new DataOutputStream(socket.getOutputStream())) {
+            DaemonProtocol.writeString(request, info.getToken());
+            request.writeByte(DaemonProtocol.REQUEST_RUN);
+            DaemonProtocol.writeString(request, tempDir.toString());
+            String[] args = {"--ggcRootPath", GGC_ROOT_PATH, "component", "details", "-n", "slow"};
+            request.writeInt(args.length);
+            for (String arg : args) {
+                DaemonProtocol.writeString(request, arg);
+            }
+            request.flush();
+            assertThat(started.await(10, TimeUnit.SECONDS), is(true));
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertThat(DaemonClient.tryRun(infoFile, new String[]{"--ggcRootPath", GGC_ROOT_PATH, "component",
+                    "restart", "-n", "b"}, new PrintStream(out), new PrintStream(out)), is(0));
+            verify(nucleusAdapterIpc).restartComponent("b");
+        }
+        assertThat(interrupted.await(10, TimeUnit.SECONDS), is(true));
+    }
+
+    @Test
+    void GIVEN_daemon_running_WHEN_root_path_or_command_differs_THEN_command_runs_locally() {
+        assertThat(DaemonClient.tryRun(infoFile, new String[]{"--ggcRootPath", "/other", "component", "list"},
+                System.out, System.err), is(nullValue()));
+        assertThat(DaemonClient.tryRun(infoFile, new String[]{"--ggcRootPath", GGC_ROOT_PATH, "logs", "get"},
+                System.out, System.err), is(nullValue()));
+        verifyNoInteractions(nucleusAdapterIpc);
+    }
+
+    @Test
+    void GIVEN_daemon_running_WHEN_run_component_list_watch_THEN_command_runs_locally() {
+        assertThat(DaemonClient.tryRun(infoFile, new String[]{"--ggcRootPath", GGC_ROOT_PATH, "component", "list",
+                "--watch"}, System.out, System.err), is(nullValue()));
+        assertThat(DaemonClient.tryRun(infoFile, new String[]{"--ggcRootPath", GGC_ROOT_PATH, "component", "list",
+                "-w", "-i", "5"}, System.out, System.err), is(nullValue()));
+        verifyNoInteractions(nucleusAdapterIpc);
+    }
+
+    @Test
+    void GIVEN_short_option_of_other_command_WHEN_checking_for_watch_THEN_command_is_served() {
+        assertThat(DaemonClient.runsUntilInterrupted(new String[]{"component", "restart", "--names", "list",
+                "-w"}), is(false));
+        assertThat(DaemonClient.runsUntilInterrupted(new String[]{"component", "list", "-i", "5", "-w"}), is(true));
+        assertThat(DaemonClient.runsUntilInterrupted(new String[]{"component", "list"}), is(false));
+    }
+
+    @Test
+    void GIVEN_info_file_with_wrong_token_WHEN_run_THEN_command_runs_locally() throws IOException {
+        DaemonInfo info = DaemonInfo.read(infoFile);
+        info.setToken("wrong");
+        Path wrongInfoFile = tempDir.resolve("wrong.json");
+        info.write(wrongInfoFile);
+
+        assertThat(DaemonClient.tryRun(wrongInfoFile, new String[]{"--ggcRootPath", GGC_ROOT_PATH, "component",
+                "restart", "-n", "a"}, System.out, System.err), is(nullValue()));
+        verifyNoInteractions(nucleusAdapterIpc);
+    }
+
+    @Test
+    void GIVEN_daemon_running_WHEN_token_is_too_long_THEN_connection_is_closed_without_reading_it()
+            throws IOException {
+        DaemonInfo info = DaemonInfo.read(infoFile);
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), info.getPort());
+             DataOutputStream out = new DataOutputStream(socket.getOutputStream())) {
+            socket.setSoTimeout(10_000);
+            out.writeInt(DaemonProtocol.MAX_TOKEN_LENGTH + 1);
+            out.flush();
+
+            assertThat(socket.getInputStream().read(), is(-1));
+        }
+        verifyNoInteractions(nucleusAdapterIpc);
+    }
+
+    @Test
+    void GIVEN_daemon_running_WHEN_stop_THEN_info_file_is_removed() throws InterruptedException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertThat(DaemonClient.control(infoFile, DaemonProtocol.REQUEST_STOP, new PrintStream(out)), is(0));
+        serverThread.join();
+
+        assertThat(out.toString(), containsString("stopped"));
+        assertThat(Files.exists(infoFile), is(false));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.util;
+
+import com.aws.greengrass.cli.adapter.NucleusAdapterIpc;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.aws.greengrass.model.ComponentDetails;
+import software.amazon.awssdk.aws.greengrass.model.LifecycleState;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ComponentWatcherTest {
+    private static final String T = "12:00:00";
+
+    @Mock
+    private NucleusAdapterIpc nucleusAdapterIpc;
+
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @Test
+    void GIVEN_components_change_WHEN_polled_THEN_only_changes_are_printed() {
+        ComponentWatcher watcher = new ComponentWatcher(nucleusAdapterIpc, false, new PrintStream(output));
+
+        assertThat(watcher.update(Arrays.asList(component("A", "1.0.0", LifecycleState.RUNNING, "x"),
+                component("B", "1.0.0", LifecycleState.RUNNING, "x")), T), is(true));
+        assertThat(output.toString(), containsString(T + "  A  1.0.0 RUNNING"));
+        output.reset();
+
+        // Configuration is not watched unless asked for.
+        assertThat(watcher.update(Arrays.asList(component("A", "1.0.0", LifecycleState.RUNNING, "y"),
+                component("B", "1.0.0", LifecycleState.RUNNING, "x")), T), is(false));
+        assertThat(output.size(), is(0));
+
+        assertThat(watcher.update(Arrays.asList(component("A", "1.1.0", LifecycleState.STARTING, "y"),
+                component("C", "2.0.0", LifecycleState.NEW, "x")), T), is(true));
+        String changes = output.toString();
+        assertThat(changes, containsString("A  version 1.0.0 -> 1.1.0"));
+        assertThat(changes, containsString("A  state RUNNING -> STARTING"));
+        assertThat(changes, containsString("B  removed"));
+        assertThat(changes, containsString("C  added: 2.0.0 NEW"));
+        assertThat(changes, not(containsString("configuration")));
+    }
+
+    @Test
+    void GIVEN_configuration_watched_WHEN_it_changes_THEN_new_configuration_is_printed() {
+        ComponentWatcher watcher = new ComponentWatcher(nucleusAdapterIpc, true, new PrintStream(output));
+        watcher.update(Collections.singletonList(component("A", "1.0.0", LifecycleState.RUNNING, "x")), T);
+        output.reset();
+
+        assertThat(watcher.update(Collections.singletonList(component("A", "1.0.0", LifecycleState.RUNNING, "y")),
+                T), is(true));
+        assertThat(output.toString(), containsString("A  configuration: {\"key\":\"y\"}"));
+    }
+
+    @Test
+    void GIVEN_duration_WHEN_watch_THEN_polls_on_until_it_is_over() throws InterruptedException {
+        when(nucleusAdapterIpc.listComponents()).thenReturn(
+                Collections.singletonList(component("A", "1.0.0", LifecycleState.RUNNING, "x")));
+
+        new ComponentWatcher(nucleusAdapterIpc, false, new PrintStream(output)).watch(10, 20, 100);
+
+        verify(nucleusAdapterIpc, atLeast(3)).listComponents();
+        assertThat(output.toString().split(System.lineSeparator()).length, is(1));
+    }
+
+    private static ComponentDetails component(String name, String version, LifecycleState state, String value) {
+        ComponentDetails component = new ComponentDetails();
+        component.setComponentName(name);
+        component.setVersion(version);
+        component.setState(state);
+        component.setConfiguration(Collections.singletonMap("key", value));
+        return component;
+    }
+}
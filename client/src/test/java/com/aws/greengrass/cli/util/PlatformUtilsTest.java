@@ -0,0 +1,43 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+class PlatformUtilsTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void GIVEN_proc_status_WHEN_read_effective_ids_THEN_second_column_is_returned() throws IOException {
+        Path status = tempDir.resolve("status");
+        Files.write(status, Arrays.asList("Name:\tjava", "Uid:\t1000\t1001\t1002\t1003",
+                "Gid:\t2000\t2001\t2002\t2003"));
+
+        assertThat(PlatformUtils.readEffectiveIdFromProc(status, "Uid:"), is(1001));
+        assertThat(PlatformUtils.readEffectiveIdFromProc(status, "Gid:"), is(2001));
+        assertThat(PlatformUtils.readEffectiveIdFromProc(tempDir.resolve("missing"), "Uid:"), is(nullValue()));
+    }
+
+    @Test
+    @EnabledOnOs(OS.LINUX)
+    void GIVEN_linux_WHEN_get_effective_ids_THEN_same_as_id_command() throws IOException {
+        assertThat(PlatformUtils.getEffectiveUID(), is(PlatformUtils.readEffectiveUIDFromCommand()));
+        assertThat(PlatformUtils.readEffectiveUIDFromProc(), is(PlatformUtils.readEffectiveUIDFromCommand()));
+    }
+}
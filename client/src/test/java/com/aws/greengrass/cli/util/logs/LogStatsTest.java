@@ -0,0 +1,53 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.util.logs;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.PriorityBlockingQueue;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+
+class LogStatsTest {
+    private static final String LOG_ENTRY = "{\"thread\":\"main\",\"level\":\"INFO\",\"eventType\":\"test\","
+            + "\"message\":\"message\",\"timestamp\":1594836028088,\"cause\":null}";
+
+    @AfterEach
+    void cleanup() {
+        LogStats.setEnabled(false);
+    }
+
+    @Test
+    void GIVEN_stats_enabled_WHEN_entries_pass_pipeline_THEN_summary_has_counters() throws InterruptedException {
+        LogStats.setEnabled(true);
+        LogQueue queue = new LogQueue(new PriorityBlockingQueue<>(), 10);
+        queue.put(new LogEntry(LOG_ENTRY));
+        queue.put(new LogEntry(LOG_ENTRY));
+        queue.put(new LogEntry("not json"));
+        queue.take();
+        queue.put(new LogEntry(LOG_ENTRY));
+        LogStats.group("greengrass").recordLine(100);
+
+        String summary = LogStats.summary();
+        assertThat(summary, containsString("group greengrass: 1 lines"));
+        assertThat(summary, containsString("parse: 4 entries, 1 failures"));
+        assertThat(summary, containsString("queue: 4 entries, high-water mark 3, blocked 0 times"));
+    }
+
+    @Test
+    void GIVEN_stats_disabled_WHEN_entries_pass_pipeline_THEN_nothing_is_recorded() throws InterruptedException {
+        LogStats.setEnabled(true);
+        LogStats.setEnabled(false);
+        LogQueue queue = new LogQueue(new PriorityBlockingQueue<>(), 10);
+        queue.put(new LogEntry(LOG_ENTRY));
+
+        String summary = LogStats.summary();
+        assertThat(summary, containsString("parse: 0 entries"));
+        assertThat(summary, containsString("queue: 0 entries, high-water mark 0"));
+    }
+}
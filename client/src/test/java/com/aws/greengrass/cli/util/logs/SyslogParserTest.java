@@ -0,0 +1,62 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.util.logs;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+class SyslogParserTest {
+    private static final String[] SYSLOG_LINES = {
+            "Jan  1 00:00:01 3c22fb9c16f9 com.apple.xpc.launchd[1] "
+                    + "(com.apple.mdworker.shared.0A000000-0000-0000-0000-000000000000[83373]): "
+                    + "Service exited due to SIGKILL | sent by mds[142]",
+            "Jan  1 00:00:02 ip-172-31-55-139 systemd: Created slice User Slice of root.",
+            "Jan  1 00:00:03 ip-172-31-48-70 systemd[1]: Started Load Kernel Modules.",
+            "<13>Feb 28 23:59:59 host kernel: [ 0.000000] Linux version",
+            "Mar 10 12:00:00 host (class): message",
+            "Mar 10 12:00:00 host: message: with colon",
+            "Mar 10 12:00:00 (class): message",
+            "Mar 10 12:00:00: message",
+            "Mar 10 12:00:00 host logger extra: message",
+            "Mar 10 12:00:00 host logger (x):",
+            "Mar 10 12:00:00 host  logger: message",
+            "Mar 10 12:00:00 host a:b: message",
+            "Mar 10 12:00:00 host (x): (y): message",
+            "APR 10 12:00:00 host logger: message"
+    };
+
+    @Test
+    void GIVEN_syslog_lines_WHEN_tokenize_THEN_fields_match_pattern() {
+        for (String line : SYSLOG_LINES) {
+            Map<String, Object> expected = SyslogParser.parseWithPattern(line);
+            Map<String, Object> actual = SyslogParser.parse(line);
+            assertThat(line, expected, notNullValue());
+            assertThat(line, actual, is(expected));
+        }
+    }
+
+    @Test
+    void GIVEN_common_syslog_line_WHEN_tokenize_THEN_fast_path_is_used() {
+        Map<String, Object> map = SyslogParser.tokenize("<13>Jan  1 00:00:03 ip-172-31-48-70 systemd[1]: Started.");
+        assertThat(map, notNullValue());
+        assertThat(map.get("priority"), is("13"));
+        assertThat(map.get("host"), is("ip-172-31-48-70"));
+        assertThat(map.get("logger"), is("systemd[1]"));
+        assertThat(map.get("class"), nullValue());
+    }
+
+    @Test
+    void GIVEN_non_syslog_line_WHEN_parse_THEN_return_null() {
+        assertThat(SyslogParser.tokenize("not a syslog line"), nullValue());
+        assertThat(SyslogParser.parse("not a syslog line"), nullValue());
+    }
+}
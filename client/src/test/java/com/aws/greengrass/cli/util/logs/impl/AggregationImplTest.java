@@ -7,6 +7,8 @@ package com.aws.greengrass.cli.util.logs.impl;
 
 import com.aws.greengrass.cli.TestUtil;
 import com.aws.greengrass.cli.util.logs.Filter;
+import com.aws.greengrass.cli.util.logs.LogCursor;
+import com.aws.greengrass.cli.util.logs.LogManifest;
 import com.aws.greengrass.cli.util.logs.LogQueue;
 import com.aws.greengrass.cli.util.logs.LogsUtil;
 import org.junit.jupiter.api.AfterEach;
@@ -20,8 +22,10 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
@@ -181,6 +185,70 @@ class AggregationImplTest {
         assertTrue(logQueue.isEmpty());
     }
 
+    @Test
+    void testReadLogWithCursorResumes() throws InterruptedException {
+        writer.println(logEntry);
+        writer.println(logEntry2);
+        Path cursorFile = logDir.resolve("cursors").resolve("test.json");
+        List<Path> logFilePath = Arrays.asList(logFile.toPath().toAbsolutePath());
+
+        LogCursor cursor = LogCursor.load(cursorFile);
+        aggregation.configure(false, filterInterface, 0, 0, 100, cursor);
+        logQueue = aggregation.readLog(logFilePath, null);
+        while (aggregation.isAlive()) {
+            sleep(1);
+        }
+        assertEquals(2, logQueue.size());
+        logQueue.take().releaseCursor();
+        // The second entry is still in the queue, so it must be read again on the next run.
+        cursor.flush();
+
+        writer.println(logEntry4);
+        cursor = LogCursor.load(cursorFile);
+        aggregation.configure(false, filterInterface, 0, 0, 100, cursor);
+        logQueue = aggregation.readLog(logFilePath, null);
+        while (aggregation.isAlive()) {
+            sleep(1);
+        }
+        assertEquals(2, logQueue.size());
+        assertEquals(logEntry4, logQueue.take().getLine());
+        assertEquals(logEntry2, logQueue.take().getLine());
+    }
+
+    @Test
+    void testReadLogWithCursorSkipsConsumedEntriesOfTruncatedFile() throws InterruptedException, IOException {
+        writer.println(logEntry);
+        writer.println(logEntry2);
+        Path cursorFile = logDir.resolve("cursors").resolve("test.json");
+        List<Path> logFilePath = Arrays.asList(logFile.toPath().toAbsolutePath());
+
+        LogCursor cursor = LogCursor.load(cursorFile);
+        aggregation.configure(false, filterInterface, 0, 0, 100, cursor);
+        logQueue = aggregation.readLog(logFilePath, null);
+        while (aggregation.isAlive()) {
+            sleep(1);
+        }
+        logQueue.take().releaseCursor();
+        logQueue.take().releaseCursor();
+        cursor.flush();
+
+        // The file is truncated and rewritten, starting with an entry that was already consumed.
+        String consumed = "{\"message\":\"consumed\",\"timestamp\":1594836028089}";
+        String added = "{\"message\":\"added\",\"timestamp\":1594836028090}";
+        try (PrintStream truncated = TestUtil.createPrintStreamFromOutputStream(new FileOutputStream(logFile))) {
+            truncated.println(consumed);
+            truncated.println(added);
+        }
+        cursor = LogCursor.load(cursorFile);
+        aggregation.configure(false, filterInterface, 0, 0, 100, cursor);
+        logQueue = aggregation.readLog(logFilePath, null);
+        while (aggregation.isAlive()) {
+            sleep(1);
+        }
+        assertEquals(1, logQueue.size());
+        assertEquals(added, logQueue.take().getLine());
+    }
+
     @Test
     void testReadLogInvalidPath() throws InterruptedException {
         List<Path> logFilePath = Arrays.asList(Paths.get("bad path"));
@@ -244,7 +312,8 @@ class AggregationImplTest {
     void testReadSyslogEmptyArg() {
         LogsUtil.setSyslog(true);
         aggregation.readLog(null, null);
-        assertEquals(1, aggregation.getReadLogFutureList().size());
+        // Each default syslog location is read by its own reader.
+        assertEquals(3, aggregation.getReadLogFutureList().size());
         LogsUtil.setSyslog(false);
     }
 
@@ -275,6 +344,47 @@ class AggregationImplTest {
 
     }
 
+    @Test
+    void testListLogWithManifestSkipsUnchangedDir() throws IOException {
+        writer.println(logEntry);
+        Path manifestDir = Files.createDirectory(logDir.resolve("state"));
+        Path manifestFile = manifestDir.resolve("manifest.json");
+        // Listings of recently modified directories are not trusted, so the directory is made older.
+        FileTime past = FileTime.fromMillis(System.currentTimeMillis() - 60_000);
+        Files.setLastModifiedTime(logDir, past);
+
+        aggregation.setManifest(LogManifest.load(manifestFile));
+        assertEquals(1, aggregation.listLog(Arrays.asList(logDir)).size());
+        assertTrue(Files.exists(manifestFile));
+
+        // A file added without changing the directory's modification time is only seen by a rescan.
+        Files.createFile(logDir.resolve("greengrass_2020_07_14_00_0.log"));
+        Files.setLastModifiedTime(logDir, past);
+        aggregation.setManifest(LogManifest.load(manifestFile));
+        assertEquals(1, aggregation.listLog(Arrays.asList(logDir)).size());
+        aggregation.setManifest(null);
+        assertEquals(2, aggregation.listLog(Arrays.asList(logDir)).size());
+
+        // Any change of the directory invalidates the listing.
+        Files.setLastModifiedTime(logDir, FileTime.fromMillis(System.currentTimeMillis() - 30_000));
+        aggregation.setManifest(LogManifest.load(manifestFile));
+        assertEquals(2, aggregation.listLog(Arrays.asList(logDir)).size());
+    }
+
+    @Test
+    void testParseFileName() {
+        LogManifest.Entry rotated = AggregationImpl.parseFileName("Component_2020_07_14_01_3.log");
+        assertEquals("Component", rotated.getGroup());
+        assertEquals("2020_07_14_01", rotated.getTimestamp());
+        assertEquals("3", rotated.getIndex());
+
+        LogManifest.Entry current = AggregationImpl.parseFileName("greengrass.log");
+        assertEquals("greengrass", current.getGroup());
+        assertEquals("", current.getTimestamp());
+
+        assertEquals(null, AggregationImpl.parseFileName("logs.txt").getGroup());
+    }
+
     @AfterEach
     void cleanup() {
         aggregation.close();
@@ -0,0 +1,74 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.util.pubsub;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CaptureFileTest {
+
+    @Test
+    void GIVEN_recorded_messages_WHEN_read_THEN_records_match_in_order() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] large = new byte[300];
+        Arrays.fill(large, (byte) 7);
+        try (CaptureWriter writer = new CaptureWriter(out, 16)) {
+            writer.append("a/b", false, "one".getBytes(StandardCharsets.UTF_8));
+            Thread.sleep(2);
+            writer.append("c", true, "{\"n\":2}".getBytes(StandardCharsets.UTF_8));
+            writer.append("a/b", false, large);
+            assertThat(writer.getRecorded(), is(3L));
+        }
+
+        try (CaptureReader reader = new CaptureReader(new ByteArrayInputStream(out.toByteArray()))) {
+            CaptureRecord first = reader.next();
+            assertThat(first.getTopic(), is("a/b"));
+            assertThat(first.isJson(), is(false));
+            assertThat(new String(first.getPayload(), StandardCharsets.UTF_8), is("one"));
+            CaptureRecord second = reader.next();
+            assertThat(second.getTopic(), is("c"));
+            assertThat(second.isJson(), is(true));
+            assertThat(second.getOffsetMicros() - first.getOffsetMicros(), greaterThanOrEqualTo(2000L));
+            CaptureRecord third = reader.next();
+            assertThat(third.getTopic(), is("a/b"));
+            assertThat(third.getPayload(), is(large));
+            assertThat(reader.next(), is(nullValue()));
+        }
+    }
+
+    @Test
+    void GIVEN_truncated_capture_WHEN_read_THEN_capture_ends_before_cut_record() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CaptureWriter writer = new CaptureWriter(out, 16)) {
+            writer.append("a", false, new byte[]{1});
+            writer.append("a", false, new byte[]{2, 3, 4});
+        }
+        byte[] bytes = out.toByteArray();
+
+        try (CaptureReader reader = new CaptureReader(
+                new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 1)))) {
+            assertThat(reader.next().getPayload(), is(new byte[]{1}));
+            assertThat(reader.next(), is(nullValue()));
+        }
+    }
+
+    @Test
+    void GIVEN_other_file_WHEN_opened_THEN_it_is_rejected() {
+        assertThrows(IOException.class, () -> new CaptureReader(
+                new ByteArrayInputStream("{\"not\": \"a capture\"}".getBytes(StandardCharsets.UTF_8))));
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.util.pubsub;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+class LatencyHistogramTest {
+
+    @Test
+    void GIVEN_values_WHEN_bucketed_THEN_every_value_is_within_its_bucket() {
+        for (long value : new long[]{0, 1, 31, 32, 33, 63, 64, 65, 1000, 123_456_789L, Long.MAX_VALUE / 2}) {
+            int index = LatencyHistogram.index(value);
+            assertThat(LatencyHistogram.lowestValue(index), lessThanOrEqualTo(value));
+            assertThat(LatencyHistogram.lowestValue(index + 1) - 1, greaterThanOrEqualTo(value));
+        }
+    }
+
+    @Test
+    void GIVEN_uniform_latencies_WHEN_percentile_THEN_within_bucket_error() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.record(i);
+        }
+
+        assertThat(histogram.getCount(), is(10_000L));
+        assertThat(histogram.getMax(), is(10_000L));
+        assertThat(histogram.percentile(50), allOf(greaterThanOrEqualTo(5000L), lessThanOrEqualTo(5000L * 33 / 32)));
+        assertThat(histogram.percentile(99), allOf(greaterThanOrEqualTo(9900L), lessThanOrEqualTo(10_000L)));
+        assertThat(histogram.percentile(100), is(10_000L));
+        assertThat(new LatencyHistogram().percentile(99), is(0L));
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli.util.pubsub;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class SubscriberOutputTest {
+    private static final String NL = System.lineSeparator();
+
+    @Test
+    void GIVEN_binary_and_json_messages_WHEN_closed_THEN_all_are_written_in_order() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SubscriberOutput output = new SubscriberOutput(out, 16);
+
+        output.write("one".getBytes(StandardCharsets.UTF_8));
+        output.writeJson(Collections.singletonMap("n", 2));
+        output.write(new byte[]{(byte) 0xff, 0});
+        output.close();
+
+        byte[] expected = ("one" + NL + "{\"n\":2}" + NL + "\u00ff\u0000" + NL)
+                .getBytes(StandardCharsets.ISO_8859_1);
+        assertThat(out.toByteArray(), is(expected));
+        assertThat(output.getWritten(), is(3L));
+        assertThat(output.getDropped(), is(0L));
+    }
+
+    @Test
+    void GIVEN_messages_of_several_topics_WHEN_closed_THEN_lines_are_tagged_with_their_topic() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SubscriberOutput output = new SubscriberOutput(out, 16);
+
+        output.write("a/b", "one".getBytes(StandardCharsets.UTF_8));
+        output.writeJson("c", Collections.singletonMap("n", 2));
+        output.write(null, "bare".getBytes(StandardCharsets.UTF_8));
+        output.writeStatus("closed");
+        output.close();
+
+        assertThat(out.toString("UTF-8"), is("a/b\tone" + NL + "c\t{\"n\":2}" + NL + "bare" + NL + "closed" + NL));
+    }
+
+    @Test
+    void GIVEN_blocked_output_WHEN_queue_is_full_THEN_messages_are_dropped_and_counted() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch unblock = new CountDownLatch(1);
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        OutputStream blocking = new OutputStream() {
+            @Override
+            public void write(int b) {
+                written.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                writing.countDown();
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                written.write(b, off, len);
+            }
+        };
+        SubscriberOutput output = new SubscriberOutput(blocking, 2);
+
+        output.write("first".getBytes(StandardCharsets.UTF_8));
+        writing.await();
+        assertThat(output.write("a".getBytes(StandardCharsets.UTF_8)), is(true));
+        assertThat(output.write("b".getBytes(StandardCharsets.UTF_8)), is(true));
+        assertThat(output.write("c".getBytes(StandardCharsets.UTF_8)), is(false));
+        unblock.countDown();
+        output.close();
+
+        assertThat(output.getDropped(), is(1L));
+        assertThat(output.getWritten(), is(3L));
+        assertThat(written.toString("UTF-8"), is("first" + NL + "a" + NL + "b" + NL));
+        assertThat(output.write("late".getBytes(StandardCharsets.UTF_8)), is(false));
+    }
+
+    @Test
+    void GIVEN_blocked_output_WHEN_queue_is_full_THEN_status_line_is_accepted_without_blocking() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch unblock = new CountDownLatch(1);
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        OutputStream blocking = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                writing.countDown();
+                try {
+                    unblock.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                written.write(b, off, len);
+            }
+        };
+        SubscriberOutput output = new SubscriberOutput(blocking, 1);
+
+        output.write("first".getBytes(StandardCharsets.UTF_8));
+        writing.await();
+        assertThat(output.write("a".getBytes(StandardCharsets.UTF_8)), is(true));
+        assertThat(output.writeStatus("closed"), is(true));
+        assertThat(output.getDropped(), is(0L));
+        unblock.countDown();
+        output.close();
+
+        assertThat(written.toString("UTF-8"), is("first" + NL + "a" + NL + "closed" + NL));
+    }
+
+    @Test
+    void GIVEN_print_stream_that_fails_WHEN_writing_THEN_output_reports_failure() throws Exception {
+        PrintStream out = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        });
+        SubscriberOutput output = new SubscriberOutput(out, 16);
+
+        output.write("one".getBytes(StandardCharsets.UTF_8));
+        output.getFailed().get(10, TimeUnit.SECONDS);
+        output.close();
+
+        assertThat(output.getWritten(), is(0L));
+    }
+}
@@ -10,10 +10,12 @@ import com.aws.greengrass.authorization.Permission;
 import com.aws.greengrass.authorization.exceptions.AuthorizationException;
 import com.aws.greengrass.componentmanager.ComponentStore;
 import com.aws.greengrass.config.Topics;
+import com.aws.greengrass.dependency.State;
 import com.aws.greengrass.deployment.DeploymentQueue;
 import com.aws.greengrass.deployment.model.ConfigurationUpdateOperation;
 import com.aws.greengrass.deployment.model.Deployment;
 import com.aws.greengrass.deployment.model.LocalOverrideRequest;
+import com.aws.greengrass.lifecyclemanager.GlobalStateChangeListener;
 import com.aws.greengrass.lifecyclemanager.GreengrassService;
 import com.aws.greengrass.lifecyclemanager.Kernel;
 import com.aws.greengrass.lifecyclemanager.exceptions.ServiceLoadException;
@@ -84,11 +86,14 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Base64;
-import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 
@@ -124,6 +129,7 @@ public class CLIEventStreamAgent {
     public static final String LOCAL_DEPLOYMENT_RESOURCE = "LocalDeployment";
     public static final String LOCAL_DEPLOYMENT_CREATED_ON = "CreatedOn";
     public static final String LOCAL_DEPLOYMENT_CREATED_ON_FORMATTER = "dd-MM-uuuu HH:mm:ss z";
+    public static final int DEFAULT_MAX_LOCAL_DEPLOYMENTS = 1000;
     private static final Logger logger = LogManager.getLogger(CLIEventStreamAgent.class);
     private static final ObjectMapper OBJECT_MAPPER =
             new ObjectMapper().disable(DeserializationFeature.FAIL_ON_INVALID_SUBTYPE)
@@ -145,6 +151,23 @@ public class CLIEventStreamAgent {
     private AuthorizationHandler authHandler;
 
     private final SecureRandom random = new SecureRandom();
+    private final Object componentsLock = new Object();
+    private final AtomicLong componentsGeneration = new AtomicLong();
+    private volatile SortedComponents components;
+    private boolean watchingComponents;
+    private final GlobalStateChangeListener componentsListener = (service, oldState, newState) -> {
+        if (oldState == State.NEW) {
+            invalidateComponents();
+        }
+    };
+
+    private final LocalDeploymentIndex localDeploymentIndex = new LocalDeploymentIndex();
+    // The persisted topics that the index was built from
+    private Topics indexedLocalDeployments;
+    @Setter(AccessLevel.PACKAGE)
+    private volatile int maxLocalDeployments = DEFAULT_MAX_LOCAL_DEPLOYMENTS;
+    @Setter(AccessLevel.PACKAGE)
+    private volatile long localDeploymentMaxAgeSeconds;
 
     public GetComponentDetailsHandler getGetComponentDetailsHandler(OperationContinuationHandlerContext context) {
         return new GetComponentDetailsHandler(context);
@@ -188,7 +211,8 @@ public class CLIEventStreamAgent {
     }
 
     /**
-     * Persists the local deployment details in the config.
+     * Persists the local deployment details in the config, then removes the oldest finished deployments beyond the
+     * configured number of deployments and the finished deployments older than the configured age.
      *
      * @param serviceConfig     CLI service configuration
      * @param deploymentDetails Details of the local deployment to save
@@ -196,13 +220,54 @@ public class CLIEventStreamAgent {
     public void persistLocalDeployment(Topics serviceConfig, Map<String, Object> deploymentDetails) {
         Topics localDeployments = serviceConfig.lookupTopics(PERSISTENT_LOCAL_DEPLOYMENTS);
         String deploymentId = (String) deploymentDetails.get(DEPLOYMENT_ID_KEY_NAME);
-        Topics localDeploymentDetails = localDeployments.lookupTopics(deploymentId);
-        if (localDeploymentDetails.find(LOCAL_DEPLOYMENT_CREATED_ON) != null) {
-            deploymentDetails.put(LOCAL_DEPLOYMENT_CREATED_ON,
-                    Coerce.toLong(localDeploymentDetails.find(LOCAL_DEPLOYMENT_CREATED_ON)));
+        synchronized (localDeploymentIndex) {
+            indexLocalDeployments(localDeployments);
+            Topics localDeploymentDetails = localDeployments.lookupTopics(deploymentId);
+            if (localDeploymentDetails.find(LOCAL_DEPLOYMENT_CREATED_ON) != null) {
+                deploymentDetails.put(LOCAL_DEPLOYMENT_CREATED_ON,
+                        Coerce.toLong(localDeploymentDetails.find(LOCAL_DEPLOYMENT_CREATED_ON)));
+            }
+            localDeploymentDetails.replaceAndWait(deploymentDetails);
+            localDeploymentIndex.put(deploymentId,
+                    deploymentStatusFromString(Coerce.toString(deploymentDetails.get(DEPLOYMENT_STATUS_KEY_NAME))),
+                    Coerce.toLong(deploymentDetails.get(LOCAL_DEPLOYMENT_CREATED_ON)));
+
+            long maxAgeSeconds = localDeploymentMaxAgeSeconds;
+            long createdAfter = maxAgeSeconds > 0 ? System.currentTimeMillis() - maxAgeSeconds * 1000 : 0;
+            for (String evicted : localDeploymentIndex.evict(maxLocalDeployments, createdAfter)) {
+                Topics evictedDetails = localDeployments.findTopics(evicted);
+                if (evictedDetails != null) {
+                    evictedDetails.remove();
+                }
+                logger.atDebug().kv(DEPLOYMENT_ID_LOG_KEY, evicted).log("Removed persisted local deployment");
+            }
         }
-        localDeploymentDetails.replaceAndWait(deploymentDetails);
-        // TODO: [P41178971]: Implement a limit on no of local deployments to persist status for
+    }
+
+    /**
+     * Bring the index up to date with the persisted local deployments. The index is only rebuilt when the persisted
+     * topics are not the ones it was built from, so callers must hold the index lock while they change both.
+     *
+     * @param localDeployments persisted local deployments, or null if there are none
+     * @return the index
+     */
+    private LocalDeploymentIndex indexLocalDeployments(Topics localDeployments) {
+        if (localDeployments == indexedLocalDeployments) {
+            return localDeploymentIndex;
+        }
+        localDeploymentIndex.clear();
+        indexedLocalDeployments = localDeployments;
+        if (localDeployments != null) {
+            localDeployments.forEach(topic -> {
+                if (topic instanceof Topics) {
+                    Topics topics = (Topics) topic;
+                    localDeploymentIndex.put(topics.getName(),
+                            deploymentStatusFromString(Coerce.toString(topics.find(DEPLOYMENT_STATUS_KEY_NAME))),
+                            Coerce.toLong(topics.find(LOCAL_DEPLOYMENT_CREATED_ON)));
+                }
+            });
+        }
+        return localDeploymentIndex;
     }
 
     @SuppressFBWarnings("SIC_INNER_SHOULD_BE_STATIC")
@@ -284,13 +349,104 @@ public class CLIEventStreamAgent {
         if (service.getServiceConfig().find(VERSION_CONFIG_KEY) != null) {
             componentDetails.setVersion(Coerce.toString(service.getServiceConfig().find(VERSION_CONFIG_KEY)));
         }
-        if (service.getServiceConfig().findInteriorChild(CONFIGURATION_CONFIG_KEY) != null) {
-            componentDetails
-                    .setConfiguration(service.getServiceConfig().findInteriorChild(CONFIGURATION_CONFIG_KEY).toPOJO());
+        Topics configuration = service.getServiceConfig().findInteriorChild(CONFIGURATION_CONFIG_KEY);
+        if (configuration != null) {
+            componentDetails.setConfiguration(configuration.toPOJO());
         }
         return componentDetails;
     }
 
+    /**
+     * Start keeping the sorted components between requests, invalidated when the kernel reports a new service.
+     */
+    public void startWatchingComponents() {
+        synchronized (componentsLock) {
+            if (!watchingComponents) {
+                kernel.getContext().addGlobalStateChangeListener(componentsListener);
+                watchingComponents = true;
+            }
+        }
+    }
+
+    /**
+     * Stop keeping the sorted components, after which every request sorts them again.
+     */
+    public void stopWatchingComponents() {
+        synchronized (componentsLock) {
+            if (watchingComponents) {
+                kernel.getContext().removeGlobalStateChangeListener(componentsListener);
+                watchingComponents = false;
+            }
+            componentsGeneration.incrementAndGet();
+            components = null;
+        }
+    }
+
+    /**
+     * Components other than main, in dependency order. Sorting the dependency graph is only needed when services are
+     * added or removed or their dependencies change, so while watching, the sorted list is kept until the kernel
+     * reports a new service or the dependencies differ from when the list was sorted. Services are removed by
+     * removing them from the dependencies of another service, so that is a change of the dependencies too.
+     */
+    private List<GreengrassService> getComponents() {
+        GreengrassService main = kernel.getMain();
+        SortedComponents current = components;
+        if (current != null && current.main == main && dependenciesUnchanged(current.dependencies)) {
+            return current.services;
+        }
+        long before = componentsGeneration.get();
+        List<GreengrassService> services = Collections.unmodifiableList(kernel.orderedDependencies().stream()
+                .filter(service -> service != main).collect(Collectors.toList()));
+        synchronized (componentsLock) {
+            if (watchingComponents && componentsGeneration.get() == before) {
+                components = new SortedComponents(services, main, dependencies(services, main));
+            }
+        }
+        return services;
+    }
+
+    /**
+     * The dependencies of the services and main, which decide their order.
+     */
+    private static Map<GreengrassService, Set<GreengrassService>> dependencies(List<GreengrassService> services,
+                                                                               GreengrassService main) {
+        Map<GreengrassService, Set<GreengrassService>> dependencies = new HashMap<>();
+        for (GreengrassService service : services) {
+            dependencies.put(service, new HashSet<>(service.getDependencies().keySet()));
+        }
+        if (main != null) {
+            dependencies.put(main, new HashSet<>(main.getDependencies().keySet()));
+        }
+        return dependencies;
+    }
+
+    /**
+     * A change to the dependencies of a service is not reported by the kernel, so it is checked on every request,
+     * which only reads the dependencies and is much cheaper than sorting them again.
+     */
+    private static boolean dependenciesUnchanged(Map<GreengrassService, Set<GreengrassService>> dependencies) {
+        for (Map.Entry<GreengrassService, Set<GreengrassService>> entry : dependencies.entrySet()) {
+            if (!entry.getValue().equals(entry.getKey().getDependencies().keySet())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @AllArgsConstructor
+    private static final class SortedComponents {
+        private final List<GreengrassService> services;
+        private final GreengrassService main;
+        private final Map<GreengrassService, Set<GreengrassService>> dependencies;
+    }
+
+    private void invalidateComponents() {
+        synchronized (componentsLock) {
+            componentsGeneration.incrementAndGet();
+            components = null;
+        }
+    }
+
     @SuppressFBWarnings("SIC_INNER_SHOULD_BE_STATIC")
     class ListComponentsHandler extends GeneratedAbstractListComponentsOperationHandler {
 
@@ -314,10 +470,8 @@ public class CLIEventStreamAgent {
                         .resource(AuthorizationHandler.ANY_REGEX)
                         .operation(LIST_COMPONENTS)
                         .build());
-                Collection<GreengrassService> services = kernel.orderedDependencies();
-                List<ComponentDetails> listOfComponents =
-                        services.stream().filter(service -> service != kernel.getMain())
-                                .map(CLIEventStreamAgent.this::getComponentDetails).collect(Collectors.toList());
+                List<ComponentDetails> listOfComponents = getComponents().stream()
+                        .map(CLIEventStreamAgent.this::getComponentDetails).collect(Collectors.toList());
                 ListComponentsResponse response = new ListComponentsResponse();
                 response.setComponents(listOfComponents);
                 return response;
@@ -761,20 +915,18 @@ public class CLIEventStreamAgent {
                         .build());
                 List<LocalDeployment> persistedDeployments = new ArrayList<>();
                 cleanUpQueuedDeployments(cliServiceConfig);
-                Topics localDeployments = cliServiceConfig.findTopics(PERSISTENT_LOCAL_DEPLOYMENTS);
-                if (localDeployments != null) {
-                    localDeployments.forEach(topic -> {
-                        Topics topics = (Topics) topic;
-                        LocalDeployment localDeployment = new LocalDeployment();
-                        localDeployment.setDeploymentId(topics.getName());
-                        localDeployment.setStatus(
-                                deploymentStatusFromString(Coerce.toString(topics.find(DEPLOYMENT_STATUS_KEY_NAME))));
-                        localDeployment.setCreatedOn(Instant.ofEpochMilli(
-                                        Coerce.toLong(topics.find(LOCAL_DEPLOYMENT_CREATED_ON)))
-                                .atZone(ZoneId.of("UTC"))
-                                .format(DateTimeFormatter.ofPattern(LOCAL_DEPLOYMENT_CREATED_ON_FORMATTER)));
-                        persistedDeployments.add(localDeployment);
-                    });
+                List<LocalDeploymentIndex.Entry> entries;
+                synchronized (localDeploymentIndex) {
+                    entries = indexLocalDeployments(cliServiceConfig.findTopics(PERSISTENT_LOCAL_DEPLOYMENTS)).list();
+                }
+                DateTimeFormatter formatter = DateTimeFormatter.ofPattern(LOCAL_DEPLOYMENT_CREATED_ON_FORMATTER);
+                for (LocalDeploymentIndex.Entry entry : entries) {
+                    LocalDeployment localDeployment = new LocalDeployment();
+                    localDeployment.setDeploymentId(entry.getDeploymentId());
+                    localDeployment.setStatus(entry.getStatus());
+                    localDeployment.setCreatedOn(Instant.ofEpochMilli(entry.getCreatedOn())
+                            .atZone(ZoneId.of("UTC")).format(formatter));
+                    persistedDeployments.add(localDeployment);
                 }
 
                 ListLocalDeploymentsResponse response = new ListLocalDeploymentsResponse();
@@ -863,6 +1015,9 @@ public class CLIEventStreamAgent {
     }
 
     private DeploymentStatus deploymentStatusFromString(String status) {
+        if (status == null) {
+            return null;
+        }
         for (DeploymentStatus ds : DeploymentStatus.values()) {
             if (ds.getValue().equals(status.toUpperCase())) {
                 return ds;
@@ -872,36 +1027,18 @@ public class CLIEventStreamAgent {
     }
 
     private void cleanUpQueuedDeployments(Topics cliServiceConfig) {
-        List<String> deploymentIdToRemoveList = new ArrayList<>();
-
-        if (deploymentQueue.isEmpty()) {
+        if (!deploymentQueue.isEmpty()) {
+            return;
+        }
+        synchronized (localDeploymentIndex) {
             Topics localDeployments = cliServiceConfig.findTopics(PERSISTENT_LOCAL_DEPLOYMENTS);
-
-            // Find deploymentIds that status are queued
-            if (localDeployments != null) {
-                localDeployments.forEach(topic -> {
-                    if (topic instanceof Topics) {
-                        Topics topics = (Topics) topic;
-                        String tmpDeploymentId = topics.getName();
-                        DeploymentStatus tmpDeploymentStatus = deploymentStatusFromString(
-                                Coerce.toString(topics.find(DEPLOYMENT_STATUS_KEY_NAME)));
-
-                        if (DeploymentStatus.QUEUED == tmpDeploymentStatus) {
-                            deploymentIdToRemoveList.add(tmpDeploymentId);
-                        }
-                    }
-                });
-            }
-
-            // Find the topics to remove
-            if (deploymentIdToRemoveList != null && !deploymentIdToRemoveList.isEmpty()) {
-                for (String tmpDeploymentIdToRemove : deploymentIdToRemoveList) {
-                    Topics tmpTopicsToRemove = localDeployments.findTopics(tmpDeploymentIdToRemove);
-
-                    if (tmpTopicsToRemove != null) {
-                        tmpTopicsToRemove.remove();
-                    }
+            // Find deploymentIds that status are queued and remove their topics
+            for (String deploymentId : indexLocalDeployments(localDeployments).withStatus(DeploymentStatus.QUEUED)) {
+                Topics topicsToRemove = localDeployments.findTopics(deploymentId);
+                if (topicsToRemove != null) {
+                    topicsToRemove.remove();
                 }
+                localDeploymentIndex.remove(deploymentId);
             }
         }
     }
@@ -47,6 +47,7 @@ import java.util.List;
 import java.util.Map;
 import javax.inject.Inject;
 
+import static com.aws.greengrass.cli.CLIEventStreamAgent.DEFAULT_MAX_LOCAL_DEPLOYMENTS;
 import static com.aws.greengrass.componentmanager.KernelConfigResolver.CONFIGURATION_CONFIG_KEY;
 import static com.aws.greengrass.componentmanager.KernelConfigResolver.VERSION_CONFIG_KEY;
 import static com.aws.greengrass.ipc.AuthenticationHandler.SERVICE_UNIQUE_ID_KEY;
@@ -67,6 +68,8 @@ public class CLIService extends PluginService {
     public static final String CLI_AUTH_TOKEN = "cli_auth_token";
     public static final String AUTHORIZED_POSIX_GROUPS = "AuthorizedPosixGroups";
     public static final String AUTHORIZED_WINDOWS_GROUPS = "AuthorizedWindowsGroups";
+    public static final String MAX_LOCAL_DEPLOYMENTS = "MaxLocalDeployments";
+    public static final String LOCAL_DEPLOYMENT_MAX_AGE_SECONDS = "LocalDeploymentMaxAgeSeconds";
 
     static final String USER_CLIENT_ID_PREFIX = "user-";
     static final String GROUP_CLIENT_ID_PREFIX = "group-";
@@ -141,6 +144,13 @@ public class CLIService extends PluginService {
         config.lookup(CONFIGURATION_CONFIG_KEY, AUTHORIZED_WINDOWS_GROUPS).subscribe((why, newv) -> {
             requestRestart();
         });
+        config.lookup(CONFIGURATION_CONFIG_KEY, MAX_LOCAL_DEPLOYMENTS).subscribe((why, newv) -> {
+            cliEventStreamAgent.setMaxLocalDeployments(newv == null || newv.getOnce() == null
+                    ? DEFAULT_MAX_LOCAL_DEPLOYMENTS : Coerce.toInt(newv));
+        });
+        config.lookup(CONFIGURATION_CONFIG_KEY, LOCAL_DEPLOYMENT_MAX_AGE_SECONDS).subscribe((why, newv) -> {
+            cliEventStreamAgent.setLocalDeploymentMaxAgeSeconds(Coerce.toLong(newv));
+        });
     }
 
     private void registerIpcEventStreamHandlers() {
@@ -232,6 +242,7 @@ public class CLIService extends PluginService {
 
     @Override
     protected void startup() {
+        cliEventStreamAgent.startWatchingComponents();
         registerIpcEventStreamHandlers();
         try {
             generateCliIpcInfo();
@@ -246,7 +257,7 @@ public class CLIService extends PluginService {
 
     @Override
     protected void shutdown() {
-
+        cliEventStreamAgent.stopWatchingComponents();
     }
 
     String getClientIdForGroup(String groupId) {
@@ -0,0 +1,130 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli;
+
+import lombok.Value;
+import software.amazon.awssdk.aws.greengrass.model.DeploymentStatus;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * In-memory index of the persisted local deployments, by deployment ID, by status, and in order of creation. The
+ * persisted topics stay the source of truth; the index only saves walking all of them to list deployments, to find
+ * queued deployments, and to choose which deployments to evict.
+ */
+class LocalDeploymentIndex {
+    private static final Comparator<Entry> CREATION_ORDER =
+            Comparator.comparingLong(Entry::getCreatedOn).thenComparing(Entry::getDeploymentId);
+
+    private final Map<String, Entry> byId = new HashMap<>();
+    private final Map<DeploymentStatus, Set<String>> byStatus = new EnumMap<>(DeploymentStatus.class);
+    private final NavigableSet<Entry> byCreation = new TreeSet<>(CREATION_ORDER);
+
+    synchronized void put(String deploymentId, DeploymentStatus status, long createdOn) {
+        remove(deploymentId);
+        Entry entry = new Entry(deploymentId, status, createdOn);
+        byId.put(deploymentId, entry);
+        if (status != null) {
+            byStatus.computeIfAbsent(status, s -> new LinkedHashSet<>()).add(deploymentId);
+        }
+        byCreation.add(entry);
+    }
+
+    synchronized void remove(String deploymentId) {
+        Entry entry = byId.remove(deploymentId);
+        if (entry == null) {
+            return;
+        }
+        if (entry.getStatus() != null) {
+            byStatus.get(entry.getStatus()).remove(deploymentId);
+        }
+        byCreation.remove(entry);
+    }
+
+    synchronized void clear() {
+        byId.clear();
+        byStatus.clear();
+        byCreation.clear();
+    }
+
+    synchronized int size() {
+        return byId.size();
+    }
+
+    synchronized Entry get(String deploymentId) {
+        return byId.get(deploymentId);
+    }
+
+    synchronized List<String> withStatus(DeploymentStatus status) {
+        Set<String> ids = byStatus.get(status);
+        return ids == null ? new ArrayList<>() : new ArrayList<>(ids);
+    }
+
+    /**
+     * All deployments, oldest first.
+     *
+     * @return deployments in order of creation
+     */
+    synchronized List<Entry> list() {
+        return new ArrayList<>(byCreation);
+    }
+
+    /**
+     * Remove finished deployments from the index, oldest first, until at most maxCount deployments are left, and
+     * remove every finished deployment created before the given time. Queued and in-progress deployments are never
+     * evicted, so the index may keep more than maxCount deployments while they run.
+     *
+     * @param maxCount        number of deployments to keep, 0 or less to keep any number
+     * @param createdAfter    time in milliseconds before which finished deployments are removed, 0 or less to keep
+     *                        them regardless of age
+     * @return IDs of the removed deployments
+     */
+    synchronized List<String> evict(int maxCount, long createdAfter) {
+        List<String> evicted = new ArrayList<>();
+        int excess = maxCount > 0 ? byId.size() - maxCount : 0;
+        Iterator<Entry> iterator = byCreation.iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            boolean expired = createdAfter > 0 && entry.getCreatedOn() < createdAfter;
+            if (excess <= 0 && !expired) {
+                // Entries are sorted by creation time, so no later entry is expired either
+                break;
+            }
+            if (!entry.isFinished()) {
+                continue;
+            }
+            iterator.remove();
+            byId.remove(entry.getDeploymentId());
+            if (entry.getStatus() != null) {
+                byStatus.get(entry.getStatus()).remove(entry.getDeploymentId());
+            }
+            evicted.add(entry.getDeploymentId());
+            excess--;
+        }
+        return evicted;
+    }
+
+    @Value
+    static class Entry {
+        String deploymentId;
+        DeploymentStatus status;
+        long createdOn;
+
+        boolean isFinished() {
+            return status != DeploymentStatus.QUEUED && status != DeploymentStatus.IN_PROGRESS;
+        }
+    }
+}
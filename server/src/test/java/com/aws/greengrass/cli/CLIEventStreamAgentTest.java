@@ -64,6 +64,7 @@ import java.nio.file.Path;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -96,8 +97,10 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -232,6 +235,92 @@ class CLIEventStreamAgentTest {
         }
     }
 
+    @Test
+    @SuppressWarnings("PMD.CloseResource")
+    void test_GetListComponent_returns_configuration_changed_since_last_request() throws IOException {
+        ListComponentsRequest request = new ListComponentsRequest();
+        GreengrassService mockTestService = mock(GreengrassService.class);
+        GreengrassService mockMainService = mock(GreengrassService.class);
+        when(mockTestService.getName()).thenReturn(TEST_SERVICE);
+        when(mockTestService.getState()).thenReturn(State.RUNNING);
+        try (Context context = new Context()) {
+            Topics mockServiceConfig = Topics.of(context, TEST_SERVICE, null);
+            mockServiceConfig.lookupTopics(CONFIGURATION_CONFIG_KEY)
+                    .replaceAndWait(ImmutableMap.of("param1", "value1"));
+            when(mockTestService.getServiceConfig()).thenReturn(mockServiceConfig);
+            when(kernel.getMain()).thenReturn(mockMainService);
+            when(kernel.orderedDependencies()).thenReturn(Arrays.asList(mockTestService, mockMainService));
+
+            Map<String, Object> first = cliEventStreamAgent.getListComponentsHandler(mockContext)
+                    .handleRequest(request).getComponents().get(0).getConfiguration();
+            assertEquals(ImmutableMap.of("param1", "value1"), first);
+
+            // Seen by the next request without waiting for change notifications
+            mockServiceConfig.lookup(CONFIGURATION_CONFIG_KEY, "param1").withValue("value2");
+            Map<String, Object> changed = cliEventStreamAgent.getListComponentsHandler(mockContext)
+                    .handleRequest(request).getComponents().get(0).getConfiguration();
+            assertEquals(ImmutableMap.of("param1", "value2"), changed);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("PMD.CloseResource")
+    void test_GetListComponent_sorts_components_only_when_services_change() throws IOException {
+        ListComponentsRequest request = new ListComponentsRequest();
+        GreengrassService mockMainService = mock(GreengrassService.class);
+        try (Context context = new Context()) {
+            List<GreengrassService> services = new ArrayList<>();
+            for (int i = 0; i < 250; i++) {
+                services.add(mockService(context, "Component" + i));
+            }
+            services.add(mockMainService);
+            when(kernel.getContext()).thenReturn(context);
+            when(kernel.getMain()).thenReturn(mockMainService);
+            when(kernel.orderedDependencies()).thenReturn(services);
+            cliEventStreamAgent.startWatchingComponents();
+
+            for (int i = 0; i < 10; i++) {
+                ListComponentsResponse response =
+                        cliEventStreamAgent.getListComponentsHandler(mockContext).handleRequest(request);
+                assertEquals(250, response.getComponents().size());
+            }
+            verify(kernel, times(1)).orderedDependencies();
+
+            // A new component is added to the services and started
+            GreengrassService added = mockService(context, "Added");
+            services.add(0, added);
+            context.globalNotifyStateChanged(added, State.NEW, State.INSTALLED);
+            context.waitForPublishQueueToClear();
+
+            ListComponentsResponse response =
+                    cliEventStreamAgent.getListComponentsHandler(mockContext).handleRequest(request);
+            assertEquals(251, response.getComponents().size());
+            assertEquals("Added", response.getComponents().get(0).getComponentName());
+            verify(kernel, times(2)).orderedDependencies();
+
+            // A component gets a new dependency, which does not add or remove any service
+            doReturn(Collections.singletonMap(services.get(2), null)).when(services.get(1)).getDependencies();
+            cliEventStreamAgent.getListComponentsHandler(mockContext).handleRequest(request);
+            verify(kernel, times(3)).orderedDependencies();
+
+            // Once stopped, the kernel is no longer watched and every request sorts the components
+            cliEventStreamAgent.stopWatchingComponents();
+            context.globalNotifyStateChanged(mockService(context, "Late"), State.NEW, State.INSTALLED);
+            context.waitForPublishQueueToClear();
+            cliEventStreamAgent.getListComponentsHandler(mockContext).handleRequest(request);
+            cliEventStreamAgent.getListComponentsHandler(mockContext).handleRequest(request);
+            verify(kernel, times(5)).orderedDependencies();
+        }
+    }
+
+    private static GreengrassService mockService(Context context, String name) {
+        GreengrassService service = mock(GreengrassService.class);
+        lenient().when(service.getName()).thenReturn(name);
+        lenient().when(service.getState()).thenReturn(State.RUNNING);
+        lenient().when(service.getServiceConfig()).thenReturn(Topics.of(context, name, null));
+        return service;
+    }
+
     @Test
     void testRestartComponent_emptyComponentName() {
         RestartComponentRequest restartComponentRequest = new RestartComponentRequest();
@@ -660,6 +749,36 @@ class CLIEventStreamAgentTest {
         assertEquals(2, response.getLocalDeployments().size());
     }
 
+    @Test
+    @SuppressWarnings("PMD.CloseResource")
+    void testPersistLocalDeployment_evicts_oldest_finished_deployments() throws IOException {
+        cliEventStreamAgent.setMaxLocalDeployments(2);
+        try (Context context = new Context()) {
+            Topics cliServiceConfig = Topics.of(context, "runtime", null);
+            List<String> deploymentIds = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                String deploymentId = UUID.randomUUID().toString();
+                deploymentIds.add(deploymentId);
+                cliEventStreamAgent.persistLocalDeployment(cliServiceConfig, new CLIEventStreamAgent
+                        .LocalDeploymentDetails(deploymentId, i == 0 ? DeploymentStatus.IN_PROGRESS
+                        : DeploymentStatus.SUCCEEDED, Deployment.DeploymentType.LOCAL, 1000L + i)
+                        .convertToMapOfObject());
+            }
+            Topics localDeployments = cliServiceConfig.findTopics(PERSISTENT_LOCAL_DEPLOYMENTS);
+            assertNotNull(localDeployments.findTopics(deploymentIds.get(0)));
+            assertNull(localDeployments.findTopics(deploymentIds.get(1)));
+            assertNull(localDeployments.findTopics(deploymentIds.get(2)));
+            assertNotNull(localDeployments.findTopics(deploymentIds.get(3)));
+
+            ListLocalDeploymentsResponse response =
+                    cliEventStreamAgent.getListLocalDeploymentsHandler(mockContext, cliServiceConfig)
+                            .handleRequest(new ListLocalDeploymentsRequest());
+            assertEquals(2, response.getLocalDeployments().size());
+            assertEquals(deploymentIds.get(0), response.getLocalDeployments().get(0).getDeploymentId());
+            assertEquals(DeploymentStatus.IN_PROGRESS, response.getLocalDeployments().get(0).getStatus());
+        }
+    }
+
     @Test
     void test_createDebugPassword() throws IOException {
         CreateDebugPasswordRequest request = new CreateDebugPasswordRequest();
@@ -41,6 +41,8 @@ import static com.aws.greengrass.cli.CLIService.AUTHORIZED_WINDOWS_GROUPS;
 import static com.aws.greengrass.cli.CLIService.CLI_AUTH_TOKEN;
 import static com.aws.greengrass.cli.CLIService.CLI_SERVICE;
 import static com.aws.greengrass.cli.CLIService.DOMAIN_SOCKET_PATH;
+import static com.aws.greengrass.cli.CLIService.LOCAL_DEPLOYMENT_MAX_AGE_SECONDS;
+import static com.aws.greengrass.cli.CLIService.MAX_LOCAL_DEPLOYMENTS;
 import static com.aws.greengrass.cli.CLIService.OBJECT_MAPPER;
 import static com.aws.greengrass.componentmanager.KernelConfigResolver.CONFIGURATION_CONFIG_KEY;
 import static com.aws.greengrass.ipc.IPCEventStreamService.NUCLEUS_DOMAIN_SOCKET_FILEPATH;
@@ -114,6 +116,8 @@ class CLIServiceTest extends GGServiceTestUtil {
                 eq(CLIService.class.getName()));
         verify(cliConfigSpy).lookup(CONFIGURATION_CONFIG_KEY, AUTHORIZED_POSIX_GROUPS);
         verify(cliConfigSpy).lookup(CONFIGURATION_CONFIG_KEY, AUTHORIZED_WINDOWS_GROUPS);
+        verify(cliConfigSpy).lookup(CONFIGURATION_CONFIG_KEY, MAX_LOCAL_DEPLOYMENTS);
+        verify(cliConfigSpy).lookup(CONFIGURATION_CONFIG_KEY, LOCAL_DEPLOYMENT_MAX_AGE_SECONDS);
     }
 
     @Test
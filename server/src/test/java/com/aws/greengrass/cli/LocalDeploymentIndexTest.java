@@ -0,0 +1,68 @@
+/*
+ * Copyright Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package com.aws.greengrass.cli;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.aws.greengrass.model.DeploymentStatus;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LocalDeploymentIndexTest {
+
+    @Test
+    void test_index_by_id_status_and_creation_time() {
+        LocalDeploymentIndex index = new LocalDeploymentIndex();
+        index.put("b", DeploymentStatus.QUEUED, 200);
+        index.put("a", DeploymentStatus.QUEUED, 100);
+        index.put("c", DeploymentStatus.SUCCEEDED, 300);
+        assertEquals(Arrays.asList("b", "a"), index.withStatus(DeploymentStatus.QUEUED));
+
+        index.put("b", DeploymentStatus.IN_PROGRESS, 200);
+        assertEquals(Collections.singletonList("a"), index.withStatus(DeploymentStatus.QUEUED));
+        assertEquals(DeploymentStatus.IN_PROGRESS, index.get("b").getStatus());
+        assertEquals(Arrays.asList("a", "b", "c"), index.list().stream()
+                .map(LocalDeploymentIndex.Entry::getDeploymentId).collect(Collectors.toList()));
+
+        index.remove("a");
+        assertNull(index.get("a"));
+        assertEquals(0, index.withStatus(DeploymentStatus.QUEUED).size());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void test_evict_removes_oldest_finished_deployments_beyond_count() {
+        LocalDeploymentIndex index = new LocalDeploymentIndex();
+        index.put("1", DeploymentStatus.IN_PROGRESS, 100);
+        index.put("2", DeploymentStatus.SUCCEEDED, 200);
+        index.put("3", DeploymentStatus.FAILED, 300);
+        index.put("4", DeploymentStatus.SUCCEEDED, 400);
+        index.put("5", DeploymentStatus.QUEUED, 500);
+
+        // The oldest deployment is still running, so the next two finished ones go
+        assertEquals(Arrays.asList("2", "3"), index.evict(3, 0));
+        assertEquals(Arrays.asList("1", "4", "5"), index.list().stream()
+                .map(LocalDeploymentIndex.Entry::getDeploymentId).collect(Collectors.toList()));
+        assertEquals(0, index.evict(0, 0).size());
+    }
+
+    @Test
+    void test_evict_removes_finished_deployments_older_than_age() {
+        LocalDeploymentIndex index = new LocalDeploymentIndex();
+        index.put("1", DeploymentStatus.SUCCEEDED, 100);
+        index.put("2", DeploymentStatus.QUEUED, 200);
+        index.put("3", DeploymentStatus.FAILED, 300);
+        index.put("4", DeploymentStatus.SUCCEEDED, 400);
+
+        assertEquals(Arrays.asList("1", "3"), index.evict(10, 400));
+        assertEquals(2, index.size());
+        assertEquals(Collections.singletonList("2"), index.withStatus(DeploymentStatus.QUEUED));
+    }
+}